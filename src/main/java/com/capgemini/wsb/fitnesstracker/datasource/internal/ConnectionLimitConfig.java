@@ -0,0 +1,71 @@
+package com.capgemini.wsb.fitnesstracker.datasource.internal;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Guards the data source with a {@link ConnectionLimitingDataSource} when requests are handled on virtual threads,
+ * i.e. when {@code spring.threads.virtual.enabled} is set.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(ConnectionLimitProperties.class)
+@Slf4j
+class ConnectionLimitConfig {
+
+    /**
+     * Maximum size of a Hikari connection pool when not configured; the pool reports it only once started.
+     */
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Wraps the data source of the application into a {@link ConnectionLimitingDataSource}.
+     *
+     * @param properties the connection limit configuration, resolved lazily as post processors are created early.
+     * @return the post processor wrapping the data source.
+     */
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(ObjectProvider<ConnectionLimitProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                ConnectionLimitProperties limits = properties.getObject();
+                int maxConnections = limits.getMaxConnections() != null ? limits.getMaxConnections()
+                        : bean instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize()
+                        : DEFAULT_POOL_SIZE;
+                log.info("Limiting data source {} to {} concurrent connections", beanName, maxConnections);
+                return new ConnectionLimitingDataSource(dataSource, maxConnections, limits.getAcquireTimeout(), limits.getMaxWaiting());
+            }
+        };
+    }
+
+    /**
+     * Exposes the number of callers waiting for a connection as the {@code datasource.connections.waiting} gauge.
+     *
+     * @param dataSources the data sources of the application.
+     * @return the binder registering the gauges.
+     */
+    @Bean
+    MeterBinder connectionLimitMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.stream()
+                .filter(ConnectionLimitingDataSource.class::isInstance)
+                .map(ConnectionLimitingDataSource.class::cast)
+                .forEach(dataSource -> Gauge.builder("datasource.connections.waiting", dataSource, ConnectionLimitingDataSource::getWaiting)
+                        .description("Callers waiting for a database connection")
+                        .register(registry));
+    }
+}
@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.datasource.internal;
+
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the limit of concurrently held database connections, applied when requests run on virtual threads.
+ */
+@ConfigurationProperties(prefix = "fitness-tracker.datasource")
+@Getter
+class ConnectionLimitProperties {
+
+    /**
+     * Maximum number of connections held at the same time, the maximum size of the connection pool when not configured.
+     */
+    @Nullable
+    private final Integer maxConnections;
+
+    /**
+     * Maximum time a caller waits for a connection.
+     */
+    private final Duration acquireTimeout;
+
+    /**
+     * Maximum number of callers waiting for a connection; further callers fail immediately.
+     */
+    private final int maxWaiting;
+
+    ConnectionLimitProperties(@Nullable Integer maxConnections,
+                              @DefaultValue("30s") Duration acquireTimeout,
+                              @DefaultValue("10000") int maxWaiting) {
+        this.maxConnections = maxConnections;
+        this.acquireTimeout = acquireTimeout;
+        this.maxWaiting = maxWaiting;
+    }
+}
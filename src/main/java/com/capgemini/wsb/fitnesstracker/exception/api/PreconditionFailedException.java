@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker.exception.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Generic exception indicating that a resource no longer matches the state the client based its change on,
+ * e.g. because of a concurrent modification.
+ * Will resolve to the {@link HttpStatus#PRECONDITION_FAILED} if handled by the Spring's exception handler.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+/**
+ * Position of a user on a leaderboard.
+ *
+ * @param rank          the 1-based position of the user; users with equal distances are ordered by ID.
+ * @param userId        the ID of the user.
+ * @param totalDistance the sum of the distances of the ranked trainings of the user.
+ * @param trainingCount the number of ranked trainings of the user.
+ */
+public record LeaderboardEntry(long rank,
+                               Long userId,
+                               double totalDistance,
+                               long trainingCount) {
+}
@@ -0,0 +1,43 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Period a leaderboard ranks the trainings of. Periods are made of UTC days and weeks start on Monday.
+ */
+public enum LeaderboardPeriod {
+
+    WEEK,
+    MONTH,
+    ALL_TIME;
+
+    /**
+     * Returns the first day of the period containing the given day.
+     *
+     * @param day the day to find the period of.
+     * @return the first day of the period, {@link LocalDate#MIN} for {@link #ALL_TIME}.
+     */
+    public LocalDate startOf(LocalDate day) {
+        return switch (this) {
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+            case ALL_TIME -> LocalDate.MIN;
+        };
+    }
+
+    /**
+     * Returns the first day of the period following the period starting on the given day.
+     *
+     * @param start the first day of a period.
+     * @return the first day of the next period, {@link LocalDate#MAX} for {@link #ALL_TIME}.
+     */
+    public LocalDate nextStart(LocalDate start) {
+        return switch (this) {
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+            case ALL_TIME -> LocalDate.MAX;
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rankings of users by the total distance of their trainings, per period and activity type.
+ * <p>
+ * The rankings are kept in memory and updated with every written training, so reading a page or the rank of a user
+ * takes logarithmic time in the number of ranked users and never queries the trainings table. The weekly and
+ * monthly leaderboards cover the current UTC week and month and start empty when a new one begins.
+ * </p>
+ */
+public interface Leaderboards {
+
+    /**
+     * Returns a page of a leaderboard, best users first.
+     *
+     * @param period       the period of the leaderboard.
+     * @param activityType the activity type of the leaderboard, or {@code null} for all activity types.
+     * @param offset       the number of users to skip.
+     * @param limit        the maximum number of users to return.
+     * @return the entries of the page, ordered by rank.
+     * @throws IllegalArgumentException if the offset is negative or the limit is not positive.
+     */
+    List<LeaderboardEntry> findTop(LeaderboardPeriod period, @Nullable ActivityType activityType, int offset, int limit);
+
+    /**
+     * Returns the position of a user on a leaderboard.
+     *
+     * @param userId       the ID of the user.
+     * @param period       the period of the leaderboard.
+     * @param activityType the activity type of the leaderboard, or {@code null} for all activity types.
+     * @return the entry of the user, or empty if the user has no ranked trainings.
+     */
+    Optional<LeaderboardEntry> findEntry(Long userId, LeaderboardPeriod period, @Nullable ActivityType activityType);
+}
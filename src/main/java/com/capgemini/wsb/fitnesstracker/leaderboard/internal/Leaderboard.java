@@ -0,0 +1,109 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranking of users by total distance, kept as the totals per user and a {@link RankedSkipList} of the totals.
+ * <p>
+ * A user is ranked while at least one of their trainings is counted, so a user whose trainings were all moved away
+ * disappears instead of staying ranked with a rounding residue of the distance. Not thread-safe.
+ * </p>
+ */
+final class Leaderboard {
+
+    private final Map<Long, Score> scores = new HashMap<>();
+    private final RankedSkipList ranking = new RankedSkipList();
+
+    /**
+     * Returns the number of ranked users.
+     *
+     * @return the number of users.
+     */
+    int size() {
+        return ranking.size();
+    }
+
+    /**
+     * Adds trainings to the totals of a user, or removes them when the values are negative.
+     *
+     * @param userId        the ID of the user.
+     * @param distance      the distance to add to the total of the user.
+     * @param trainingCount the number of trainings to add to the count of the user.
+     */
+    void add(long userId, double distance, long trainingCount) {
+        Score previous = scores.get(userId);
+        if (previous != null) {
+            ranking.remove(userId, previous.distance());
+        }
+        Score score = previous == null
+                ? new Score(distance, trainingCount)
+                : new Score(previous.distance() + distance, previous.trainingCount() + trainingCount);
+        if (score.trainingCount() > 0) {
+            scores.put(userId, score);
+            ranking.insert(userId, score.distance());
+        } else {
+            scores.remove(userId);
+        }
+    }
+
+    /**
+     * Removes a user from the ranking.
+     *
+     * @param userId the ID of the user.
+     */
+    void removeUser(long userId) {
+        Score score = scores.remove(userId);
+        if (score != null) {
+            ranking.remove(userId, score.distance());
+        }
+    }
+
+    /**
+     * Removes all users.
+     */
+    void clear() {
+        scores.clear();
+        ranking.clear();
+    }
+
+    /**
+     * Returns the position of a user.
+     *
+     * @param userId the ID of the user.
+     * @return the entry of the user, or {@code null} if the user is not ranked.
+     */
+    @Nullable
+    LeaderboardEntry entryOf(long userId) {
+        Score score = scores.get(userId);
+        if (score == null) {
+            return null;
+        }
+        return new LeaderboardEntry(ranking.rank(userId, score.distance()), userId, score.distance(), score.trainingCount());
+    }
+
+    /**
+     * Returns consecutive positions of the ranking.
+     *
+     * @param offset the number of users to skip.
+     * @param limit  the maximum number of users to return.
+     * @return the entries ordered by rank.
+     */
+    List<LeaderboardEntry> entries(int offset, int limit) {
+        int count = Math.max(0, Math.min(limit, ranking.size() - offset));
+        List<LeaderboardEntry> entries = new ArrayList<>(count);
+        RankedSkipList.Node node = ranking.nodeAt(offset + 1L);
+        for (long rank = offset + 1L; node != null && entries.size() < count; rank++, node = node.next()) {
+            entries.add(new LeaderboardEntry(rank, node.userId(), node.score(), scores.get(node.userId()).trainingCount()));
+        }
+        return entries;
+    }
+
+    private record Score(double distance, long trainingCount) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+class LeaderboardConfig {
+
+}
@@ -0,0 +1,78 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardPeriod;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.Leaderboards;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for leaderboards of users ranked by the total distance of their trainings.
+ * All endpoints select the leaderboard by period ({@code WEEK}, {@code MONTH} or {@code ALL_TIME}, the default)
+ * and optionally by activity type.
+ */
+@RestController
+@RequestMapping("/v1/leaderboards")
+@RequiredArgsConstructor
+@Slf4j
+class LeaderboardController {
+
+    private final Leaderboards leaderboards;
+
+    /**
+     * Retrieves a page of a leaderboard, best users first.
+     *
+     * @param period       the period of the leaderboard.
+     * @param activityType the activity type of the leaderboard, if any.
+     * @param offset       the number of users to skip.
+     * @param limit        the maximum number of users to return.
+     * @return ResponseEntity containing the entries of the page or an error response if retrieving them fails.
+     */
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(@RequestParam(value = "period", defaultValue = "ALL_TIME") LeaderboardPeriod period,
+                                                                 @RequestParam(value = "activityType", required = false) ActivityType activityType,
+                                                                 @RequestParam(value = "offset", defaultValue = "0") int offset,
+                                                                 @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(leaderboards.findTop(period, activityType, offset, limit));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid leaderboard page", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error retrieving leaderboard", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves the position of a user on a leaderboard.
+     *
+     * @param userId       the ID of the user.
+     * @param period       the period of the leaderboard.
+     * @param activityType the activity type of the leaderboard, if any.
+     * @return ResponseEntity containing the entry of the user, or a not found response if the user is not ranked.
+     */
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<LeaderboardEntry> getUserEntry(@PathVariable Long userId,
+                                                         @RequestParam(value = "period", defaultValue = "ALL_TIME") LeaderboardPeriod period,
+                                                         @RequestParam(value = "activityType", required = false) ActivityType activityType) {
+        try {
+            return leaderboards.findEntry(userId, period, activityType)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (Exception e) {
+            log.error("Error retrieving leaderboard entry of user {}", userId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
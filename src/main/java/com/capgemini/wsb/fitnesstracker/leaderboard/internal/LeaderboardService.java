@@ -0,0 +1,266 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardPeriod;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.Leaderboards;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingFacade;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsImportedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of the {@link Leaderboards} interface keeping {@link PeriodLeaderboards} for every period.
+ * <p>
+ * The leaderboards are loaded from the database once the application is ready and then follow the training events.
+ * A training counts for a weekly or monthly leaderboard when it starts within the current period; when a new period
+ * begins, the leaderboards of that period are reloaded from the trainings starting within it.
+ * </p>
+ * <p>
+ * New trainings are added as deltas. Updated trainings recompute the totals of their users from the database instead,
+ * because the previous state carried by the event may be outdated when the same training is updated concurrently.
+ * </p>
+ * <p>
+ * Reloads read the database without holding the monitor guarding the leaderboards, so queries and events go on
+ * against the current leaderboards meanwhile. The events arriving during a reload are also recorded and replayed on
+ * the new leaderboards before they are swapped in; new trainings the reload has already counted are skipped.
+ * </p>
+ */
+@Service
+@Slf4j
+class LeaderboardService implements Leaderboards {
+
+    private final TrainingFacade trainingFacade;
+    /**
+     * Serializes reloads, which run without holding the monitor.
+     */
+    private final Lock reloadLock = new ReentrantLock();
+    /**
+     * The current leaderboards, guarded by {@code this}.
+     */
+    private final Map<LeaderboardPeriod, PeriodLeaderboards> leaderboards = new EnumMap<>(LeaderboardPeriod.class);
+    /**
+     * The events arriving while a reload runs, guarded by {@code this}.
+     */
+    @Nullable
+    private Reload reload;
+
+    LeaderboardService(TrainingFacade trainingFacade) {
+        this.trainingFacade = trainingFacade;
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            leaderboards.put(period, new PeriodLeaderboards(period, today));
+        }
+    }
+
+    /**
+     * Loads all leaderboards from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        reload(EnumSet.allOf(LeaderboardPeriod.class), LocalDate.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Starts the weekly and monthly leaderboards over when a new week or month begins.
+     */
+    @Scheduled(cron = "0 0 0 * * *", zone = "UTC")
+    public void rollOver() {
+        rollOver(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Reloads the leaderboards of the periods that do not contain the given day anymore.
+     *
+     * @param today the current UTC day.
+     */
+    void rollOver(LocalDate today) {
+        Set<LeaderboardPeriod> ended = EnumSet.noneOf(LeaderboardPeriod.class);
+        synchronized (this) {
+            leaderboards.forEach((period, periodLeaderboards) -> {
+                if (!period.startOf(today).equals(periodLeaderboards.start())) {
+                    ended.add(period);
+                }
+            });
+        }
+        if (!ended.isEmpty()) {
+            reload(ended, today);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTrainingCreated(TrainingCreatedEvent event) {
+        add(List.of(event.training()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTrainingsImported(TrainingsImportedEvent event) {
+        add(event.trainings());
+    }
+
+    /**
+     * Recomputes the totals of the users the updated training belongs and belonged to. The users are read and
+     * replaced under the monitor, so of two concurrent updates the later recomputation sees both.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTrainingUpdated(TrainingUpdatedEvent event) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (event.previous() != null && event.previous().userId() != null) {
+            userIds.add(event.previous().userId());
+        }
+        if (event.training().userId() != null) {
+            userIds.add(event.training().userId());
+        }
+        for (Long userId : userIds) {
+            recompute(userId, leaderboards.values());
+        }
+        if (reload != null) {
+            reload.updatedUserIds.addAll(userIds);
+        }
+    }
+
+    /**
+     * Drops a removed user, whose trainings are deleted in bulk without publishing training events.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserDeleted(UserDeletedEvent event) {
+        leaderboards.values().forEach(periodLeaderboards -> periodLeaderboards.removeUser(event.userId()));
+        if (reload != null) {
+            reload.deletedUserIds.add(event.userId());
+        }
+    }
+
+    /**
+     * Returns a page of a leaderboard read from the skip list in logarithmic time plus the page size.
+     *
+     * @param period       the period of the leaderboard.
+     * @param activityType the activity type of the leaderboard, or {@code null} for all activity types.
+     * @param offset       the number of users to skip.
+     * @param limit        the maximum number of users to return.
+     * @return the entries of the page, ordered by rank.
+     */
+    @Override
+    public synchronized List<LeaderboardEntry> findTop(LeaderboardPeriod period, @Nullable ActivityType activityType, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Offset must not be negative and limit must be positive, were " + offset + " and " + limit);
+        }
+        return leaderboards.get(period).leaderboard(activityType).entries(offset, limit);
+    }
+
+    /**
+     * Returns the position of a user ranked by the skip list in logarithmic time.
+     *
+     * @param userId       the ID of the user.
+     * @param period       the period of the leaderboard.
+     * @param activityType the activity type of the leaderboard, or {@code null} for all activity types.
+     * @return the entry of the user, or empty if the user has no ranked trainings.
+     */
+    @Override
+    public synchronized Optional<LeaderboardEntry> findEntry(Long userId, LeaderboardPeriod period, @Nullable ActivityType activityType) {
+        return Optional.ofNullable(leaderboards.get(period).leaderboard(activityType).entryOf(userId));
+    }
+
+    /**
+     * Loads new leaderboards of the periods containing the given day and swaps them in. All-time leaderboards read
+     * the whole trainings table, other periods only the trainings starting within them.
+     */
+    private void reload(Set<LeaderboardPeriod> periods, LocalDate today) {
+        reloadLock.lock();
+        try {
+            long start = System.nanoTime();
+            Map<LeaderboardPeriod, PeriodLeaderboards> loaded = new EnumMap<>(LeaderboardPeriod.class);
+            for (LeaderboardPeriod period : periods) {
+                loaded.put(period, new PeriodLeaderboards(period, today));
+            }
+            Reload started = new Reload();
+            synchronized (this) {
+                reload = started;
+            }
+            try {
+                if (periods.contains(LeaderboardPeriod.ALL_TIME)) {
+                    trainingFacade.forEachTrainingSnapshot(training -> loaded.values().forEach(board -> board.add(training)));
+                } else {
+                    Instant from = loaded.values().stream().map(PeriodLeaderboards::from).min(Instant::compareTo).orElseThrow();
+                    Instant to = loaded.values().stream().map(PeriodLeaderboards::to).max(Instant::compareTo).orElseThrow();
+                    trainingFacade.forEachTrainingSnapshotStartingBetween(from, to,
+                            training -> loaded.values().forEach(board -> board.add(training)));
+                }
+                loaded.values().forEach(PeriodLeaderboards::optimize);
+                synchronized (this) {
+                    started.replay(loaded.values());
+                    leaderboards.putAll(loaded);
+                }
+            } finally {
+                synchronized (this) {
+                    reload = null;
+                }
+            }
+            log.info("Loaded {} leaderboards in {} ms", periods, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void add(List<TrainingSnapshot> trainings) {
+        for (PeriodLeaderboards periodLeaderboards : leaderboards.values()) {
+            trainings.forEach(periodLeaderboards::add);
+        }
+        if (reload != null) {
+            reload.createdTrainings.addAll(trainings);
+        }
+    }
+
+    private void recompute(Long userId, Collection<PeriodLeaderboards> periods) {
+        List<TrainingSnapshot> trainings = trainingFacade.findTrainingSnapshotsByUserId(userId);
+        periods.forEach(periodLeaderboards -> periodLeaderboards.replaceUser(userId, trainings));
+    }
+
+    /**
+     * The events arriving while a reload reads the database, which the loaded leaderboards may have missed.
+     */
+    private final class Reload {
+
+        private final List<TrainingSnapshot> createdTrainings = new ArrayList<>();
+        private final Set<Long> updatedUserIds = new LinkedHashSet<>();
+        private final Set<Long> deletedUserIds = new LinkedHashSet<>();
+
+        /**
+         * Applies the recorded events to the loaded leaderboards. Must be called under the monitor.
+         */
+        void replay(Collection<PeriodLeaderboards> loaded) {
+            for (PeriodLeaderboards periodLeaderboards : loaded) {
+                createdTrainings.forEach(periodLeaderboards::add);
+            }
+            for (Long userId : updatedUserIds) {
+                recompute(userId, loaded);
+            }
+            for (Long userId : deletedUserIds) {
+                loaded.forEach(periodLeaderboards -> periodLeaderboards.removeUser(userId));
+            }
+        }
+    }
+}
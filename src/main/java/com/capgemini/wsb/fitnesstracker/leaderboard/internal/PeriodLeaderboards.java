@@ -0,0 +1,150 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardPeriod;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * The leaderboards of one period, per activity type and for all activity types, together with the IDs of the trainings
+ * counted in them.
+ * <p>
+ * A training loaded from the database may also arrive later as a creation event, e.g. when it was committed while the
+ * leaderboards were being loaded. Remembering the counted IDs makes adding a training idempotent, so such a training
+ * is counted once. The IDs are kept in a compressed bitmap, which takes a few bits per training for the mostly
+ * consecutive IDs of a period. Not thread-safe.
+ * </p>
+ */
+final class PeriodLeaderboards {
+
+    private static final int ALL_ACTIVITY_TYPES = ActivityType.values().length;
+
+    private final LeaderboardPeriod period;
+    private final LocalDate start;
+    private final LocalDate end;
+    /**
+     * Leaderboards indexed by activity type ordinal, with the leaderboard of all activity types last.
+     */
+    private final Leaderboard[] leaderboards = new Leaderboard[ALL_ACTIVITY_TYPES + 1];
+    private final Roaring64Bitmap countedIds = new Roaring64Bitmap();
+
+    /**
+     * Creates empty leaderboards of the period containing the given day.
+     *
+     * @param period the period of the leaderboards.
+     * @param day    a UTC day within the period.
+     */
+    PeriodLeaderboards(LeaderboardPeriod period, LocalDate day) {
+        this.period = period;
+        this.start = period.startOf(day);
+        this.end = period.nextStart(start);
+        for (int i = 0; i < leaderboards.length; i++) {
+            leaderboards[i] = new Leaderboard();
+        }
+    }
+
+    LeaderboardPeriod period() {
+        return period;
+    }
+
+    /**
+     * Returns the first day of the period.
+     *
+     * @return the first day, {@link LocalDate#MIN} for {@link LeaderboardPeriod#ALL_TIME}.
+     */
+    LocalDate start() {
+        return start;
+    }
+
+    /**
+     * Returns the start of the first UTC day of the period.
+     *
+     * @return the inclusive lower bound of the start times of the counted trainings.
+     */
+    Instant from() {
+        return start.atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the start of the first UTC day after the period.
+     *
+     * @return the exclusive upper bound of the start times of the counted trainings.
+     */
+    Instant to() {
+        return end.atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the leaderboard of an activity type.
+     *
+     * @param activityType the activity type, or {@code null} for all activity types.
+     * @return the leaderboard.
+     */
+    Leaderboard leaderboard(@Nullable ActivityType activityType) {
+        return leaderboards[activityType == null ? ALL_ACTIVITY_TYPES : activityType.ordinal()];
+    }
+
+    /**
+     * Counts a training of a user that starts within the period, unless it has been counted already.
+     *
+     * @param training the training to count.
+     */
+    void add(TrainingSnapshot training) {
+        if (training.userId() == null || !contains(training) || countedIds.contains(training.id())) {
+            return;
+        }
+        countedIds.addLong(training.id());
+        count(training);
+    }
+
+    /**
+     * Replaces the totals of a user with the totals of the given trainings, which must be all current trainings of
+     * the user. Trainings outside the period are skipped.
+     *
+     * @param userId    the ID of the user.
+     * @param trainings the trainings of the user.
+     */
+    void replaceUser(Long userId, Collection<TrainingSnapshot> trainings) {
+        removeUser(userId);
+        for (TrainingSnapshot training : trainings) {
+            if (contains(training)) {
+                countedIds.addLong(training.id());
+                count(training);
+            }
+        }
+    }
+
+    /**
+     * Removes a user from all leaderboards of the period.
+     *
+     * @param userId the ID of the user.
+     */
+    void removeUser(Long userId) {
+        for (Leaderboard leaderboard : leaderboards) {
+            leaderboard.removeUser(userId);
+        }
+    }
+
+    /**
+     * Compresses the bitmap of counted IDs after a bulk load.
+     */
+    void optimize() {
+        countedIds.runOptimize();
+    }
+
+    private boolean contains(TrainingSnapshot training) {
+        LocalDate day = LocalDate.ofInstant(training.startTime(), ZoneOffset.UTC);
+        return !day.isBefore(start) && day.isBefore(end);
+    }
+
+    private void count(TrainingSnapshot training) {
+        leaderboards[training.activityType().ordinal()].add(training.userId(), training.distance(), 1);
+        leaderboards[ALL_ACTIVITY_TYPES].add(training.userId(), training.distance(), 1);
+    }
+}
@@ -0,0 +1,226 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import jakarta.annotation.Nullable;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Indexable skip list of users ordered by descending score, ties ordered by ascending user ID.
+ * <p>
+ * Every link stores its span, the number of positions it skips, so the rank of a user is the sum of the spans
+ * followed while searching for it and the user at a rank is found by following links while their spans fit.
+ * Insertion, removal, rank and positional lookup take expected logarithmic time.
+ * </p>
+ * <p>
+ * Not thread-safe.
+ * </p>
+ */
+final class RankedSkipList {
+
+    private static final int MAX_LEVEL = 32;
+    /**
+     * Probability of a node reaching the next level, giving about four times fewer nodes per level.
+     */
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node head = new Node(0, Double.NaN, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    /**
+     * Returns the number of users in the list.
+     *
+     * @return the number of users.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Inserts a user with a score. The user must not be in the list already.
+     *
+     * @param userId the ID of the user.
+     * @param score  the score of the user.
+     */
+    void insert(long userId, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && precedes(node.next[i], userId, score)) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+        Node inserted = new Node(userId, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * Removes a user stored with the given score.
+     *
+     * @param userId the ID of the user.
+     * @param score  the score the user was inserted with.
+     * @return {@code true} if the user was found and removed.
+     */
+    boolean remove(long userId, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && precedes(node.next[i], userId, score)) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+        Node removed = node.next[0];
+        if (removed == null || removed.userId != userId || Double.compare(removed.score, score) != 0) {
+            return false;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == removed) {
+                update[i].span[i] += removed.span[i] - 1;
+                update[i].next[i] = removed.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the rank of a user stored with the given score.
+     *
+     * @param userId the ID of the user.
+     * @param score  the score the user was inserted with.
+     * @return the 1-based rank of the user, or {@code 0} if the user is not in the list with that score.
+     */
+    int rank(long userId, double score) {
+        int rank = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null
+                    && (precedes(node.next[i], userId, score) || node.next[i].userId == userId && Double.compare(node.next[i].score, score) == 0)) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+            if (node != head && node.userId == userId && Double.compare(node.score, score) == 0) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the node at a rank, from which the following users can be read by {@link Node#next()}.
+     *
+     * @param rank the 1-based rank.
+     * @return the node at the rank, or {@code null} if the list has fewer users.
+     */
+    @Nullable
+    Node nodeAt(long rank) {
+        if (rank < 1 || rank > size) {
+            return null;
+        }
+        long traversed = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.span[i] <= rank) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+            if (traversed == rank) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes all users.
+     */
+    void clear() {
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+        size = 0;
+    }
+
+    /**
+     * Tells whether a node sorts before the given user and score.
+     */
+    private static boolean precedes(Node node, long userId, double score) {
+        int byScore = Double.compare(score, node.score);
+        return byScore < 0 || byScore == 0 && node.userId < userId;
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    /**
+     * A user in the list together with its links.
+     */
+    static final class Node {
+
+        private final long userId;
+        private final double score;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(long userId, double score, int level) {
+            this.userId = userId;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+        long userId() {
+            return userId;
+        }
+
+        double score() {
+            return score;
+        }
+
+        /**
+         * Returns the node of the next lower ranked user.
+         *
+         * @return the next node, or {@code null} if this is the last user.
+         */
+        @Nullable
+        Node next() {
+            return next[0];
+        }
+    }
+}
@@ -84,62 +84,62 @@ class InitialDataLoader {
             SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
             Training training1 = new Training(users.get(0),
-                                              sdf.parse("2024-01-19 08:00:00"),
-                                              sdf.parse("2024-01-19 09:30:00"),
+                                              sdf.parse("2024-01-19 08:00:00").toInstant(),
+                                              sdf.parse("2024-01-19 09:30:00").toInstant(),
                                               ActivityType.RUNNING,
                                               10.5,
                                               8.2);
             Training training2 = new Training(users.get(1),
-                                              sdf.parse("2024-01-18 15:30:00"),
-                                              sdf.parse("2024-01-18 17:00:00"),
+                                              sdf.parse("2024-01-18 15:30:00").toInstant(),
+                                              sdf.parse("2024-01-18 17:00:00").toInstant(),
                                               ActivityType.CYCLING,
                                               25.0,
                                               18.5);
             Training training3 = new Training(users.get(2),
-                                              sdf.parse("2024-01-17 07:45:00"),
-                                              sdf.parse("2024-01-17 09:00:00"),
+                                              sdf.parse("2024-01-17 07:45:00").toInstant(),
+                                              sdf.parse("2024-01-17 09:00:00").toInstant(),
                                               ActivityType.WALKING,
                                               5.2,
                                               5.8);
             Training training4 = new Training(users.get(3),
-                                              sdf.parse("2024-01-16 18:00:00"),
-                                              sdf.parse("2024-01-16 19:30:00"),
+                                              sdf.parse("2024-01-16 18:00:00").toInstant(),
+                                              sdf.parse("2024-01-16 19:30:00").toInstant(),
                                               ActivityType.RUNNING,
                                               12.3,
                                               9.0);
             Training training5 = new Training(users.get(4),
-                                              sdf.parse("2024-01-15 12:30:00"),
-                                              sdf.parse("2024-01-15 13:45:00"),
+                                              sdf.parse("2024-01-15 12:30:00").toInstant(),
+                                              sdf.parse("2024-01-15 13:45:00").toInstant(),
                                               ActivityType.CYCLING,
                                               18.7,
                                               15.3);
             Training training6 = new Training(users.get(5),
-                                              sdf.parse("2024-01-14 09:00:00"),
-                                              sdf.parse("2024-01-14 10:15:00"),
+                                              sdf.parse("2024-01-14 09:00:00").toInstant(),
+                                              sdf.parse("2024-01-14 10:15:00").toInstant(),
                                               ActivityType.WALKING,
                                               3.5,
                                               4.0);
             Training training7 = new Training(users.get(6),
-                                              sdf.parse("2024-01-13 16:45:00"),
-                                              sdf.parse("2024-01-13 18:30:00"),
+                                              sdf.parse("2024-01-13 16:45:00").toInstant(),
+                                              sdf.parse("2024-01-13 18:30:00").toInstant(),
                                               ActivityType.RUNNING,
                                               15.0,
                                               10.8);
             Training training8 = new Training(users.get(7),
-                                              sdf.parse("2024-01-12 11:30:00"),
-                                              sdf.parse("2024-01-12 12:45:00"),
+                                              sdf.parse("2024-01-12 11:30:00").toInstant(),
+                                              sdf.parse("2024-01-12 12:45:00").toInstant(),
                                               ActivityType.CYCLING,
                                               22.5,
                                               17.2);
             Training training9 = new Training(users.get(8),
-                                              sdf.parse("2024-01-11 07:15:00"),
-                                              sdf.parse("2024-01-11 08:30:00"),
+                                              sdf.parse("2024-01-11 07:15:00").toInstant(),
+                                              sdf.parse("2024-01-11 08:30:00").toInstant(),
                                               ActivityType.WALKING,
                                               4.2,
                                               4.5);
             Training training10 = new Training(users.get(9),
-                                               sdf.parse("2024-01-10 14:00:00"),
-                                               sdf.parse("2024-01-10 15:15:00"),
+                                               sdf.parse("2024-01-10 14:00:00").toInstant(),
+                                               sdf.parse("2024-01-10 15:15:00").toInstant(),
                                                ActivityType.RUNNING,
                                                11.8,
                                                8.5);
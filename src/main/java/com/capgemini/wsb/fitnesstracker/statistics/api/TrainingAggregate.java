@@ -0,0 +1,21 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+/**
+ * Totals and averages of a set of trainings.
+ *
+ * @param trainingCount          the number of trainings.
+ * @param totalDistance          the sum of the distances.
+ * @param averageDistance        the mean distance, zero if there are no trainings.
+ * @param totalDurationSeconds   the sum of the durations in seconds.
+ * @param averageDurationSeconds the mean duration in seconds, zero if there are no trainings.
+ * @param averageSpeed           the mean of the average speeds of the trainings, zero if there are no trainings.
+ * @param maxAverageSpeed        the highest average speed of a training, zero if there are no trainings.
+ */
+public record TrainingAggregate(long trainingCount,
+                                double totalDistance,
+                                double averageDistance,
+                                long totalDurationSeconds,
+                                double averageDurationSeconds,
+                                double averageSpeed,
+                                double maxAverageSpeed) {
+}
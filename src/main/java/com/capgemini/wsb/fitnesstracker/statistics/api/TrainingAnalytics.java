@@ -0,0 +1,42 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.util.Map;
+
+/**
+ * Analytical queries over all trainings.
+ * <p>
+ * Queries are answered from an in-memory, column-oriented copy of the trainings kept up to date with every write,
+ * so they scan primitive arrays instead of loading entities and never touch the database.
+ * </p>
+ */
+public interface TrainingAnalytics {
+
+    /**
+     * Aggregates the trainings matching the filter.
+     *
+     * @param filter the trainings to aggregate.
+     * @return the totals and averages of the matching trainings.
+     */
+    TrainingAggregate aggregate(TrainingAnalyticsFilter filter);
+
+    /**
+     * Aggregates the trainings matching the filter per activity type.
+     *
+     * @param filter the trainings to aggregate.
+     * @return the totals and averages per activity type, for activity types with at least one matching training.
+     */
+    Map<ActivityType, TrainingAggregate> aggregateByActivityType(TrainingAnalyticsFilter filter);
+
+    /**
+     * Computes the distribution of a metric over the trainings matching the filter.
+     *
+     * @param metric      the metric to distribute.
+     * @param bucketWidth the width of the histogram buckets, in the unit of the metric.
+     * @param filter      the trainings to include.
+     * @return the histogram of the metric.
+     * @throws IllegalArgumentException if the bucket width is not positive.
+     */
+    TrainingDistribution distribution(TrainingMetric metric, double bucketWidth, TrainingAnalyticsFilter filter);
+}
@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDate;
+
+/**
+ * Restricts the trainings taken into account by {@link TrainingAnalytics}. Every {@code null} criterion matches
+ * all trainings.
+ *
+ * @param userId       the ID of the user who performed the trainings.
+ * @param activityType the activity type of the trainings.
+ * @param from         the first start date (UTC) of the trainings.
+ * @param to           the last start date (UTC) of the trainings.
+ */
+public record TrainingAnalyticsFilter(@Nullable Long userId,
+                                      @Nullable ActivityType activityType,
+                                      @Nullable LocalDate from,
+                                      @Nullable LocalDate to) {
+
+    /**
+     * Returns a filter matching all trainings.
+     *
+     * @return the filter without any criteria.
+     */
+    public static TrainingAnalyticsFilter all() {
+        return new TrainingAnalyticsFilter(null, null, null, null);
+    }
+}
@@ -0,0 +1,17 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import java.util.List;
+
+/**
+ * Histogram of a {@link TrainingMetric} over a set of trainings.
+ * <p>
+ * Bucket {@code i} counts the trainings whose value lies within {@code [i * bucketWidth, (i + 1) * bucketWidth)}.
+ * There are at most 10,000 buckets: negative values are counted in the first bucket and larger values in the last one.
+ * </p>
+ *
+ * @param metric      the measured property.
+ * @param bucketWidth the width of every bucket, in the unit of the metric.
+ * @param counts      the number of trainings per bucket, up to the last non-empty bucket.
+ */
+public record TrainingDistribution(TrainingMetric metric, double bucketWidth, List<Long> counts) {
+}
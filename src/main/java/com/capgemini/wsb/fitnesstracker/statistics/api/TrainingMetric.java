@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+/**
+ * Numeric property of a training whose distribution can be computed by {@link TrainingAnalytics}.
+ */
+public enum TrainingMetric {
+    DISTANCE,
+    AVERAGE_SPEED,
+    /**
+     * The time between the start and the end of a training, in seconds.
+     */
+    DURATION
+}
@@ -0,0 +1,119 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAggregate;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAnalytics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAnalyticsFilter;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingDistribution;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingMetric;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * REST controller for analytical queries over all trainings, such as totals, averages and distributions.
+ * All endpoints accept the same optional filters: the user, the activity type and the range of start dates
+ * (UTC, {@code yyyy-MM-dd}, both inclusive).
+ */
+@RestController
+@RequestMapping("/v1/statistics/trainings")
+@RequiredArgsConstructor
+@Slf4j
+class TrainingAnalyticsController {
+
+    private final TrainingAnalytics trainingAnalytics;
+
+    /**
+     * Aggregates the matching trainings.
+     *
+     * @param userId       the ID of the user whose trainings are aggregated, if any.
+     * @param activityType the activity type of the aggregated trainings, if any.
+     * @param fromStr      the first start date of the aggregated trainings, if any.
+     * @param toStr        the last start date of the aggregated trainings, if any.
+     * @return ResponseEntity containing the totals and averages or an error response if aggregating fails.
+     */
+    @GetMapping
+    public ResponseEntity<TrainingAggregate> aggregate(@RequestParam(value = "userId", required = false) Long userId,
+                                                       @RequestParam(value = "activityType", required = false) ActivityType activityType,
+                                                       @RequestParam(value = "from", required = false) String fromStr,
+                                                       @RequestParam(value = "to", required = false) String toStr) {
+        try {
+            return ResponseEntity.ok(trainingAnalytics.aggregate(filter(userId, activityType, fromStr, toStr)));
+        } catch (DateTimeParseException e) {
+            log.error("Invalid date format", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error aggregating trainings", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Aggregates the matching trainings per activity type.
+     *
+     * @param userId  the ID of the user whose trainings are aggregated, if any.
+     * @param fromStr the first start date of the aggregated trainings, if any.
+     * @param toStr   the last start date of the aggregated trainings, if any.
+     * @return ResponseEntity containing the totals and averages per activity type or an error response if aggregating fails.
+     */
+    @GetMapping("/activityType")
+    public ResponseEntity<Map<ActivityType, TrainingAggregate>> aggregateByActivityType(@RequestParam(value = "userId", required = false) Long userId,
+                                                                                        @RequestParam(value = "from", required = false) String fromStr,
+                                                                                        @RequestParam(value = "to", required = false) String toStr) {
+        try {
+            return ResponseEntity.ok(trainingAnalytics.aggregateByActivityType(filter(userId, null, fromStr, toStr)));
+        } catch (DateTimeParseException e) {
+            log.error("Invalid date format", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error aggregating trainings by type of activity", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Computes the histogram of a metric over the matching trainings.
+     *
+     * @param metric       the metric to distribute.
+     * @param bucketWidth  the width of the histogram buckets, in the unit of the metric (seconds for durations).
+     * @param userId       the ID of the user whose trainings are included, if any.
+     * @param activityType the activity type of the included trainings, if any.
+     * @param fromStr      the first start date of the included trainings, if any.
+     * @param toStr        the last start date of the included trainings, if any.
+     * @return ResponseEntity containing the histogram or an error response if computing it fails.
+     */
+    @GetMapping("/distribution")
+    public ResponseEntity<TrainingDistribution> distribution(@RequestParam("metric") TrainingMetric metric,
+                                                             @RequestParam("bucketWidth") double bucketWidth,
+                                                             @RequestParam(value = "userId", required = false) Long userId,
+                                                             @RequestParam(value = "activityType", required = false) ActivityType activityType,
+                                                             @RequestParam(value = "from", required = false) String fromStr,
+                                                             @RequestParam(value = "to", required = false) String toStr) {
+        try {
+            return ResponseEntity.ok(trainingAnalytics.distribution(metric, bucketWidth, filter(userId, activityType, fromStr, toStr)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            log.error("Invalid distribution request", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error computing distribution of trainings", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private static TrainingAnalyticsFilter filter(@Nullable Long userId, @Nullable ActivityType activityType,
+                                                  @Nullable String fromStr, @Nullable String toStr) {
+        return new TrainingAnalyticsFilter(userId, activityType,
+                fromStr == null ? null : LocalDate.parse(fromStr),
+                toStr == null ? null : LocalDate.parse(toStr));
+    }
+}
@@ -0,0 +1,152 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAggregate;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAnalytics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAnalyticsFilter;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingDistribution;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingMetric;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingFacade;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsImportedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of the {@link TrainingAnalytics} interface backed by {@link TrainingColumns}.
+ * <p>
+ * The columns are loaded from the database once the application is ready and then follow the training events,
+ * which carry the complete state of the written trainings, so no write ever reads the database again. Queries
+ * scan the columns under a shared lock and may run concurrently; writes wait for running scans.
+ * </p>
+ */
+@Service
+@Slf4j
+class TrainingAnalyticsService implements TrainingAnalytics {
+
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private final TrainingFacade trainingFacade;
+    private final TrainingColumns columns = new TrainingColumns(INITIAL_CAPACITY);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    TrainingAnalyticsService(TrainingFacade trainingFacade) {
+        this.trainingFacade = trainingFacade;
+    }
+
+    /**
+     * Loads all trainings from the database into the columns.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        write(() -> {
+            long start = System.nanoTime();
+            columns.clear();
+            trainingFacade.forEachTrainingSnapshot(columns::put);
+            log.info("Loaded {} trainings into the analytics columns in {} ms", columns.count(), (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingCreated(TrainingCreatedEvent event) {
+        write(() -> columns.put(event.training()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingsImported(TrainingsImportedEvent event) {
+        write(() -> event.trainings().forEach(columns::put));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingUpdated(TrainingUpdatedEvent event) {
+        write(() -> columns.put(event.training()));
+    }
+
+    /**
+     * Drops the trainings of a removed user, which are deleted in bulk without publishing training events.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        write(() -> columns.removeUser(event.userId()));
+    }
+
+    /**
+     * Aggregates the trainings matching the filter by scanning the columns.
+     *
+     * @param filter the trainings to aggregate.
+     * @return the totals and averages of the matching trainings.
+     */
+    @Override
+    public TrainingAggregate aggregate(TrainingAnalyticsFilter filter) {
+        return read(() -> columns.aggregate(filter));
+    }
+
+    /**
+     * Aggregates the trainings matching the filter per activity type in a single scan of the columns.
+     *
+     * @param filter the trainings to aggregate.
+     * @return the totals and averages per activity type with at least one matching training.
+     */
+    @Override
+    public Map<ActivityType, TrainingAggregate> aggregateByActivityType(TrainingAnalyticsFilter filter) {
+        TrainingAggregate[] aggregates = read(() -> columns.aggregateByActivityType(filter));
+        Map<ActivityType, TrainingAggregate> result = new EnumMap<>(ActivityType.class);
+        for (ActivityType activityType : ACTIVITY_TYPES) {
+            if (aggregates[activityType.ordinal()].trainingCount() > 0) {
+                result.put(activityType, aggregates[activityType.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the histogram of a metric by scanning the columns.
+     *
+     * @param metric      the metric to distribute.
+     * @param bucketWidth the width of the histogram buckets, in the unit of the metric.
+     * @param filter      the trainings to include.
+     * @return the histogram of the metric.
+     */
+    @Override
+    public TrainingDistribution distribution(TrainingMetric metric, double bucketWidth, TrainingAnalyticsFilter filter) {
+        if (!(bucketWidth > 0) || Double.isInfinite(bucketWidth)) {
+            throw new IllegalArgumentException("Bucket width must be positive, was " + bucketWidth);
+        }
+        long[] counts = read(() -> columns.histogram(metric, bucketWidth, filter));
+        return new TrainingDistribution(metric, bucketWidth, Arrays.stream(counts).boxed().toList());
+    }
+
+    private <T> T read(Supplier<T> query) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return query.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void write(Runnable update) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            update.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAggregate;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAnalyticsFilter;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingMetric;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented copy of the trainings table, one primitive array per column.
+ * <p>
+ * Trainings are stored in dense rows, found by their ID through an open-addressing hash index, so memory follows
+ * the number of trainings rather than the highest ID. Rows of removed trainings are marked by a negative activity
+ * type and reused by later inserts. Per row the columns take 41 bytes (ID, activity type, start day, user ID,
+ * duration, distance and average speed) plus 16 to 32 bytes of the index, i.e. about 3 GB for 50 million
+ * trainings, and being primitive arrays they hold no references for the garbage collector to trace. Scans split
+ * the rows into chunks aggregated in parallel, each with a branch-light loop over the arrays.
+ * </p>
+ * <p>
+ * Not thread-safe: concurrent scans are safe, but writes must be exclusive.
+ * </p>
+ */
+final class TrainingColumns {
+
+    static final int MAX_BUCKETS = 10_000;
+
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+    private static final byte ABSENT = -1;
+    private static final long NO_USER = 0;
+    private static final int CHUNK_ROWS = 1 << 20;
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private final RowIndex rowsById;
+    private long[] trainingIds;
+    private byte[] activityTypes;
+    private int[] startDays;
+    private long[] userIds;
+    private int[] durations;
+    private double[] distances;
+    private double[] averageSpeeds;
+    /**
+     * One past the highest row ever written, the end of every scan.
+     */
+    private int rows;
+    private int count;
+    /**
+     * Rows of removed trainings, reused before the rows are extended.
+     */
+    private int[] freeRows = new int[16];
+    private int freeRowCount;
+
+    TrainingColumns(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        allocate(capacity);
+        rowsById = new RowIndex(capacity);
+    }
+
+    /**
+     * Returns the number of stored trainings.
+     *
+     * @return the number of trainings.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Stores a training, replacing the previously stored state of the training with the same ID.
+     *
+     * @param training the training to store.
+     */
+    void put(TrainingSnapshot training) {
+        int row = rowsById.get(training.id());
+        if (row == RowIndex.NO_ROW) {
+            row = freeRowCount > 0 ? freeRows[--freeRowCount] : rows++;
+            if (row >= activityTypes.length) {
+                grow(row + 1);
+            }
+            trainingIds[row] = training.id();
+            rowsById.put(training.id(), row);
+            count++;
+        }
+        activityTypes[row] = (byte) training.activityType().ordinal();
+        startDays[row] = (int) Math.floorDiv(training.startTime().getEpochSecond(), SECONDS_PER_DAY);
+        userIds[row] = training.userId() == null ? NO_USER : training.userId();
+        durations[row] = Math.clamp(Duration.between(training.startTime(), training.endTime()).toSeconds(), 0, Integer.MAX_VALUE);
+        distances[row] = training.distance();
+        averageSpeeds[row] = training.averageSpeed();
+    }
+
+    /**
+     * Removes all trainings of a user.
+     *
+     * @param userId the ID of the user.
+     * @return the number of removed trainings.
+     */
+    int removeUser(long userId) {
+        int removed = 0;
+        for (int row = 0; row < rows; row++) {
+            if (userIds[row] == userId && activityTypes[row] != ABSENT) {
+                activityTypes[row] = ABSENT;
+                rowsById.remove(trainingIds[row]);
+                freeRow(row);
+                removed++;
+            }
+        }
+        count -= removed;
+        return removed;
+    }
+
+    /**
+     * Removes all trainings.
+     */
+    void clear() {
+        Arrays.fill(activityTypes, 0, rows, ABSENT);
+        rowsById.clear();
+        rows = 0;
+        count = 0;
+        freeRowCount = 0;
+    }
+
+    /**
+     * Aggregates the trainings matching the filter.
+     *
+     * @param filter the trainings to aggregate.
+     * @return the aggregate of all matching trainings.
+     */
+    TrainingAggregate aggregate(TrainingAnalyticsFilter filter) {
+        return totals(filter).toAggregate(0, ACTIVITY_TYPES.length);
+    }
+
+    /**
+     * Aggregates the trainings matching the filter per activity type.
+     *
+     * @param filter the trainings to aggregate.
+     * @return the aggregates indexed by activity type ordinal, with a zero count for activity types without trainings.
+     */
+    TrainingAggregate[] aggregateByActivityType(TrainingAnalyticsFilter filter) {
+        Totals totals = totals(filter);
+        TrainingAggregate[] aggregates = new TrainingAggregate[ACTIVITY_TYPES.length];
+        for (int type = 0; type < aggregates.length; type++) {
+            aggregates[type] = totals.toAggregate(type, type + 1);
+        }
+        return aggregates;
+    }
+
+    /**
+     * Counts the trainings matching the filter per bucket of a metric.
+     *
+     * @param metric      the metric to distribute.
+     * @param bucketWidth the positive width of a bucket.
+     * @param filter      the trainings to count.
+     * @return the number of trainings per bucket, without trailing empty buckets.
+     */
+    long[] histogram(TrainingMetric metric, double bucketWidth, TrainingAnalyticsFilter filter) {
+        RowFilter rowFilter = RowFilter.of(filter);
+        long[] buckets = IntStream.range(0, chunks())
+                .parallel()
+                .mapToObj(chunk -> histogramChunk(metric, bucketWidth, rowFilter, chunk * CHUNK_ROWS, (int) Math.min(rows, (long) (chunk + 1) * CHUNK_ROWS)))
+                .reduce(TrainingColumns::add)
+                .orElseGet(() -> new long[0]);
+        int length = buckets.length;
+        while (length > 0 && buckets[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(buckets, length);
+    }
+
+    private Totals totals(TrainingAnalyticsFilter filter) {
+        RowFilter rowFilter = RowFilter.of(filter);
+        return IntStream.range(0, chunks())
+                .parallel()
+                .mapToObj(chunk -> aggregateChunk(rowFilter, chunk * CHUNK_ROWS, (int) Math.min(rows, (long) (chunk + 1) * CHUNK_ROWS)))
+                .reduce(Totals::merge)
+                .orElseGet(Totals::new);
+    }
+
+    private int chunks() {
+        return (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+    }
+
+    private Totals aggregateChunk(RowFilter filter, int from, int to) {
+        Totals totals = new Totals();
+        for (int row = from; row < to; row++) {
+            int type = activityTypes[row];
+            if (!filter.matches(type, startDays[row], userIds[row])) {
+                continue;
+            }
+            double averageSpeed = averageSpeeds[row];
+            totals.counts[type]++;
+            totals.distances[type] += distances[row];
+            totals.durations[type] += durations[row];
+            totals.averageSpeeds[type] += averageSpeed;
+            totals.maxAverageSpeeds[type] = Math.max(totals.maxAverageSpeeds[type], averageSpeed);
+        }
+        return totals;
+    }
+
+    private long[] histogramChunk(TrainingMetric metric, double bucketWidth, RowFilter filter, int from, int to) {
+        long[] buckets = new long[MAX_BUCKETS];
+        double[] values = switch (metric) {
+            case DISTANCE -> distances;
+            case AVERAGE_SPEED -> averageSpeeds;
+            case DURATION -> null;
+        };
+        for (int row = from; row < to; row++) {
+            if (!filter.matches(activityTypes[row], startDays[row], userIds[row])) {
+                continue;
+            }
+            double value = values == null ? durations[row] : values[row];
+            buckets[(int) Math.clamp(value / bucketWidth, 0, MAX_BUCKETS - 1)]++;
+        }
+        return buckets;
+    }
+
+    private void freeRow(int row) {
+        if (freeRowCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeRows.length * 2);
+        }
+        freeRows[freeRowCount++] = row;
+    }
+
+    private static long[] add(long[] left, long[] right) {
+        for (int i = 0; i < left.length; i++) {
+            left[i] += right[i];
+        }
+        return left;
+    }
+
+    private void allocate(int capacity) {
+        trainingIds = new long[capacity];
+        activityTypes = new byte[capacity];
+        Arrays.fill(activityTypes, ABSENT);
+        startDays = new int[capacity];
+        userIds = new long[capacity];
+        durations = new int[capacity];
+        distances = new double[capacity];
+        averageSpeeds = new double[capacity];
+    }
+
+    private void grow(int minCapacity) {
+        int oldCapacity = activityTypes.length;
+        int capacity = (int) Math.min(Math.max((long) oldCapacity * 3 / 2, minCapacity), Integer.MAX_VALUE - 8);
+        trainingIds = Arrays.copyOf(trainingIds, capacity);
+        activityTypes = Arrays.copyOf(activityTypes, capacity);
+        Arrays.fill(activityTypes, oldCapacity, capacity, ABSENT);
+        startDays = Arrays.copyOf(startDays, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        averageSpeeds = Arrays.copyOf(averageSpeeds, capacity);
+    }
+
+    /**
+     * A {@link TrainingAnalyticsFilter} resolved to the values stored in the columns.
+     */
+    private record RowFilter(int activityType, int fromDay, int toDay, boolean anyUser, long userId) {
+
+        static RowFilter of(TrainingAnalyticsFilter filter) {
+            return new RowFilter(filter.activityType() == null ? ABSENT : filter.activityType().ordinal(),
+                    filter.from() == null ? Integer.MIN_VALUE : Math.clamp(filter.from().toEpochDay(), Integer.MIN_VALUE, Integer.MAX_VALUE),
+                    filter.to() == null ? Integer.MAX_VALUE : Math.clamp(filter.to().toEpochDay(), Integer.MIN_VALUE, Integer.MAX_VALUE),
+                    filter.userId() == null,
+                    filter.userId() == null ? NO_USER : filter.userId());
+        }
+
+        boolean matches(int type, int startDay, long user) {
+            return type != ABSENT
+                    && (activityType == ABSENT || type == activityType)
+                    && startDay >= fromDay && startDay <= toDay
+                    && (anyUser || user == userId);
+        }
+    }
+
+    /**
+     * Hash index from training IDs to rows, with linear probing over primitive arrays.
+     */
+    private static final class RowIndex {
+
+        static final int NO_ROW = -1;
+
+        private static final int MAX_SLOTS = 1 << 30;
+
+        private long[] ids;
+        private int[] rows;
+        private int mask;
+        private int size;
+
+        RowIndex(int expectedSize) {
+            allocate((int) Math.min((long) Integer.highestOneBit(Math.max(expectedSize, 8)) * 4, MAX_SLOTS));
+        }
+
+        /**
+         * Returns the row of a training, or {@link #NO_ROW} if the training is not indexed.
+         */
+        int get(long id) {
+            for (int slot = slotOf(id); ; slot = (slot + 1) & mask) {
+                int row = rows[slot];
+                if (row == NO_ROW || ids[slot] == id) {
+                    return row;
+                }
+            }
+        }
+
+        /**
+         * Indexes the row of a training which is not indexed yet.
+         */
+        void put(long id, int row) {
+            if ((size + 1) * 4L > rows.length * 3L && rows.length < MAX_SLOTS) {
+                rehash(rows.length * 2);
+            }
+            int slot = slotOf(id);
+            while (rows[slot] != NO_ROW) {
+                slot = (slot + 1) & mask;
+            }
+            ids[slot] = id;
+            rows[slot] = row;
+            size++;
+        }
+
+        /**
+         * Removes a training, shifting back the entries probed past it so no tombstones are left.
+         */
+        void remove(long id) {
+            int gap = slotOf(id);
+            while (rows[gap] != NO_ROW && ids[gap] != id) {
+                gap = (gap + 1) & mask;
+            }
+            if (rows[gap] == NO_ROW) {
+                return;
+            }
+            for (int slot = (gap + 1) & mask; rows[slot] != NO_ROW; slot = (slot + 1) & mask) {
+                if (((slot - slotOf(ids[slot])) & mask) >= ((slot - gap) & mask)) {
+                    ids[gap] = ids[slot];
+                    rows[gap] = rows[slot];
+                    gap = slot;
+                }
+            }
+            rows[gap] = NO_ROW;
+            size--;
+        }
+
+        void clear() {
+            Arrays.fill(rows, NO_ROW);
+            size = 0;
+        }
+
+        private int slotOf(long id) {
+            long hash = id * 0x9E37_79B9_7F4A_7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        private void rehash(int slots) {
+            long[] oldIds = ids;
+            int[] oldRows = rows;
+            allocate(slots);
+            for (int slot = 0; slot < oldRows.length; slot++) {
+                if (oldRows[slot] != NO_ROW) {
+                    put(oldIds[slot], oldRows[slot]);
+                }
+            }
+        }
+
+        private void allocate(int slots) {
+            ids = new long[slots];
+            rows = new int[slots];
+            Arrays.fill(rows, NO_ROW);
+            mask = slots - 1;
+            size = 0;
+        }
+    }
+
+    /**
+     * Running totals per activity type.
+     */
+    private static final class Totals {
+
+        private final long[] counts = new long[ACTIVITY_TYPES.length];
+        private final double[] distances = new double[ACTIVITY_TYPES.length];
+        private final long[] durations = new long[ACTIVITY_TYPES.length];
+        private final double[] averageSpeeds = new double[ACTIVITY_TYPES.length];
+        private final double[] maxAverageSpeeds = new double[ACTIVITY_TYPES.length];
+
+        Totals merge(Totals other) {
+            for (int type = 0; type < ACTIVITY_TYPES.length; type++) {
+                counts[type] += other.counts[type];
+                distances[type] += other.distances[type];
+                durations[type] += other.durations[type];
+                averageSpeeds[type] += other.averageSpeeds[type];
+                maxAverageSpeeds[type] = Math.max(maxAverageSpeeds[type], other.maxAverageSpeeds[type]);
+            }
+            return this;
+        }
+
+        /**
+         * Combines the totals of the activity types with ordinals within {@code [fromType, toType)}.
+         */
+        TrainingAggregate toAggregate(int fromType, int toType) {
+            long trainingCount = 0;
+            double distance = 0;
+            long duration = 0;
+            double averageSpeed = 0;
+            double maxAverageSpeed = 0;
+            for (int type = fromType; type < toType; type++) {
+                trainingCount += counts[type];
+                distance += distances[type];
+                duration += durations[type];
+                averageSpeed += averageSpeeds[type];
+                maxAverageSpeed = Math.max(maxAverageSpeed, maxAverageSpeeds[type]);
+            }
+            if (trainingCount == 0) {
+                return new TrainingAggregate(0, 0, 0, 0, 0, 0, 0);
+            }
+            return new TrainingAggregate(trainingCount,
+                    distance,
+                    distance / trainingCount,
+                    duration,
+                    (double) duration / trainingCount,
+                    averageSpeed / trainingCount,
+                    maxAverageSpeed);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.capgemini.wsb.fitnesstracker.track.api;
+
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+
+/**
+ * A single sample of the GPS track of a training.
+ * <p>
+ * Tracks are stored with millisecond timestamps, coordinates rounded to microdegrees (about 11 cm) and elevations
+ * rounded to decimetres.
+ * </p>
+ *
+ * @param time      the time the sample was taken.
+ * @param latitude  the latitude in degrees, within {@code [-90, 90]}.
+ * @param longitude the longitude in degrees, within {@code [-180, 180]}.
+ * @param heartRate the heart rate in beats per minute, or {@code null} if not measured.
+ * @param elevation the elevation above sea level in metres, or {@code null} if not measured.
+ */
+public record TrackPoint(Instant time, double latitude, double longitude, @Nullable Integer heartRate,
+                         @Nullable Double elevation) {
+}
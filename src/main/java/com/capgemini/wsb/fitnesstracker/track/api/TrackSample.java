@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.track.api;
+
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+
+/**
+ * A sample of the time series derived from the GPS track of a training, as plotted on training charts.
+ *
+ * @param time      the time of the underlying track point.
+ * @param distance  the distance covered since the start of the track, in metres.
+ * @param speed     the speed in metres per second, averaged over the preceding few seconds of the track.
+ * @param pace      the pace in seconds per kilometre, or {@code null} while standing still.
+ * @param elevation the elevation above sea level in metres, or {@code null} if not measured.
+ * @param heartRate the heart rate in beats per minute, or {@code null} if not measured.
+ */
+public record TrackSample(Instant time,
+                          double distance,
+                          double speed,
+                          @Nullable Double pace,
+                          @Nullable Double elevation,
+                          @Nullable Integer heartRate) {
+}
@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.track.api;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for storing and reading the GPS tracks of trainings.
+ * Tracks are kept outside of the database, one file per training.
+ */
+public interface TrackService {
+
+    /**
+     * Stores the track of a training, replacing any previously stored track.
+     *
+     * @param trainingId the ID of the training the track belongs to.
+     * @param points     the samples of the track, ordered by time.
+     * @throws com.capgemini.wsb.fitnesstracker.training.api.TrainingNotFoundException if the training does not exist.
+     * @throws IllegalArgumentException if the samples are not ordered by time or have invalid coordinates.
+     */
+    void saveTrack(Long trainingId, List<TrackPoint> points);
+
+    /**
+     * Retrieves the decoded track of a training.
+     *
+     * @param trainingId the ID of the training.
+     * @return an {@link Optional} containing the samples ordered by time, or empty if the training does not exist or has no track.
+     */
+    Optional<List<TrackPoint>> getTrack(Long trainingId);
+
+    /**
+     * Retrieves the speed, pace and elevation series of the track of a training, reduced to at most the given number
+     * of samples with the Largest-Triangle-Three-Buckets algorithm, which keeps the visual shape of the series.
+     *
+     * @param trainingId the ID of the training.
+     * @param resolution the maximum number of samples to return.
+     * @return an {@link Optional} containing the samples ordered by time, or empty if the training does not exist or has no track.
+     * @throws IllegalArgumentException if the resolution is out of the supported range.
+     */
+    Optional<List<TrackSample>> getSamples(Long trainingId, int resolution);
+
+    /**
+     * Retrieves the stored binary form of the track of a training without decoding it.
+     * <p>
+     * The buffer is a read-only view of the memory-mapped track file, in the columnar, delta and varint encoded
+     * format described by {@code TrackCodec}.
+     * </p>
+     *
+     * @param trainingId the ID of the training.
+     * @return an {@link Optional} containing the encoded track, or empty if the training does not exist or has no track.
+     */
+    Optional<ByteBuffer> getEncodedTrack(Long trainingId);
+}
@@ -0,0 +1,207 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.track.api.TrackPoint;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary encoding of tracks.
+ * <p>
+ * A track is stored column by column: a header with the number of points and the byte length of every column,
+ * followed by the time, latitude, longitude, heart rate and elevation columns. Every column holds the difference of each
+ * value to the previous one (the first value is relative to zero), zigzag encoded so small negative differences
+ * stay small, and written as a variable-length integer of 7 bits per byte. Times are epoch milliseconds and
+ * coordinates microdegrees, so consecutive samples usually take one or two bytes per column. A missing heart rate
+ * is stored as zero. Elevations are decimetres shifted left by one bit with the lowest bit set, so a missing
+ * elevation can be stored as zero as well.
+ * </p>
+ * <pre>
+ * int magic ("TRK2"), int pointCount, int timeBytes, int latitudeBytes, int longitudeBytes, int heartRateBytes,
+ * int elevationBytes, byte[timeBytes], byte[latitudeBytes], byte[longitudeBytes], byte[heartRateBytes],
+ * byte[elevationBytes]
+ * </pre>
+ * <p>
+ * Tracks stored in the first version of the format ({@code "TRK1"}), which has no elevation column, are still read.
+ * </p>
+ */
+final class TrackCodec {
+
+    static final int MAGIC = 0x54524B32;
+    static final int HEADER_BYTES = 7 * Integer.BYTES;
+
+    private static final int MAGIC_V1 = 0x54524B31;
+    private static final int COLUMNS = 5;
+    private static final int COLUMNS_V1 = 4;
+    private static final double MICRODEGREES = 1_000_000d;
+    private static final double DECIMETRES = 10d;
+
+    private TrackCodec() {
+    }
+
+    /**
+     * Encodes a track.
+     *
+     * @param points the samples of the track.
+     * @return a buffer positioned at the start of the encoded track.
+     */
+    static ByteBuffer encode(List<TrackPoint> points) {
+        Column times = new Column(points.size() * 2);
+        Column latitudes = new Column(points.size() * 2);
+        Column longitudes = new Column(points.size() * 2);
+        Column heartRates = new Column(points.size());
+        Column elevations = new Column(points.size());
+        long previousTime = 0;
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        long previousHeartRate = 0;
+        long previousElevation = 0;
+        for (TrackPoint point : points) {
+            long time = point.time().toEpochMilli();
+            long latitude = toMicrodegrees(point.latitude());
+            long longitude = toMicrodegrees(point.longitude());
+            long heartRate = point.heartRate() == null ? 0 : point.heartRate();
+            long elevation = point.elevation() == null ? 0 : Math.round(point.elevation() * DECIMETRES) << 1 | 1;
+            times.writeDelta(time - previousTime);
+            latitudes.writeDelta(latitude - previousLatitude);
+            longitudes.writeDelta(longitude - previousLongitude);
+            heartRates.writeDelta(heartRate - previousHeartRate);
+            elevations.writeDelta(elevation - previousElevation);
+            previousTime = time;
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+            previousHeartRate = heartRate;
+            previousElevation = elevation;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + times.size + latitudes.size + longitudes.size + heartRates.size + elevations.size)
+                .putInt(MAGIC)
+                .putInt(points.size())
+                .putInt(times.size)
+                .putInt(latitudes.size)
+                .putInt(longitudes.size)
+                .putInt(heartRates.size)
+                .putInt(elevations.size)
+                .put(times.bytes, 0, times.size)
+                .put(latitudes.bytes, 0, latitudes.size)
+                .put(longitudes.bytes, 0, longitudes.size)
+                .put(heartRates.bytes, 0, heartRates.size)
+                .put(elevations.bytes, 0, elevations.size);
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes a track. The position of the given buffer is not changed.
+     *
+     * @param encoded the encoded track, starting at its position.
+     * @return the samples of the track.
+     * @throws IllegalArgumentException if the buffer does not hold an encoded track.
+     */
+    static List<TrackPoint> decode(ByteBuffer encoded) {
+        ByteBuffer[] columns = columns(encoded);
+        int pointCount = encoded.getInt(encoded.position() + Integer.BYTES);
+        List<TrackPoint> points = new ArrayList<>(pointCount);
+        long time = 0;
+        long latitude = 0;
+        long longitude = 0;
+        long heartRate = 0;
+        long elevation = 0;
+        for (int i = 0; i < pointCount; i++) {
+            time += readDelta(columns[0]);
+            latitude += readDelta(columns[1]);
+            longitude += readDelta(columns[2]);
+            heartRate += readDelta(columns[3]);
+            if (columns.length > COLUMNS_V1) {
+                elevation += readDelta(columns[4]);
+            }
+            points.add(new TrackPoint(Instant.ofEpochMilli(time),
+                    latitude / MICRODEGREES,
+                    longitude / MICRODEGREES,
+                    heartRate == 0 ? null : (int) heartRate,
+                    elevation == 0 ? null : (elevation >> 1) / DECIMETRES));
+        }
+        return points;
+    }
+
+    /**
+     * Returns the number of points of an encoded track without decoding it.
+     *
+     * @param encoded the encoded track, starting at its position.
+     * @return the number of points.
+     */
+    static int pointCount(ByteBuffer encoded) {
+        columns(encoded);
+        return encoded.getInt(encoded.position() + Integer.BYTES);
+    }
+
+    /**
+     * Validates the header and returns views of the columns, each positioned at its start. Tracks in the first
+     * version of the format have no elevation column.
+     */
+    private static ByteBuffer[] columns(ByteBuffer encoded) {
+        int start = encoded.position();
+        int magic = encoded.remaining() < Integer.BYTES ? 0 : encoded.getInt(start);
+        int columnCount = magic == MAGIC ? COLUMNS : magic == MAGIC_V1 ? COLUMNS_V1 : 0;
+        int headerBytes = (2 + columnCount) * Integer.BYTES;
+        if (columnCount == 0 || encoded.remaining() < headerBytes) {
+            throw new IllegalArgumentException("Not an encoded track");
+        }
+        ByteBuffer[] columns = new ByteBuffer[columnCount];
+        int offset = start + headerBytes;
+        for (int i = 0; i < columnCount; i++) {
+            int length = encoded.getInt(start + (2 + i) * Integer.BYTES);
+            if (length < 0 || offset + length > encoded.limit()) {
+                throw new IllegalArgumentException("Truncated encoded track");
+            }
+            columns[i] = encoded.slice(offset, length);
+            offset += length;
+        }
+        return columns;
+    }
+
+    private static long toMicrodegrees(double degrees) {
+        return Math.round(degrees * MICRODEGREES);
+    }
+
+    private static long readDelta(ByteBuffer column) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            if (!column.hasRemaining()) {
+                throw new IllegalArgumentException("Truncated encoded track");
+            }
+            current = column.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Growable byte array holding a single encoded column.
+     */
+    private static final class Column {
+
+        private byte[] bytes;
+        private int size;
+
+        Column(int initialCapacity) {
+            this.bytes = new byte[Math.max(initialCapacity, 16)];
+        }
+
+        void writeDelta(long delta) {
+            long value = (delta << 1) ^ (delta >> 63);
+            if (size + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+    }
+}
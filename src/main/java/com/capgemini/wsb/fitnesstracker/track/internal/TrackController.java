@@ -0,0 +1,134 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.track.api.TrackPoint;
+import com.capgemini.wsb.fitnesstracker.track.api.TrackService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST controller for uploading and reading the GPS tracks of trainings.
+ */
+@RestController
+@RequestMapping("/v1/trainings/{trainingId}/track")
+@RequiredArgsConstructor
+@Slf4j
+class TrackController {
+
+    private final TrackService trackService;
+
+    /**
+     * Uploads the track of a training, replacing any previously uploaded track.
+     *
+     * @param trainingId the ID of the training.
+     * @param points     the samples of the track, ordered by time.
+     * @return ResponseEntity with no content or an error response if the upload fails.
+     */
+    @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> uploadTrack(@PathVariable Long trainingId, @RequestBody List<TrackPointDto> points) {
+        try {
+            trackService.saveTrack(trainingId, points.stream()
+                    .map(point -> new TrackPoint(point.time(), point.latitude(), point.longitude(), point.heartRate(), point.elevation()))
+                    .toList());
+            return ResponseEntity.noContent().build();
+        } catch (TrainingNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid track of training {}", trainingId, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error storing track of training {}", trainingId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves the decoded track of a training.
+     *
+     * @param trainingId the ID of the training.
+     * @return ResponseEntity containing the samples of the track or an error response if retrieval fails.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<TrackPointDto>> getTrack(@PathVariable Long trainingId) {
+        try {
+            return trackService.getTrack(trainingId)
+                    .map(points -> ResponseEntity.ok(points.stream()
+                            .map(point -> new TrackPointDto(point.time(), point.latitude(), point.longitude(), point.heartRate(),
+                                    point.elevation()))
+                            .toList()))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (Exception e) {
+            log.error("Error retrieving track of training {}", trainingId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves the speed, pace and elevation series of the track of a training, downsampled on the server so charts
+     * receive only as many samples as they can draw.
+     *
+     * @param trainingId the ID of the training.
+     * @param resolution the maximum number of samples to return.
+     * @return ResponseEntity containing the samples ordered by time or an error response if retrieval fails.
+     */
+    @GetMapping(path = "/samples", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<TrackSampleDto>> getSamples(@PathVariable Long trainingId,
+                                                           @RequestParam(defaultValue = "500") int resolution) {
+        try {
+            return trackService.getSamples(trainingId, resolution)
+                    .map(samples -> ResponseEntity.ok(samples.stream()
+                            .map(sample -> new TrackSampleDto(sample.time(), sample.distance(), sample.speed(), sample.pace(),
+                                    sample.elevation(), sample.heartRate()))
+                            .toList()))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid resolution {} of track samples of training {}", resolution, trainingId, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error retrieving track samples of training {}", trainingId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves the encoded track of a training as stored, for clients decoding the binary format themselves.
+     * The memory-mapped file is written to the response in small chunks, without being decoded or copied as a whole.
+     *
+     * @param trainingId the ID of the training.
+     * @param response   the response to write the encoded track to.
+     * @throws IOException if the track cannot be written to the response.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void getEncodedTrack(@PathVariable Long trainingId, HttpServletResponse response) throws IOException {
+        Optional<ByteBuffer> track = trackService.getEncodedTrack(trainingId);
+        if (track.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        ByteBuffer encoded = track.get();
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLength(encoded.remaining());
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        while (encoded.hasRemaining()) {
+            channel.write(encoded);
+        }
+    }
+}
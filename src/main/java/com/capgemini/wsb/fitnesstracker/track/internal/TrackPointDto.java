@@ -0,0 +1,17 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+
+/**
+ * DTO representing a single sample of a training track.
+ */
+record TrackPointDto(
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS+00:00", timezone = "UTC") Instant time,
+        double latitude,
+        double longitude,
+        @Nullable Integer heartRate,
+        @Nullable Double elevation) {
+}
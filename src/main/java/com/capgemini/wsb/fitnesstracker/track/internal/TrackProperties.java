@@ -0,0 +1,55 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration of the track module.
+ */
+@ConfigurationProperties(prefix = "fitness-tracker.tracks")
+@Getter
+class TrackProperties {
+
+    /**
+     * Directory holding the track files. When not configured, tracks are kept in a directory created on startup and
+     * deleted on shutdown, so they never outlive the in-memory database whose training IDs restart on every start.
+     */
+    @Nullable
+    private final Path directory;
+
+    /**
+     * Maximum number of track files kept memory-mapped between reads.
+     */
+    private final int mappedCacheSize;
+
+    /**
+     * Maximum number of points accepted in a single track.
+     */
+    private final int maxPoints;
+
+    /**
+     * Maximum number of samples a track can be downsampled to.
+     */
+    private final int maxSampleResolution;
+
+    /**
+     * Maximum total number of samples kept in the cache of downsampled tracks.
+     */
+    private final long sampleCacheSize;
+
+    TrackProperties(@Nullable Path directory,
+                    @DefaultValue("10000") int mappedCacheSize,
+                    @DefaultValue("1000000") int maxPoints,
+                    @DefaultValue("5000") int maxSampleResolution,
+                    @DefaultValue("1000000") long sampleCacheSize) {
+        this.directory = directory;
+        this.mappedCacheSize = mappedCacheSize;
+        this.maxPoints = maxPoints;
+        this.maxSampleResolution = maxSampleResolution;
+        this.sampleCacheSize = sampleCacheSize;
+    }
+}
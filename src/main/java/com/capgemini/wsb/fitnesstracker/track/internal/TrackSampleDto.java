@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+
+/**
+ * DTO representing a sample of the chart series of a training track.
+ */
+record TrackSampleDto(
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS+00:00", timezone = "UTC") Instant time,
+        double distance,
+        double speed,
+        @Nullable Double pace,
+        @Nullable Double elevation,
+        @Nullable Integer heartRate) {
+}
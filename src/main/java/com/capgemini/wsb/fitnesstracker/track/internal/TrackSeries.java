@@ -0,0 +1,166 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.track.api.TrackPoint;
+import com.capgemini.wsb.fitnesstracker.track.api.TrackSample;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Derivation of chart series from tracks and their downsampling.
+ * <p>
+ * Downsampling uses the Largest-Triangle-Three-Buckets algorithm: the first and last samples are kept, the rest are
+ * split into equally sized buckets and from every bucket the sample forming the largest triangle with the previously
+ * selected sample and the average of the next bucket is kept. Peaks and drops therefore survive, unlike with plain
+ * decimation or averaging. Triangles are measured on the speed series and, when every sample has one, on the
+ * elevation series, each scaled to its own range so neither dominates.
+ * </p>
+ */
+final class TrackSeries {
+
+    private static final double EARTH_RADIUS_METRES = 6_371_008.8;
+    private static final long SPEED_WINDOW_MILLIS = 5_000;
+    private static final double MIN_PACE_SPEED = 0.5;
+
+    private TrackSeries() {
+    }
+
+    /**
+     * Derives the chart samples of a track, one per track point.
+     *
+     * @param points the samples of the track, ordered by time.
+     * @return the chart samples, in the order of the track points.
+     */
+    static List<TrackSample> toSamples(List<TrackPoint> points) {
+        int count = points.size();
+        long[] times = new long[count];
+        double[] distances = new double[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = points.get(i).time().toEpochMilli();
+            distances[i] = i == 0 ? 0 : distances[i - 1] + distance(points.get(i - 1), points.get(i));
+        }
+        List<TrackSample> samples = new ArrayList<>(count);
+        int windowStart = 0;
+        for (int i = 0; i < count; i++) {
+            while (windowStart + 1 < i && times[i] - times[windowStart + 1] >= SPEED_WINDOW_MILLIS) {
+                windowStart++;
+            }
+            long elapsed = times[i] - times[windowStart];
+            double speed = elapsed == 0 ? 0 : (distances[i] - distances[windowStart]) * 1000 / elapsed;
+            TrackPoint point = points.get(i);
+            samples.add(new TrackSample(point.time(),
+                    distances[i],
+                    speed,
+                    speed < MIN_PACE_SPEED ? null : 1000 / speed,
+                    point.elevation(),
+                    point.heartRate()));
+        }
+        return samples;
+    }
+
+    /**
+     * Reduces samples to at most the given number, keeping the shape of the speed and elevation series.
+     *
+     * @param samples   the samples, ordered by time.
+     * @param threshold the maximum number of samples to keep, at least 3.
+     * @return the kept samples in their original order, or the given samples if there are no more than the threshold.
+     */
+    static List<TrackSample> downsample(List<TrackSample> samples, int threshold) {
+        int count = samples.size();
+        if (count <= threshold) {
+            return samples;
+        }
+        double[] x = new double[count];
+        boolean withElevation = samples.stream().allMatch(sample -> sample.elevation() != null);
+        double[][] series = new double[withElevation ? 2 : 1][count];
+        long origin = samples.get(0).time().toEpochMilli();
+        for (int i = 0; i < count; i++) {
+            TrackSample sample = samples.get(i);
+            x[i] = sample.time().toEpochMilli() - origin;
+            series[0][i] = sample.speed();
+            if (withElevation) {
+                series[1][i] = sample.elevation();
+            }
+        }
+        for (double[] values : series) {
+            normalize(values);
+        }
+
+        List<TrackSample> kept = new ArrayList<>(threshold);
+        kept.add(samples.get(0));
+        int buckets = threshold - 2;
+        int selected = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int from = bucketStart(bucket, buckets, count);
+            int to = bucketStart(bucket + 1, buckets, count);
+            int nextTo = bucket + 2 <= buckets ? bucketStart(bucket + 2, buckets, count) : count;
+
+            double nextX = average(x, to, nextTo);
+            double[] nextY = new double[series.length];
+            for (int s = 0; s < series.length; s++) {
+                nextY[s] = average(series[s], to, nextTo);
+            }
+
+            double largestArea = -1;
+            int largest = from;
+            for (int i = from; i < to; i++) {
+                double area = 0;
+                for (int s = 0; s < series.length; s++) {
+                    area += Math.abs((x[selected] - nextX) * (series[s][i] - series[s][selected])
+                            - (x[selected] - x[i]) * (nextY[s] - series[s][selected]));
+                }
+                if (area > largestArea) {
+                    largestArea = area;
+                    largest = i;
+                }
+            }
+            kept.add(samples.get(largest));
+            selected = largest;
+        }
+        kept.add(samples.get(count - 1));
+        return kept;
+    }
+
+    /**
+     * Scales values in place to {@code [0, 1]}, leaving constant series at zero.
+     */
+    private static void normalize(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        double range = max - min;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = range == 0 ? 0 : (values[i] - min) / range;
+        }
+    }
+
+    /**
+     * Index of the first sample of a bucket; the first and last samples are not part of any bucket.
+     */
+    private static int bucketStart(int bucket, int buckets, int count) {
+        return 1 + (int) ((long) bucket * (count - 2) / buckets);
+    }
+
+    private static double average(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+
+    /**
+     * Great-circle distance between two points in metres, by the haversine formula.
+     */
+    private static double distance(TrackPoint from, TrackPoint to) {
+        double latitudeDelta = Math.toRadians(to.latitude() - from.latitude());
+        double longitudeDelta = Math.toRadians(to.longitude() - from.longitude());
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2)
+                + Math.cos(Math.toRadians(from.latitude())) * Math.cos(Math.toRadians(to.latitude()))
+                * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_METRES * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
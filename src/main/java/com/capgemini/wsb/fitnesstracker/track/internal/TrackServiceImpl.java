@@ -0,0 +1,191 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.track.api.TrackPoint;
+import com.capgemini.wsb.fitnesstracker.track.api.TrackSample;
+import com.capgemini.wsb.fitnesstracker.track.api.TrackService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingFacade;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link TrackService} interface, encoding tracks with {@link TrackCodec}
+ * and keeping them in the {@link TrackStore}.
+ * <p>
+ * Downsampled tracks are cached per training and resolution, bounded by their total number of samples, and evicted
+ * when the track of the training is replaced. Tracks are replaced and missing samples are computed under a lock of
+ * the training, so a computation reading the previous track can never cache its result after the eviction.
+ * </p>
+ * <p>
+ * Tracks are only served for existing trainings. Trainings of a removed user are deleted in bulk, so their tracks
+ * are deleted when the {@link UserDeletedEvent} carrying their IDs is received.
+ * </p>
+ */
+@Service
+@Slf4j
+class TrackServiceImpl implements TrackService {
+
+    /**
+     * Number of locks guarding the tracks, shared by trainings with the same ID modulo the number.
+     */
+    private static final int TRACK_LOCK_STRIPES = 64;
+
+    private final TrackStore trackStore;
+    private final TrainingFacade trainingFacade;
+    private final TrackProperties trackProperties;
+    private final Cache<SampleKey, List<TrackSample>> downsampledTracks;
+    private final Object[] trackLocks = new Object[TRACK_LOCK_STRIPES];
+
+    TrackServiceImpl(TrackStore trackStore, TrainingFacade trainingFacade, TrackProperties trackProperties) {
+        this.trackStore = trackStore;
+        this.trainingFacade = trainingFacade;
+        this.trackProperties = trackProperties;
+        this.downsampledTracks = Caffeine.newBuilder()
+                .maximumWeight(trackProperties.getSampleCacheSize())
+                .<SampleKey, List<TrackSample>>weigher((key, samples) -> samples.size())
+                .build();
+        for (int i = 0; i < trackLocks.length; i++) {
+            trackLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Validates, encodes and stores the track of an existing training.
+     *
+     * @param trainingId the ID of the training the track belongs to.
+     * @param points     the samples of the track, ordered by time.
+     */
+    @Override
+    public void saveTrack(Long trainingId, List<TrackPoint> points) {
+        validate(points);
+        if (!trainingExists(trainingId)) {
+            throw new TrainingNotFoundException(trainingId);
+        }
+        ByteBuffer encoded = TrackCodec.encode(points);
+        synchronized (lockOf(trainingId)) {
+            trackStore.write(trainingId, encoded);
+            evictSamples(trainingId);
+        }
+        log.debug("Stored track of {} points for training {}", points.size(), trainingId);
+    }
+
+    /**
+     * Decodes the track of a training directly from its memory-mapped file.
+     *
+     * @param trainingId the ID of the training.
+     * @return the samples ordered by time, or empty if the training does not exist or has no track.
+     */
+    @Override
+    public Optional<List<TrackPoint>> getTrack(Long trainingId) {
+        if (!trainingExists(trainingId)) {
+            return Optional.empty();
+        }
+        return trackStore.read(trainingId).map(TrackCodec::decode);
+    }
+
+    /**
+     * Derives the chart samples of the track of a training and downsamples them, caching the result.
+     *
+     * @param trainingId the ID of the training.
+     * @param resolution the maximum number of samples to return.
+     * @return the samples ordered by time, or empty if the training does not exist or has no track.
+     */
+    @Override
+    public Optional<List<TrackSample>> getSamples(Long trainingId, int resolution) {
+        if (resolution < 3 || resolution > trackProperties.getMaxSampleResolution()) {
+            throw new IllegalArgumentException("Resolution must be between 3 and " + trackProperties.getMaxSampleResolution());
+        }
+        if (!trainingExists(trainingId)) {
+            return Optional.empty();
+        }
+        SampleKey key = new SampleKey(trainingId, resolution);
+        List<TrackSample> cached = downsampledTracks.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        synchronized (lockOf(trainingId)) {
+            return Optional.ofNullable(downsampledTracks.get(key,
+                    missing -> trackStore.read(trainingId)
+                            .map(encoded -> TrackSeries.downsample(TrackSeries.toSamples(TrackCodec.decode(encoded)), resolution))
+                            .orElse(null)));
+        }
+    }
+
+    /**
+     * Retrieves the memory-mapped encoded track of a training.
+     *
+     * @param trainingId the ID of the training.
+     * @return a read-only view of the encoded track, or empty if the training does not exist or has no track.
+     */
+    @Override
+    public Optional<ByteBuffer> getEncodedTrack(Long trainingId) {
+        if (!trainingExists(trainingId)) {
+            return Optional.empty();
+        }
+        return trackStore.read(trainingId);
+    }
+
+    /**
+     * Deletes the tracks of the trainings removed together with a user.
+     *
+     * @param event the event of the removed user.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        int deleted = 0;
+        for (Long trainingId : event.trainingIds()) {
+            synchronized (lockOf(trainingId)) {
+                if (trackStore.delete(trainingId)) {
+                    deleted++;
+                }
+                evictSamples(trainingId);
+            }
+        }
+        log.debug("Deleted {} tracks of trainings of user {}", deleted, event.userId());
+    }
+
+    private boolean trainingExists(Long trainingId) {
+        return trainingFacade.getTrainingById(trainingId).isPresent();
+    }
+
+    private Object lockOf(long trainingId) {
+        return trackLocks[Math.floorMod(trainingId, TRACK_LOCK_STRIPES)];
+    }
+
+    private void evictSamples(long trainingId) {
+        downsampledTracks.asMap().keySet().removeIf(key -> key.trainingId() == trainingId);
+    }
+
+    private void validate(List<TrackPoint> points) {
+        if (points.size() > trackProperties.getMaxPoints()) {
+            throw new IllegalArgumentException("Track has more than " + trackProperties.getMaxPoints() + " points");
+        }
+        TrackPoint previous = null;
+        for (TrackPoint point : points) {
+            if (point.time() == null) {
+                throw new IllegalArgumentException("Track point without time");
+            }
+            if (Math.abs(point.latitude()) > 90 || Math.abs(point.longitude()) > 180) {
+                throw new IllegalArgumentException("Track point with invalid coordinates at " + point.time());
+            }
+            if (point.heartRate() != null && point.heartRate() <= 0) {
+                throw new IllegalArgumentException("Track point with invalid heart rate at " + point.time());
+            }
+            if (previous != null && point.time().isBefore(previous.time())) {
+                throw new IllegalArgumentException("Track points are not ordered by time at " + point.time());
+            }
+            previous = point;
+        }
+    }
+
+    private record SampleKey(long trainingId, int resolution) {
+    }
+}
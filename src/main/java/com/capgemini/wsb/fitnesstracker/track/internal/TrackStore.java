@@ -0,0 +1,136 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * File store of encoded tracks, one file per training.
+ * <p>
+ * Track files are read through read-only memory mappings, which are cached, so repeated reads of a track neither
+ * copy it into the heap nor issue system calls. Files are replaced atomically by renaming a fully written
+ * temporary file, so readers never see a partially written track; a mapping of a replaced file stays valid
+ * until it is garbage collected. Files are spread over 1000 subdirectories by training ID.
+ * </p>
+ * <p>
+ * Without a configured directory the files are kept in a temporary directory of this run, deleted on shutdown.
+ * </p>
+ */
+@Component
+@Slf4j
+class TrackStore {
+
+    private static final String EXTENSION = ".trk";
+
+    private final Path directory;
+    private final boolean temporary;
+    private final Cache<Long, ByteBuffer> mappedTracks;
+
+    TrackStore(TrackProperties properties) throws IOException {
+        this.temporary = properties.getDirectory() == null;
+        this.directory = temporary
+                ? Files.createTempDirectory("fitness-tracker-tracks-")
+                : Files.createDirectories(properties.getDirectory());
+        this.mappedTracks = Caffeine.newBuilder()
+                .maximumSize(properties.getMappedCacheSize())
+                .build();
+        log.info("Storing tracks in {}", directory);
+    }
+
+    /**
+     * Stores an encoded track, replacing the previous track of the training.
+     *
+     * @param trainingId the ID of the training.
+     * @param encoded    the encoded track; its remaining bytes are written.
+     */
+    void write(Long trainingId, ByteBuffer encoded) {
+        Path target = pathOf(trainingId);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temporary = Files.createTempFile(target.getParent(), trainingId + "-", ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (encoded.hasRemaining()) {
+                    channel.write(encoded);
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot store track of training " + trainingId, e);
+        } finally {
+            mappedTracks.invalidate(trainingId);
+        }
+    }
+
+    /**
+     * Deletes the stored track of a training, if there is one.
+     *
+     * @param trainingId the ID of the training.
+     * @return whether a track was deleted.
+     */
+    boolean delete(Long trainingId) {
+        try {
+            return Files.deleteIfExists(pathOf(trainingId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete track of training " + trainingId, e);
+        } finally {
+            mappedTracks.invalidate(trainingId);
+        }
+    }
+
+    /**
+     * Returns the stored track of a training.
+     *
+     * @param trainingId the ID of the training.
+     * @return a read-only view of the mapped track file with its own position, or empty if there is no track.
+     */
+    Optional<ByteBuffer> read(Long trainingId) {
+        return Optional.ofNullable(mappedTracks.get(trainingId, this::map))
+                .map(ByteBuffer::asReadOnlyBuffer);
+    }
+
+    /**
+     * Deletes the temporary directory of this run, if the tracks were kept in one.
+     */
+    @PreDestroy
+    void close() {
+        if (!temporary) {
+            return;
+        }
+        mappedTracks.invalidateAll();
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException e) {
+            log.warn("Cannot delete temporary track directory {}", directory, e);
+        }
+    }
+
+    @Nullable
+    private ByteBuffer map(Long trainingId) {
+        try (FileChannel channel = FileChannel.open(pathOf(trainingId), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read track of training " + trainingId, e);
+        }
+    }
+
+    private Path pathOf(Long trainingId) {
+        return directory.resolve(String.format("%03d", Math.floorMod(trainingId, 1000L))).resolve(trainingId + EXTENSION);
+    }
+}
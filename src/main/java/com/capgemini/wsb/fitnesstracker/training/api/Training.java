@@ -2,14 +2,16 @@ package com.capgemini.wsb.fitnesstracker.training.api;
 
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
-import java.util.Date;
+import java.time.Instant;
 
 /**
  * Entity class representing a training session.
@@ -19,14 +21,21 @@ import java.util.Date;
  * </p>
  */
 @Entity
-@Table(name = "trainings")
+@Table(name = "trainings",
+        indexes = {
+                @Index(name = "idx_trainings_start_time", columnList = "start_time, id"),
+                @Index(name = "idx_trainings_end_time", columnList = "end_time, id"),
+                @Index(name = "idx_trainings_user_start_time", columnList = "user_id, start_time, id"),
+                @Index(name = "idx_trainings_activity_type_start_time", columnList = "activity_type, start_time, id")
+        })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString
 public class Training {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainings_seq")
+    @SequenceGenerator(name = "trainings_seq", sequenceName = "trainings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,10 +44,10 @@ public class Training {
     private User user;
 
     @Column(name = "start_time", nullable = false)
-    private Date startTime;
+    private Instant startTime;
 
     @Column(name = "end_time", nullable = false)
-    private Date endTime;
+    private Instant endTime;
 
     @Enumerated(EnumType.ORDINAL)
     @Column(name = "activity_type", nullable = false)
@@ -50,6 +59,14 @@ public class Training {
     @Column(name = "average_speed")
     private double averageSpeed;
 
+    /**
+     * State of the training as last read from or written to the database, used to tell listeners what changed.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private TrainingSnapshot persistedState;
+
     /**
      * Constructs a Training object with a specified user, start time, end time, activity type, distance, and average speed.
      *
@@ -62,8 +79,8 @@ public class Training {
      */
     public Training(
             final User user,
-            final Date startTime,
-            final Date endTime,
+            final Instant startTime,
+            final Instant endTime,
             final ActivityType activityType,
             final double distance,
             final double averageSpeed) {
@@ -84,7 +101,7 @@ public class Training {
      * @param distance     the distance covered during the training.
      * @param averageSpeed the average speed during the training.
      */
-    public Training(Date startTime, Date endTime, ActivityType activityType, double distance, double averageSpeed) {
+    public Training(Instant startTime, Instant endTime, ActivityType activityType, double distance, double averageSpeed) {
         this.startTime = startTime;
         this.endTime = endTime;
         this.activityType = activityType;
@@ -97,7 +114,7 @@ public class Training {
      *
      * @return the start time of the training session.
      */
-    public Date getStartTime() {
+    public Instant getStartTime() {
         return startTime;
     }
 
@@ -106,7 +123,7 @@ public class Training {
      *
      * @param startTime the start time to set.
      */
-    public void setStartTime(Date startTime) {
+    public void setStartTime(Instant startTime) {
         this.startTime = startTime;
     }
 
@@ -115,7 +132,7 @@ public class Training {
      *
      * @return the end time of the training session.
      */
-    public Date getEndTime() {
+    public Instant getEndTime() {
         return endTime;
     }
 
@@ -124,7 +141,7 @@ public class Training {
      *
      * @param endTime the end time to set.
      */
-    public void setEndTime(Date endTime) {
+    public void setEndTime(Instant endTime) {
         this.endTime = endTime;
     }
 
@@ -199,4 +216,22 @@ public class Training {
     public void setUser(User user) {
         this.user = user;
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the state of the training as last read from or written to the database.
+     *
+     * @return the persisted state, or {@code null} if the training has never been persisted.
+     */
+    @JsonIgnore
+    @Nullable
+    public TrainingSnapshot getPersistedState() {
+        return persistedState;
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void capturePersistedState() {
+        this.persistedState = TrainingSnapshot.of(this);
+    }
+}
@@ -0,0 +1,9 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+/**
+ * Event published after a new {@link Training} has been persisted.
+ *
+ * @param training snapshot of the created training.
+ */
+public record TrainingCreatedEvent(TrainingSnapshot training) {
+}
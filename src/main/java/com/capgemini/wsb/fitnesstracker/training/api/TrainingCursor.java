@@ -0,0 +1,55 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position of a training in the stable {@code (time, id)} order used to page through trainings,
+ * where the time is the start or end time of the training, whichever the listing is ordered by.
+ * <p>
+ * The cursor points at the last training of a page; the next page starts right after it. Clients only see
+ * the {@link #encode() encoded} form, which they pass back unchanged to get the next page.
+ * </p>
+ *
+ * @param time the start or end time of the last training of the page.
+ * @param id   the ID of the last training of the page.
+ */
+public record TrainingCursor(Instant time, long id) {
+
+    private static final int ENCODED_BYTES = 2 * Long.BYTES + Integer.BYTES;
+
+    /**
+     * Encodes the cursor into an opaque, URL-safe token.
+     *
+     * @return the token representing the cursor.
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(time.getEpochSecond())
+                .putInt(time.getNano())
+                .putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a token created by {@link #encode()}.
+     *
+     * @param token the token to decode.
+     * @return the cursor represented by the token.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static TrainingCursor decode(String token) {
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        if (bytes.length != ENCODED_BYTES) {
+            throw new IllegalArgumentException("Invalid training cursor: " + token);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            return new TrainingCursor(Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()), buffer.getLong());
+        } catch (DateTimeException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid training cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Combination of filters of a training search. Every filter is optional; a {@code null} filter matches
+ * all trainings, and the given filters must all match.
+ *
+ * @param userId       the ID of the user who performed the training.
+ * @param activityType the activity type of the training.
+ * @param from         the inclusive lower bound of the start time.
+ * @param to           the exclusive upper bound of the start time.
+ * @param minDistance  the inclusive lower bound of the distance.
+ * @param maxDistance  the inclusive upper bound of the distance.
+ * @param minSpeed     the inclusive lower bound of the average speed.
+ * @param maxSpeed     the inclusive upper bound of the average speed.
+ */
+public record TrainingSearchCriteria(@Nullable Long userId,
+                                     @Nullable ActivityType activityType,
+                                     @Nullable Instant from,
+                                     @Nullable Instant to,
+                                     @Nullable Double minDistance,
+                                     @Nullable Double maxDistance,
+                                     @Nullable Double minSpeed,
+                                     @Nullable Double maxSpeed) {
+}
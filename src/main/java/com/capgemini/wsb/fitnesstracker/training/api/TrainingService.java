@@ -1,9 +1,14 @@
 package com.capgemini.wsb.fitnesstracker.training.api;
 
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
-import java.util.Date;
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing operations on {@link Training} entities.
@@ -32,7 +37,7 @@ public interface TrainingService {
      * @param startTime the start time threshold.
      * @return a list of trainings with start times after the specified date.
      */
-    List<Training> findByStartTimeAfter(Date startTime);
+    List<Training> findByStartTimeAfter(Instant startTime);
 
     /**
      * Retrieves trainings of a specific activity type.
@@ -42,6 +47,98 @@ public interface TrainingService {
      */
     List<Training> findByActivityType(ActivityType activityType);
 
+    /**
+     * Retrieves a single page of all trainings, ordered by start time and ID.
+     *
+     * @param after the position of the last training of the previous page, or {@code null} for the first page.
+     * @param limit the maximum number of trainings to return.
+     * @return a page of trainings.
+     */
+    List<Training> findTrainings(@Nullable TrainingCursor after, int limit);
+
+    /**
+     * Retrieves a single page of trainings associated with a specific user, ordered by start time and ID.
+     *
+     * @param userId the ID of the user.
+     * @param after  the position of the last training of the previous page, or {@code null} for the first page.
+     * @param limit  the maximum number of trainings to return.
+     * @return a page of trainings associated with the user.
+     */
+    List<Training> findByUserId(Long userId, @Nullable TrainingCursor after, int limit);
+
+    /**
+     * Retrieves the most recent trainings of a user, newest first, optionally limited to a time window.
+     *
+     * @param userId the ID of the user.
+     * @param from   the inclusive lower bound of the start time, or {@code null} for no lower bound.
+     * @param to     the exclusive upper bound of the start time, or {@code null} for no upper bound.
+     * @param limit  the maximum number of trainings to return.
+     * @return the user's trainings ordered by start time, newest first.
+     */
+    List<Training> findRecentByUserId(Long userId, @Nullable Instant from, @Nullable Instant to, int limit);
+
+    /**
+     * Retrieves a single page of trainings finishing after a specified time, ordered by end time and ID.
+     *
+     * @param endTime the end time threshold.
+     * @param after   the position of the last training of the previous page, or {@code null} for the first page.
+     * @param limit   the maximum number of trainings to return.
+     * @return a page of trainings finishing after the specified time.
+     */
+    List<Training> findByEndTimeAfter(Instant endTime, @Nullable TrainingCursor after, int limit);
+
+    /**
+     * Retrieves a single page of trainings starting within {@code [from, to)}, ordered by start time and ID.
+     *
+     * @param from  the inclusive lower bound of the start time.
+     * @param to    the exclusive upper bound of the start time.
+     * @param after the position of the last training of the previous page, or {@code null} for the first page.
+     * @param limit the maximum number of trainings to return.
+     * @return a page of trainings starting within the range.
+     */
+    List<Training> findByStartTimeBetween(Instant from, Instant to, @Nullable TrainingCursor after, int limit);
+
+    /**
+     * Retrieves a single page of trainings finishing within {@code [from, to)}, ordered by end time and ID.
+     *
+     * @param from  the inclusive lower bound of the end time.
+     * @param to    the exclusive upper bound of the end time.
+     * @param after the position of the last training of the previous page, or {@code null} for the first page.
+     * @param limit the maximum number of trainings to return.
+     * @return a page of trainings finishing within the range.
+     */
+    List<Training> findByEndTimeBetween(Instant from, Instant to, @Nullable TrainingCursor after, int limit);
+
+    /**
+     * Retrieves a single page of trainings of a specific activity type, ordered by start time and ID.
+     *
+     * @param activityType the activity type.
+     * @param after        the position of the last training of the previous page, or {@code null} for the first page.
+     * @param limit        the maximum number of trainings to return.
+     * @return a page of trainings of the specified activity type.
+     */
+    List<Training> findByActivityType(ActivityType activityType, @Nullable TrainingCursor after, int limit);
+
+    /**
+     * Retrieves a single page of trainings matching any combination of filters.
+     *
+     * @param criteria the filters the trainings must match.
+     * @param after    the position of the last training of the previous page, or {@code null} for the first page.
+     * @param limit    the maximum number of trainings to return.
+     * @return a page of matching trainings ordered by start time and ID.
+     */
+    List<Training> searchTrainings(TrainingSearchCriteria criteria, @Nullable TrainingCursor after, int limit);
+
+    /**
+     * Counts trainings of every activity type, optionally restricted to a user and to a range of start dates.
+     *
+     * @param userId the ID of the user whose trainings are counted, or {@code null} for all users.
+     * @param from   the first start date (UTC) to count, or {@code null} for no lower bound.
+     * @param to     the last start date (UTC) to count, or {@code null} for no upper bound.
+     * @return the number of matching trainings for every activity type.
+     */
+    Map<ActivityType, Long> countByActivityType(@Nullable Long userId, @Nullable LocalDate from, @Nullable LocalDate to);
+
     /**
      * Creates a new training record.
      *
@@ -65,4 +162,40 @@ public interface TrainingService {
      * @return the updated training.
      */
     Training updateTraining(Training training);
+
+    /**
+     * Passes every training, optionally only those of a user, to the given action one at a time, ordered by ID.
+     * Trainings are read in chunks and detached once their chunk has been processed, so the action must not
+     * keep or modify them; memory use does not depend on the number of trainings.
+     *
+     * @param userId the ID of the user whose trainings are visited, or {@code null} for all trainings.
+     * @param action the action to perform on every training.
+     */
+    void forEachTraining(@Nullable Long userId, Consumer<Training> action);
+
+    /**
+     * Passes a snapshot of every training to the given action one at a time, ordered by ID, without loading
+     * managed entities. Used to build in-memory copies of the trainings.
+     *
+     * @param action the action to perform on every training snapshot.
+     */
+    void forEachTrainingSnapshot(Consumer<TrainingSnapshot> action);
+
+    /**
+     * Passes a snapshot of every training starting within {@code [from, to)} to the given action one at a time,
+     * ordered by start time, without loading managed entities.
+     *
+     * @param from   the inclusive lower bound of the start time.
+     * @param to     the exclusive upper bound of the start time.
+     * @param action the action to perform on every training snapshot.
+     */
+    void forEachTrainingSnapshotStartingBetween(Instant from, Instant to, Consumer<TrainingSnapshot> action);
+
+    /**
+     * Retrieves snapshots of all trainings of a user.
+     *
+     * @param userId the ID of the user whose trainings are fetched.
+     * @return the snapshots of the trainings of the user.
+     */
+    List<TrainingSnapshot> findTrainingSnapshotsByUserId(Long userId);
 }
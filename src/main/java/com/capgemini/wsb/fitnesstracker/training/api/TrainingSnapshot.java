@@ -0,0 +1,38 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Immutable, detached view of a {@link Training}.
+ * <p>
+ * Unlike the managed entity, a snapshot can be safely shared between threads and transactions,
+ * which makes it suitable for in-memory indexes, rollups and domain events.
+ * </p>
+ */
+public record TrainingSnapshot(Long id,
+                               @Nullable Long userId,
+                               ActivityType activityType,
+                               Instant startTime,
+                               Instant endTime,
+                               double distance,
+                               double averageSpeed) {
+
+    /**
+     * Creates a snapshot of the current state of the given training.
+     *
+     * @param training the training to copy.
+     * @return the snapshot of the training.
+     */
+    public static TrainingSnapshot of(Training training) {
+        return new TrainingSnapshot(training.getId(),
+                training.getUser() == null ? null : training.getUser().getId(),
+                training.getActivityType(),
+                training.getStartTime(),
+                training.getEndTime(),
+                training.getDistance(),
+                training.getAverageSpeed());
+    }
+}
@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Event published after an existing {@link Training} has been modified.
+ *
+ * @param previous snapshot of the training as it was last loaded from the database, or {@code null} if unknown.
+ * @param training snapshot of the training after the modification.
+ */
+public record TrainingUpdatedEvent(@Nullable TrainingSnapshot previous, TrainingSnapshot training) {
+}
@@ -0,0 +1,11 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import java.util.List;
+
+/**
+ * Event published after a batch of new {@link Training}s has been persisted in a single transaction.
+ *
+ * @param trainings snapshots of the created trainings.
+ */
+public record TrainingsImportedEvent(List<TrainingSnapshot> trainings) {
+}
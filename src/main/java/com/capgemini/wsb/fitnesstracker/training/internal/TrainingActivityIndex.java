@@ -0,0 +1,214 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsImportedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory secondary index of training IDs, kept as compressed bitmaps per activity type, per user
+ * and per UTC start day.
+ * <p>
+ * Every filter maps to a bitmap, so a multi-criteria filter is the intersection of the bitmaps and a count
+ * is the cardinality of the intersection; neither touches the {@code trainings} table.
+ * The bitmaps hold unsigned 32-bit values, so training IDs up to {@value #MAX_TRAINING_ID} can be indexed; trainings
+ * with larger IDs are rejected with an exception instead of being indexed under a truncated ID.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class TrainingActivityIndex {
+
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+    static final long MAX_TRAINING_ID = 0xFFFF_FFFFL;
+
+    private final TrainingRepository trainingRepository;
+
+    /**
+     * The bitmaps are guarded by {@code this}.
+     */
+    private final RoaringBitmap[] idsByActivityType = newActivityBitmaps();
+    private final Map<Long, RoaringBitmap> idsByUser = new HashMap<>();
+    private final NavigableMap<Integer, RoaringBitmap> idsByStartDay = new TreeMap<>();
+
+    /**
+     * Loads all trainings from the database into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        for (RoaringBitmap ids : idsByActivityType) {
+            ids.clear();
+        }
+        idsByUser.clear();
+        idsByStartDay.clear();
+        int count = 0;
+        try (Stream<TrainingSnapshot> trainings = trainingRepository.streamAllSnapshots()) {
+            for (Iterator<TrainingSnapshot> it = trainings.iterator(); it.hasNext(); count++) {
+                add(it.next());
+            }
+        }
+        for (RoaringBitmap ids : idsByActivityType) {
+            ids.runOptimize();
+        }
+        log.info("Indexed activity types of {} trainings", count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTrainingCreated(TrainingCreatedEvent event) {
+        add(event.training());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTrainingsImported(TrainingsImportedEvent event) {
+        event.trainings().forEach(this::add);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTrainingUpdated(TrainingUpdatedEvent event) {
+        if (event.previous() != null) {
+            remove(event.previous());
+        } else {
+            removeEverywhere(toIndex(event.training().id()));
+        }
+        add(event.training());
+    }
+
+    /**
+     * Drops the trainings of a removed user, which are deleted in bulk without publishing training events.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserDeleted(UserDeletedEvent event) {
+        RoaringBitmap ids = idsByUser.remove(event.userId());
+        if (ids == null) {
+            return;
+        }
+        for (RoaringBitmap activityIds : idsByActivityType) {
+            activityIds.andNot(ids);
+        }
+        idsByStartDay.values().removeIf(dayIds -> {
+            dayIds.andNot(ids);
+            return dayIds.isEmpty();
+        });
+    }
+
+    /**
+     * Counts trainings of every activity type matching the optional user and start date filters.
+     *
+     * @param userId the ID of the user whose trainings are counted, or {@code null} for all users.
+     * @param from   the first start date (UTC) to count, or {@code null} for no lower bound.
+     * @param to     the last start date (UTC) to count, or {@code null} for no upper bound.
+     * @return the number of matching trainings for every activity type, including types without trainings.
+     */
+    synchronized Map<ActivityType, Long> countByActivityType(@Nullable Long userId, @Nullable LocalDate from, @Nullable LocalDate to) {
+        RoaringBitmap filter = filter(userId, from, to);
+        Map<ActivityType, Long> counts = new EnumMap<>(ActivityType.class);
+        for (ActivityType activityType : ACTIVITY_TYPES) {
+            RoaringBitmap ids = idsByActivityType[activityType.ordinal()];
+            counts.put(activityType, filter == null ? ids.getLongCardinality() : RoaringBitmap.andCardinality(ids, filter));
+        }
+        return counts;
+    }
+
+    /**
+     * Intersects the bitmaps of the given user and start date filters.
+     *
+     * @return the matching training IDs, or {@code null} if no filter is given.
+     */
+    @Nullable
+    private RoaringBitmap filter(@Nullable Long userId, @Nullable LocalDate from, @Nullable LocalDate to) {
+        RoaringBitmap filter = null;
+        if (userId != null) {
+            filter = idsByUser.getOrDefault(userId, new RoaringBitmap());
+        }
+        if (from != null || to != null) {
+            int fromDay = from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+            int toDay = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+            RoaringBitmap days = fromDay > toDay
+                    ? new RoaringBitmap()
+                    : FastAggregation.or(idsByStartDay.subMap(fromDay, true, toDay, true).values().iterator());
+            filter = filter == null ? days : RoaringBitmap.and(filter, days);
+        }
+        return filter;
+    }
+
+    private void add(TrainingSnapshot training) {
+        int id = toIndex(training.id());
+        idsByActivityType[training.activityType().ordinal()].add(id);
+        if (training.userId() != null) {
+            idsByUser.computeIfAbsent(training.userId(), userId -> new RoaringBitmap()).add(id);
+        }
+        idsByStartDay.computeIfAbsent(startDay(training), day -> new RoaringBitmap()).add(id);
+    }
+
+    private void remove(TrainingSnapshot training) {
+        int id = toIndex(training.id());
+        idsByActivityType[training.activityType().ordinal()].remove(id);
+        if (training.userId() != null) {
+            removeFrom(idsByUser, training.userId(), id);
+        }
+        removeFrom(idsByStartDay, startDay(training), id);
+    }
+
+    /**
+     * Removes a training whose indexed state is unknown from every bitmap.
+     */
+    private void removeEverywhere(int id) {
+        for (RoaringBitmap ids : idsByActivityType) {
+            ids.remove(id);
+        }
+        idsByUser.values().removeIf(ids -> ids.checkedRemove(id) && ids.isEmpty());
+        idsByStartDay.values().removeIf(ids -> ids.checkedRemove(id) && ids.isEmpty());
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        RoaringBitmap ids = bitmaps.get(key);
+        if (ids != null && ids.checkedRemove(id) && ids.isEmpty()) {
+            bitmaps.remove(key);
+        }
+    }
+
+    private static int startDay(TrainingSnapshot training) {
+        return (int) LocalDate.ofInstant(training.startTime(), ZoneOffset.UTC).toEpochDay();
+    }
+
+    /**
+     * Maps a training ID to its position in the bitmaps, the lower 32 bits of the ID read as unsigned.
+     */
+    private static int toIndex(Long id) {
+        if (id < 0 || id > MAX_TRAINING_ID) {
+            throw new IllegalStateException("Training ID %d cannot be indexed, the largest indexable ID is %d".formatted(id, MAX_TRAINING_ID));
+        }
+        return (int) id.longValue();
+    }
+
+    private static RoaringBitmap[] newActivityBitmaps() {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[ACTIVITY_TYPES.length];
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = new RoaringBitmap();
+        }
+        return bitmaps;
+    }
+}
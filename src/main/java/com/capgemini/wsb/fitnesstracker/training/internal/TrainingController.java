@@ -1,20 +1,34 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCursor;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingFacade;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSearchCriteria;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.capgemini.wsb.fitnesstracker.user.api.UserFacade;
 import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nullable;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 /**
  * REST controller for managing trainings.
  * This controller provides endpoints to handle trainings-related operations such as
@@ -26,23 +40,37 @@ import java.util.List;
 @Slf4j
 public class TrainingController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
     private final TrainingFacade trainingFacade;
     private final UserFacade userFacade;
     private final TrainingMapper mapper;
+    private final TrainingProperties trainingProperties;
+    private final TrainingImportService trainingImportService;
+    private final TrainingWriteBehindQueue trainingWriteBehindQueue;
+    private final TrainingRollupService trainingRollupService;
+    private final ObjectMapper objectMapper;
+    private final TrainingJsonWriter trainingJsonWriter;
 
     /**
-     * Retrieves all trainings.
+     * Retrieves a single page of all trainings, ordered by start time and ID. When the page is full,
+     * the cursor of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
      *
-     * @return ResponseEntity containing a list of all trainings or an error response if retrieval fails.
+     * @param cursor the cursor returned with the previous page, if any.
+     * @param limit  the requested page size.
+     * @return ResponseEntity containing a page of trainings or an error response if retrieval fails.
      */
     @GetMapping
-    public ResponseEntity<List<TrainingDto>> getAllTrainings() {
+    public ResponseEntity<List<TrainingDto>> getAllTrainings(@RequestParam(value = "cursor", required = false) String cursor,
+                                                             @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            List<TrainingDto> trainings = trainingFacade.findAllTrainings()
-                    .stream()
-                    .map(mapper::toDto)
-                    .toList();
-            return ResponseEntity.ok(trainings);
+            int pageSize = trainingProperties.resolvePageSize(limit);
+            return page(trainingFacade.findTrainings(decodeCursor(cursor), pageSize), pageSize, Training::getStartTime);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid training cursor", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
             log.error("Error retrieving all trainings", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -50,19 +78,51 @@ public class TrainingController {
     }
 
     /**
-     * Retrieves trainings associated with a specific user ID.
+     * Exports all trainings, or all trainings of a user, ordered by ID as a single JSON array.
+     * Unlike the paged endpoints the body is written while the trainings are read from the database,
+     * so the size of the export is not limited by memory.
      *
-     * @param id the ID of the user.
-     * @return ResponseEntity containing a list of trainings associated with the user or an error response if retrieval fails.
+     * @param userId   the ID of the user whose trainings are exported, if any.
+     * @param response the response to write the trainings to.
+     * @throws IOException if the trainings cannot be written to the response.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void exportTrainings(@RequestParam(value = "userId", required = false) Long userId,
+                                HttpServletResponse response) throws IOException {
+        export(userId, response, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Exports all trainings, or all trainings of a user, ordered by ID as newline-delimited JSON, one training per line.
+     *
+     * @param userId   the ID of the user whose trainings are exported, if any.
+     * @param response the response to write the trainings to.
+     * @throws IOException if the trainings cannot be written to the response.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportTrainingLines(@RequestParam(value = "userId", required = false) Long userId,
+                                    HttpServletResponse response) throws IOException {
+        export(userId, response, MediaType.APPLICATION_NDJSON);
+    }
+
+    /**
+     * Retrieves a single page of trainings associated with a specific user ID, ordered by start time and ID.
+     *
+     * @param id     the ID of the user.
+     * @param cursor the cursor returned with the previous page, if any.
+     * @param limit  the requested page size.
+     * @return ResponseEntity containing a page of trainings associated with the user or an error response if retrieval fails.
      */
     @GetMapping("/users/{id}")
-    public ResponseEntity<List<TrainingDto>> getTrainingByUserId(@PathVariable Long id) {
+    public ResponseEntity<List<TrainingDto>> getTrainingByUserId(@PathVariable Long id,
+                                                                 @RequestParam(value = "cursor", required = false) String cursor,
+                                                                 @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            List<TrainingDto> trainings = trainingFacade.findByUserId(id)
-                    .stream()
-                    .map(mapper::toDto)
-                    .toList();
-            return ResponseEntity.ok(trainings);
+            int pageSize = trainingProperties.resolvePageSize(limit);
+            return page(trainingFacade.findByUserId(id, decodeCursor(cursor), pageSize), pageSize, Training::getStartTime);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid training cursor", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
             log.error("Error retrieving trainings with that user id", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -70,45 +130,235 @@ public class TrainingController {
     }
 
     /**
-     * Retrieves trainings starting after a specified date.
+     * Retrieves the most recent trainings of a user, newest first, optionally limited to a time window.
      *
-     * @param dateStr the start date in yyyy-MM-dd'T'HH:mm format.
-     * @return ResponseEntity containing a list of trainings starting after the specified date or an error response if retrieval fails.
+     * @param id      the ID of the user.
+     * @param fromStr the inclusive lower bound of the start time in yyyy-MM-dd'T'HH:mm format, in UTC, if any.
+     * @param toStr   the exclusive upper bound of the start time in yyyy-MM-dd'T'HH:mm format, in UTC, if any.
+     * @param limit   the maximum number of trainings to return.
+     * @return ResponseEntity containing the user's most recent trainings or an error response if retrieval fails.
      */
-    @GetMapping("/finishAfter")
-    public ResponseEntity<List<TrainingDto>> getFinishTrainingsAfterDate(@RequestParam("date") String dateStr){
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm");
-        Date date = null;
+    @GetMapping("/users/{id}/recent")
+    public ResponseEntity<List<TrainingDto>> getRecentTrainingsByUserId(@PathVariable Long id,
+                                                                        @RequestParam(value = "from", required = false) String fromStr,
+                                                                        @RequestParam(value = "to", required = false) String toStr,
+                                                                        @RequestParam(value = "limit", defaultValue = "20") int limit) {
         try {
-            date = formatter.parse(dateStr);
-            List<TrainingDto> trainings = trainingFacade.findByStartTimeAfter(date)
+            Instant from = fromStr == null ? null : parseDateTime(fromStr);
+            Instant to = toStr == null ? null : parseDateTime(toStr);
+            List<TrainingDto> trainings = trainingFacade.findRecentByUserId(id, from, to, trainingProperties.resolvePageSize(limit))
                     .stream()
                     .map(mapper::toDto)
                     .toList();
             return ResponseEntity.ok(trainings);
-        } catch (ParseException e) {
-            log.error("Error parsing requested starting date.", e);
+        } catch (DateTimeParseException e) {
+            log.error("Invalid training time window", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error retrieving recent trainings of user", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Summarises the trainings of a user per day, week or month and activity type. The summary is computed
+     * from the daily rollups, so it reads at most one row per day and activity type.
+     *
+     * @param id      the ID of the user whose trainings are summarised.
+     * @param fromStr the first day (UTC) to summarise, in {@code yyyy-MM-dd} format.
+     * @param toStr   the last day (UTC) to summarise, in {@code yyyy-MM-dd} format.
+     * @param period  the length of the summarised periods.
+     * @return ResponseEntity containing the summaries ordered by period start or an error response if summarising fails.
+     */
+    @GetMapping("/users/{id}/summary")
+    public ResponseEntity<List<TrainingSummaryDto>> getTrainingSummary(@PathVariable Long id,
+                                                                       @RequestParam("from") String fromStr,
+                                                                       @RequestParam("to") String toStr,
+                                                                       @RequestParam(value = "period", defaultValue = "WEEK") TrainingSummaryPeriod period) {
+        try {
+            return ResponseEntity.ok(trainingRollupService.summarize(id, LocalDate.parse(fromStr), LocalDate.parse(toStr), period));
+        } catch (DateTimeParseException e) {
+            log.error("Invalid date format", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error summarising trainings of user", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Rebuilds the daily training rollups from the trainings table, e.g. after trainings were modified
+     * outside of the application.
+     *
+     * @return ResponseEntity with no content or an error response if the rebuild fails.
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups() {
+        try {
+            trainingRollupService.rebuild();
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            log.error("Error rebuilding training rollups", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves a single page of trainings finishing after a specified time, ordered by end time and ID.
+     *
+     * @param dateStr the end time threshold in yyyy-MM-dd'T'HH:mm format, in UTC.
+     * @param cursor  the cursor returned with the previous page, if any.
+     * @param limit   the requested page size.
+     * @return ResponseEntity containing a page of trainings finishing after the specified time or an error response if retrieval fails.
+     */
+    @GetMapping("/finishAfter")
+    public ResponseEntity<List<TrainingDto>> getFinishTrainingsAfterDate(@RequestParam("date") String dateStr,
+                                                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                                                         @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            Instant date = parseDateTime(dateStr);
+            int pageSize = trainingProperties.resolvePageSize(limit);
+            return page(trainingFacade.findByEndTimeAfter(date, decodeCursor(cursor), pageSize), pageSize, Training::getEndTime);
+        } catch (DateTimeParseException e) {
+            log.error("Error parsing requested finishing date.", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid training cursor", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error retrieving trainings with that finishing time", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves a single page of trainings starting, or finishing, within the time range {@code [from, to)}.
+     * Trainings are ordered by the chosen time and ID.
+     *
+     * @param fromStr the inclusive lower bound in yyyy-MM-dd'T'HH:mm format, in UTC.
+     * @param toStr   the exclusive upper bound in yyyy-MM-dd'T'HH:mm format, in UTC.
+     * @param field   whether to filter by the start or the end time of the trainings.
+     * @param cursor  the cursor returned with the previous page, if any.
+     * @param limit   the requested page size.
+     * @return ResponseEntity containing a page of trainings within the range or an error response if retrieval fails.
+     */
+    @GetMapping("/range")
+    public ResponseEntity<List<TrainingDto>> getTrainingsInRange(@RequestParam("from") String fromStr,
+                                                                 @RequestParam("to") String toStr,
+                                                                 @RequestParam(value = "field", defaultValue = "START") TrainingTimeField field,
+                                                                 @RequestParam(value = "cursor", required = false) String cursor,
+                                                                 @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            Instant from = parseDateTime(fromStr);
+            Instant to = parseDateTime(toStr);
+            if (!from.isBefore(to)) {
+                throw new IllegalArgumentException("Empty time range [%s, %s)".formatted(fromStr, toStr));
+            }
+            int pageSize = trainingProperties.resolvePageSize(limit);
+            return switch (field) {
+                case START -> page(trainingFacade.findByStartTimeBetween(from, to, decodeCursor(cursor), pageSize), pageSize, Training::getStartTime);
+                case END -> page(trainingFacade.findByEndTimeBetween(from, to, decodeCursor(cursor), pageSize), pageSize, Training::getEndTime);
+            };
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            log.error("Invalid training time range", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error retrieving trainings within time range", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Searches trainings by any combination of user, activity type, start time range, distance range and
+     * average speed range, returning a single page ordered by start time and ID. When the page is full,
+     * the cursor of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @param userId       the ID of the user who performed the trainings, if any.
+     * @param activityType the activity type of the trainings, if any.
+     * @param fromStr      the inclusive lower bound of the start time, in {@code yyyy-MM-dd'T'HH:mm} format (UTC), if any.
+     * @param toStr        the exclusive upper bound of the start time, in {@code yyyy-MM-dd'T'HH:mm} format (UTC), if any.
+     * @param minDistance  the inclusive lower bound of the distance, if any.
+     * @param maxDistance  the inclusive upper bound of the distance, if any.
+     * @param minSpeed     the inclusive lower bound of the average speed, if any.
+     * @param maxSpeed     the inclusive upper bound of the average speed, if any.
+     * @param cursor       the cursor returned with the previous page, if any.
+     * @param limit        the requested page size.
+     * @return ResponseEntity containing a page of matching trainings or an error response if the search fails.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<TrainingDto>> searchTrainings(@RequestParam(value = "userId", required = false) Long userId,
+                                                             @RequestParam(value = "activityType", required = false) ActivityType activityType,
+                                                             @RequestParam(value = "from", required = false) String fromStr,
+                                                             @RequestParam(value = "to", required = false) String toStr,
+                                                             @RequestParam(value = "minDistance", required = false) Double minDistance,
+                                                             @RequestParam(value = "maxDistance", required = false) Double maxDistance,
+                                                             @RequestParam(value = "minSpeed", required = false) Double minSpeed,
+                                                             @RequestParam(value = "maxSpeed", required = false) Double maxSpeed,
+                                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                                             @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            TrainingSearchCriteria criteria = new TrainingSearchCriteria(userId, activityType,
+                    fromStr == null ? null : parseDateTime(fromStr),
+                    toStr == null ? null : parseDateTime(toStr),
+                    minDistance, maxDistance, minSpeed, maxSpeed);
+            int pageSize = trainingProperties.resolvePageSize(limit);
+            return page(trainingFacade.searchTrainings(criteria, decodeCursor(cursor), pageSize), pageSize, Training::getStartTime);
+        } catch (DateTimeParseException e) {
+            log.error("Invalid date format", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid training cursor", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
-            log.error("Error retrieving trainings with that starting time", e);
+            log.error("Error searching trainings", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     /**
-     * Retrieves trainings of a specific activity type.
+     * Counts trainings of every activity type, optionally restricted to a user and to a range of start dates.
+     * The counts come from an in-memory bitmap index, so combining filters does not scan the trainings table.
+     *
+     * @param userId  the ID of the user whose trainings are counted, if any.
+     * @param fromStr the first start date (UTC) to count, in {@code yyyy-MM-dd} format, if any.
+     * @param toStr   the last start date (UTC) to count, in {@code yyyy-MM-dd} format, if any.
+     * @return ResponseEntity containing the number of trainings per activity type or an error response if counting fails.
+     */
+    @GetMapping("/activityType/counts")
+    public ResponseEntity<Map<ActivityType, Long>> countTrainingsByActivityType(@RequestParam(value = "userId", required = false) Long userId,
+                                                                              @RequestParam(value = "from", required = false) String fromStr,
+                                                                              @RequestParam(value = "to", required = false) String toStr) {
+        try {
+            LocalDate from = fromStr == null ? null : LocalDate.parse(fromStr);
+            LocalDate to = toStr == null ? null : LocalDate.parse(toStr);
+            return ResponseEntity.ok(trainingFacade.countByActivityType(userId, from, to));
+        } catch (DateTimeParseException e) {
+            log.error("Invalid date format", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error counting trainings by type of activity", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves a single page of trainings of a specific activity type, ordered by start time and ID.
      *
      * @param activityType the activity type to filter by.
-     * @return ResponseEntity containing a list of trainings of the specified activity type or an error response if retrieval fails.
+     * @param cursor       the cursor returned with the previous page, if any.
+     * @param limit        the requested page size.
+     * @return ResponseEntity containing a page of trainings of the specified activity type or an error response if retrieval fails.
      */
     @GetMapping("/activityType")
-    public ResponseEntity<List<TrainingDto>> getTrainingsByActivityType(@RequestParam("activityType") ActivityType activityType) {
+    public ResponseEntity<List<TrainingDto>> getTrainingsByActivityType(@RequestParam("activityType") ActivityType activityType,
+                                                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                                                        @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            List<TrainingDto> trainings = trainingFacade.findByActivityType(activityType)
-                    .stream()
-                    .map(mapper::toDto)
-                    .toList();
-            return ResponseEntity.ok(trainings);
+            int pageSize = trainingProperties.resolvePageSize(limit);
+            return page(trainingFacade.findByActivityType(activityType, decodeCursor(cursor), pageSize), pageSize, Training::getStartTime);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid training cursor", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
             log.error("Error retrieving trainings with that type of activity", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -117,13 +367,21 @@ public class TrainingController {
 
     /**
      * Adds a new training record.
+     * <p>
+     * When the write-behind mode is enabled, the validated training is queued and written to the database
+     * in the background: the response is {@code 202 Accepted} with an ingestion ID, or
+     * {@code 429 Too Many Requests} when the queue is full.
+     * </p>
      *
      * @param dto the DTO containing training data to create.
-     * @return ResponseEntity containing the created training or an error response if creation fails.
+     * @return ResponseEntity containing the created or queued training or an error response if creation fails.
      */
     @PostMapping
-    public ResponseEntity<Training> addTraining(@RequestBody TrainingCreationDto dto) {
+    public ResponseEntity<?> addTraining(@RequestBody TrainingCreationDto dto) {
         try {
+            if (trainingProperties.isWriteBehindEnabled()) {
+                return enqueueTraining(dto);
+            }
             long userId = dto.userId();
             User user = userFacade.getUser(userId)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
@@ -140,6 +398,31 @@ public class TrainingController {
         }
     }
 
+    /**
+     * Ingests many trainings at once, e.g. when a wearable device synchronises its history.
+     * <p>
+     * The body is either a JSON array or newline-delimited JSON ({@code application/x-ndjson}) and is read
+     * as a stream, so its size is not limited by memory. Invalid trainings and trainings of unknown users
+     * are reported in the response instead of failing the request. A malformed training ends the batch: it is
+     * reported as invalid after the outcomes of the trainings before it, and the rest of the body is not read.
+     * </p>
+     *
+     * @param request the request with the trainings to ingest in its body.
+     * @return the outcome of the ingestion of every training, in the order of the body.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<TrainingImportResultDto>> importTrainings(HttpServletRequest request) {
+        try (MappingIterator<TrainingCreationDto> trainings = objectMapper.readerFor(TrainingCreationDto.class).readValues(request.getInputStream())) {
+            return ResponseEntity.ok(trainingImportService.importTrainings(trainings));
+        } catch (IOException e) {
+            log.error("Invalid trainings to import", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error importing trainings", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Updates an existing training record.
      *
@@ -167,4 +450,59 @@ public class TrainingController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> enqueueTraining(TrainingCreationDto dto) {
+        String violation = TrainingImportService.validate(dto);
+        if (violation != null) {
+            log.error("Invalid training data: {}", violation);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        if (userFacade.getUser(dto.userId()).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return trainingWriteBehindQueue.offer(dto)
+                .<ResponseEntity<?>>map(ingestionId -> ResponseEntity.status(HttpStatus.ACCEPTED).body(new TrainingIngestionDto(ingestionId)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
+    }
+
+    private void export(@Nullable Long userId, HttpServletResponse response, MediaType mediaType) throws IOException {
+        response.setContentType(mediaType.toString());
+        response.setCharacterEncoding("UTF-8");
+        try {
+            long exported = MediaType.APPLICATION_NDJSON.equals(mediaType)
+                    ? trainingJsonWriter.writeLines(userId, response.getOutputStream())
+                    : trainingJsonWriter.writeArray(userId, response.getOutputStream());
+            log.debug("Exported {} trainings", exported);
+        } catch (Exception e) {
+            log.error("Error exporting trainings", e);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                return;
+            }
+            throw e;
+        }
+    }
+
+    @Nullable
+    private static TrainingCursor decodeCursor(@Nullable String cursor) {
+        return cursor == null || cursor.isBlank() ? null : TrainingCursor.decode(cursor);
+    }
+
+    private static Instant parseDateTime(String value) {
+        return LocalDateTime.parse(value, DATE_TIME_FORMAT).toInstant(ZoneOffset.UTC);
+    }
+
+    private ResponseEntity<List<TrainingDto>> page(List<Training> trainings, int pageSize, Function<Training, Instant> sortTime) {
+        List<TrainingDto> page = trainings.stream()
+                .map(mapper::toDto)
+                .toList();
+        if (trainings.size() < pageSize) {
+            return ResponseEntity.ok(page);
+        }
+        Training last = trainings.get(trainings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new TrainingCursor(sortTime.apply(last), last.getId()).encode())
+                .body(page);
+    }
+}
@@ -0,0 +1,128 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Entity class holding the totals of the trainings of a single user, UTC day and activity type.
+ * <p>
+ * Rollups are derived from the {@code trainings} table and maintained in the same transaction as the trainings,
+ * so summaries over long periods read one row per day and activity type instead of every training.
+ * </p>
+ */
+@Entity
+@Table(name = "training_daily_rollup",
+        indexes = @Index(name = "idx_training_daily_rollup_user_day", columnList = "user_id, training_day"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TrainingDailyRollup implements Persistable<TrainingDailyRollup.Key> {
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "training_count", nullable = false)
+    private long trainingCount;
+
+    @Column(name = "total_distance", nullable = false)
+    private double totalDistance;
+
+    @Column(name = "total_duration_seconds", nullable = false)
+    private long totalDurationSeconds;
+
+    @Column(name = "max_speed", nullable = false)
+    private double maxSpeed;
+
+    /**
+     * Whether the rollup has not been written yet. The key is assigned by the application, so without this flag
+     * saving a new rollup would first select it to tell an insert from an update.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean fresh = true;
+
+    /**
+     * Constructs a new rollup with the given totals.
+     *
+     * @param key                  the user, day and activity type of the rollup.
+     * @param trainingCount        the number of trainings.
+     * @param totalDistance        the total distance of the trainings.
+     * @param totalDurationSeconds the total duration of the trainings, in seconds.
+     * @param maxSpeed             the maximum average speed of the trainings.
+     */
+    public TrainingDailyRollup(Key key, long trainingCount, double totalDistance, long totalDurationSeconds, double maxSpeed) {
+        this.key = key;
+        this.trainingCount = trainingCount;
+        this.totalDistance = totalDistance;
+        this.totalDurationSeconds = totalDurationSeconds;
+        this.maxSpeed = maxSpeed;
+    }
+
+    /**
+     * Retrieves the key of the rollup.
+     *
+     * @return the user, day and activity type of the rollup.
+     */
+    @Override
+    public Key getId() {
+        return key;
+    }
+
+    /**
+     * Tells whether the rollup has not been written to the database yet.
+     *
+     * @return {@code true} if saving the rollup must insert it.
+     */
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.fresh = false;
+    }
+
+    /**
+     * Composite primary key of a {@link TrainingDailyRollup}.
+     */
+    @Embeddable
+    @Getter
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+
+        @Column(name = "training_day", nullable = false)
+        private LocalDate day;
+
+        @Enumerated(EnumType.ORDINAL)
+        @Column(name = "activity_type", nullable = false)
+        private ActivityType activityType;
+    }
+}
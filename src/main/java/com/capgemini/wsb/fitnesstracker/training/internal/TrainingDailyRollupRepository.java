@@ -0,0 +1,72 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link TrainingDailyRollup} entities in the database.
+ */
+interface TrainingDailyRollupRepository extends JpaRepository<TrainingDailyRollup, TrainingDailyRollup.Key> {
+
+    /**
+     * Adds trainings to an existing rollup with a single statement. The statement is native because Hibernate
+     * cannot render typed parameters in arithmetic on floating point columns for H2.
+     *
+     * @param userId          the user of the rollup to update.
+     * @param day             the day of the rollup to update.
+     * @param activityType    the ordinal of the activity type of the rollup to update.
+     * @param count           the number of added trainings.
+     * @param distance        the total distance of the added trainings.
+     * @param durationSeconds the total duration of the added trainings, in seconds.
+     * @param maxSpeed        the maximum average speed of the added trainings.
+     * @return the number of updated rollups, {@code 0} if the rollup does not exist yet.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            update training_daily_rollup set
+                training_count = training_count + :count,
+                total_distance = total_distance + :distance,
+                total_duration_seconds = total_duration_seconds + :durationSeconds,
+                max_speed = greatest(max_speed, :maxSpeed)
+            where user_id = :userId and training_day = :day and activity_type = :activityType""", nativeQuery = true)
+    int increment(Long userId, LocalDate day, int activityType, long count, double distance, long durationSeconds, double maxSpeed);
+
+    /**
+     * Retrieves the rollups of a user within a range of days, using the {@code (user_id, day)} index.
+     *
+     * @param userId the ID of the user whose rollups are fetched.
+     * @param from   the first day to fetch.
+     * @param to     the last day to fetch.
+     * @return a list of rollups ordered by day.
+     */
+    @Query("""
+            select r from TrainingDailyRollup r
+            where r.key.userId = :userId and r.key.day between :from and :to
+            order by r.key.day, r.key.activityType""")
+    List<TrainingDailyRollup> findByUserIdAndDayBetween(Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * Deletes the rollups of a user on a single day.
+     *
+     * @param userId the ID of the user whose rollups are deleted.
+     * @param day    the day of the deleted rollups.
+     * @return the number of deleted rollups.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TrainingDailyRollup r where r.key.userId = :userId and r.key.day = :day")
+    int deleteByUserIdAndDay(Long userId, LocalDate day);
+
+    /**
+     * Deletes all rollups of a user.
+     *
+     * @param userId the ID of the user whose rollups are deleted.
+     * @return the number of deleted rollups.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TrainingDailyRollup r where r.key.userId = :userId")
+    int deleteByUserId(Long userId);
+}
@@ -1,15 +1,19 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.annotation.Nullable;
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
 
 /**
  * DTO representing a Training with simplified user information.
+ * Times are written by the {@link UtcInstantSerializer}, which produces the same format as the pattern used for reading.
  */
 record TrainingDto(
         @Nullable Long Id,
-        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS+00:00") Date startTime,
-        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS+00:00") Date endTime,
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS+00:00", timezone = "UTC") @JsonSerialize(using = UtcInstantSerializer.class) Instant startTime,
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS+00:00", timezone = "UTC") @JsonSerialize(using = UtcInstantSerializer.class) Instant endTime,
         ActivityType activityType,
         double distance,
         double averageSpeed,
@@ -21,8 +25,8 @@ record TrainingDto(
  */
 record TrainingCreationDto(
         @Nullable Long Id,
-        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") Date startTime,
-        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") Date endTime,
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", timezone = "UTC") Instant startTime,
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", timezone = "UTC") Instant endTime,
         ActivityType activityType,
         double distance,
         double averageSpeed,
@@ -33,10 +37,45 @@ record TrainingCreationDto(
  * DTO for updating an existing Training record.
  */
 record TrainingUpdateDto(
-        @Nullable @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm") Date startTime,
-        @Nullable @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm") Date endTime,
+        @Nullable @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm[:ss]", timezone = "UTC") Instant startTime,
+        @Nullable @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm[:ss]", timezone = "UTC") Instant endTime,
         @Nullable ActivityType activityType,
         @Nullable double distance,
         @Nullable double averageSpeed,
         @Nullable Long userId) {
-}
\ No newline at end of file
+}
+
+/**
+ * DTO summarising the trainings of a single activity type within a day, week or month.
+ */
+record TrainingSummaryDto(
+        LocalDate periodStart,
+        ActivityType activityType,
+        long trainingCount,
+        double totalDistance,
+        long totalDurationSeconds,
+        double maxSpeed) {
+}
+
+/**
+ * DTO acknowledging a training accepted into the write-behind queue.
+ * The {@code ingestionId} identifies the training in the logs until it is written to the database.
+ */
+record TrainingIngestionDto(UUID ingestionId) {
+}
+
+/**
+ * DTO describing the outcome of ingesting a single training in a batch.
+ * The {@code index} is the zero-based position of the training in the request.
+ */
+record TrainingImportResultDto(int index, @Nullable Long id, TrainingImportStatus status, @Nullable String message) {
+}
+
+/**
+ * Outcome of ingesting a single training in a batch.
+ */
+enum TrainingImportStatus {
+    CREATED,
+    USER_NOT_FOUND,
+    INVALID
+}
@@ -0,0 +1,190 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsImportedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserFacade;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service ingesting batches of trainings synchronised from wearable devices.
+ * <p>
+ * Trainings are read lazily from the given iterator and inserted in chunks, every chunk in its own transaction.
+ * The users referenced by a chunk are resolved with a single query, and the inserts are batched by the JDBC driver.
+ * Trainings that are invalid or reference a missing user are reported per item instead of failing the whole batch.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class TrainingImportService {
+
+    private final TrainingRepository trainingRepository;
+    private final UserFacade userFacade;
+    private final TrainingMapper mapper;
+    private final TrainingProperties trainingProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Ingests all trainings read by the iterator.
+     * <p>
+     * A malformed training cannot be skipped reliably, so reading stops there: it is reported as invalid, the
+     * trainings before it are ingested and the trainings after it are neither read nor reported. Chunks ingested
+     * before the malformed training stay ingested, so the results list the IDs of all trainings created.
+     * </p>
+     *
+     * @param trainings the trainings to ingest.
+     * @return the outcome of the ingestion of every training read, in the order of the input.
+     * @throws IOException if the trainings cannot be read from the underlying stream.
+     */
+    List<TrainingImportResultDto> importTrainings(MappingIterator<TrainingCreationDto> trainings) throws IOException {
+        int chunkSize = trainingProperties.getImportChunkSize();
+        List<TrainingImportResultDto> results = new ArrayList<>();
+        List<PendingTraining> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (true) {
+            int position = index++;
+            TrainingCreationDto training;
+            try {
+                if (!trainings.hasNextValue()) {
+                    break;
+                }
+                training = trainings.nextValue();
+            } catch (JsonProcessingException e) {
+                log.warn("Malformed training at index {}, stopped reading the batch", position, e);
+                results.add(new TrainingImportResultDto(position, null, TrainingImportStatus.INVALID,
+                        "Malformed training, the trainings after it were not read: " + e.getOriginalMessage()));
+                break;
+            }
+            String violation = validate(training);
+            if (violation != null) {
+                results.add(new TrainingImportResultDto(position, null, TrainingImportStatus.INVALID, violation));
+                continue;
+            }
+            chunk.add(new PendingTraining(position, training));
+            if (chunk.size() == chunkSize) {
+                results.addAll(importChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk));
+        }
+        results.sort(Comparator.comparingInt(TrainingImportResultDto::index));
+        log.info("Imported {} trainings", results.stream().filter(result -> result.status() == TrainingImportStatus.CREATED).count());
+        return results;
+    }
+
+    /**
+     * Ingests already validated trainings in a single transaction.
+     *
+     * @param trainings the trainings to ingest, validated with {@link #validate(TrainingCreationDto)}.
+     * @return the outcome of the ingestion of every training; the {@code index} refers to the given list.
+     */
+    List<TrainingImportResultDto> importValidated(List<TrainingCreationDto> trainings) {
+        List<PendingTraining> chunk = new ArrayList<>(trainings.size());
+        for (int i = 0; i < trainings.size(); i++) {
+            chunk.add(new PendingTraining(i, trainings.get(i)));
+        }
+        return importChunk(chunk);
+    }
+
+    private List<TrainingImportResultDto> importChunk(List<PendingTraining> chunk) {
+        try {
+            return transactionTemplate.execute(status -> insertChunk(chunk));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Chunk of {} trainings violated a constraint, retrying row by row", chunk.size(), e);
+            return chunk.stream().map(this::insertSingle).toList();
+        }
+    }
+
+    private List<TrainingImportResultDto> insertChunk(List<PendingTraining> chunk) {
+        Set<Long> userIds = chunk.stream().map(pending -> pending.training().userId()).collect(Collectors.toSet());
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userFacade.findUsersByIds(userIds)) {
+            users.put(user.getId(), user);
+        }
+        List<TrainingImportResultDto> results = new ArrayList<>(chunk.size());
+        List<PendingTraining> accepted = new ArrayList<>(chunk.size());
+        List<Training> entities = new ArrayList<>(chunk.size());
+        for (PendingTraining pending : chunk) {
+            User user = users.get(pending.training().userId());
+            if (user == null) {
+                results.add(new TrainingImportResultDto(pending.index(), null, TrainingImportStatus.USER_NOT_FOUND, "User not found"));
+            } else {
+                Training training = mapper.toEntityCreate(pending.training());
+                training.setUser(user);
+                accepted.add(pending);
+                entities.add(training);
+            }
+        }
+        trainingRepository.saveAll(entities);
+        trainingRepository.flush();
+        for (int i = 0; i < accepted.size(); i++) {
+            results.add(new TrainingImportResultDto(accepted.get(i).index(), entities.get(i).getId(), TrainingImportStatus.CREATED, null));
+        }
+        eventPublisher.publishEvent(new TrainingsImportedEvent(entities.stream().map(TrainingSnapshot::of).toList()));
+        return results;
+    }
+
+    private TrainingImportResultDto insertSingle(PendingTraining pending) {
+        try {
+            Training created = transactionTemplate.execute(status -> {
+                User user = userFacade.getUser(pending.training().userId()).orElse(null);
+                if (user == null) {
+                    return null;
+                }
+                Training training = mapper.toEntityCreate(pending.training());
+                training.setUser(user);
+                trainingRepository.saveAndFlush(training);
+                eventPublisher.publishEvent(new TrainingCreatedEvent(TrainingSnapshot.of(training)));
+                return training;
+            });
+            return created == null
+                    ? new TrainingImportResultDto(pending.index(), null, TrainingImportStatus.USER_NOT_FOUND, "User not found")
+                    : new TrainingImportResultDto(pending.index(), created.getId(), TrainingImportStatus.CREATED, null);
+        } catch (DataIntegrityViolationException e) {
+            return new TrainingImportResultDto(pending.index(), null, TrainingImportStatus.INVALID, "Training violates a database constraint");
+        }
+    }
+
+    /**
+     * Checks that a training can be ingested, without looking up its user.
+     *
+     * @param training the training to check.
+     * @return the reason why the training is invalid, or {@code null} if it is valid.
+     */
+    @Nullable
+    static String validate(TrainingCreationDto training) {
+        if (training.userId() == null || training.startTime() == null || training.endTime() == null || training.activityType() == null) {
+            return "User ID, start time, end time and activity type are required";
+        }
+        if (training.endTime().isBefore(training.startTime())) {
+            return "End time must not be before start time";
+        }
+        return null;
+    }
+
+    private record PendingTraining(int index, TrainingCreationDto training) {
+    }
+}
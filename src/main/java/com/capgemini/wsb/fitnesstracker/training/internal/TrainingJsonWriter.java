@@ -0,0 +1,89 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingFacade;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes trainings as JSON straight to an output stream while they are read from the database.
+ * <p>
+ * Every training is mapped to a {@link TrainingDto} and written through an {@link ObjectWriter} prepared once for
+ * that type, so neither the entities, the DTOs nor the serialized body are ever held as a whole; memory use per
+ * request stays constant however many trainings are written. The writer does not flush after every training, so the
+ * output reaches the stream in buffer-sized chunks instead of one small write per training.
+ * </p>
+ */
+@Component
+class TrainingJsonWriter {
+
+    private final TrainingFacade trainingFacade;
+    private final TrainingMapper mapper;
+    private final ObjectWriter trainingWriter;
+
+    TrainingJsonWriter(TrainingFacade trainingFacade, TrainingMapper mapper, ObjectMapper objectMapper) {
+        this.trainingFacade = trainingFacade;
+        this.mapper = mapper;
+        this.trainingWriter = objectMapper.writerFor(TrainingDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+    }
+
+    /**
+     * Writes trainings as a single JSON array.
+     *
+     * @param userId the ID of the user whose trainings are written, or {@code null} for all trainings.
+     * @param output the stream to write to; it is not closed.
+     * @return the number of trainings written.
+     * @throws IOException if writing to the stream fails.
+     */
+    long writeArray(@Nullable Long userId, OutputStream output) throws IOException {
+        return write(userId, output, false);
+    }
+
+    /**
+     * Writes trainings as newline-delimited JSON, one training per line.
+     *
+     * @param userId the ID of the user whose trainings are written, or {@code null} for all trainings.
+     * @param output the stream to write to; it is not closed.
+     * @return the number of trainings written.
+     * @throws IOException if writing to the stream fails.
+     */
+    long writeLines(@Nullable Long userId, OutputStream output) throws IOException {
+        return write(userId, output, true);
+    }
+
+    private long write(@Nullable Long userId, OutputStream output, boolean lines) throws IOException {
+        long[] written = {0};
+        try (JsonGenerator generator = trainingWriter.createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            if (!lines) {
+                generator.writeStartArray();
+            }
+            trainingFacade.forEachTraining(userId, training -> {
+                try {
+                    trainingWriter.writeValue(generator, mapper.toDto(training));
+                    if (lines) {
+                        generator.writeRaw('\n');
+                    }
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!lines) {
+                generator.writeEndArray();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return written[0];
+    }
+}
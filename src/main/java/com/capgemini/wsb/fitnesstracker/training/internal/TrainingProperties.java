@@ -0,0 +1,108 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the training module.
+ */
+@ConfigurationProperties(prefix = "fitness-tracker.trainings")
+@Getter
+class TrainingProperties {
+
+    /**
+     * Number of trainings returned in a single page when the client does not request a page size.
+     */
+    private final int defaultPageSize;
+
+    /**
+     * Upper bound for the page size requested by the client.
+     */
+    private final int maxPageSize;
+
+    /**
+     * Number of trainings inserted in a single transaction by the batch ingestion.
+     */
+    private final int importChunkSize;
+
+    /**
+     * Whether created trainings are queued in memory and written to the database in the background.
+     */
+    private final boolean writeBehindEnabled;
+
+    /**
+     * Maximum number of trainings waiting in the write-behind queue before new trainings are rejected.
+     */
+    private final int writeBehindQueueCapacity;
+
+    /**
+     * Maximum number of queued trainings written in a single transaction.
+     */
+    private final int writeBehindBatchSize;
+
+    /**
+     * Maximum time a queued training waits for a batch to fill up before the batch is written.
+     */
+    private final Duration writeBehindFlushInterval;
+
+    /**
+     * Maximum time the application waits on shutdown for the write-behind queue to be written.
+     */
+    private final Duration writeBehindDrainTimeout;
+
+    /**
+     * Maximum number of attempts to write a batch of queued trainings before its trainings are dropped.
+     */
+    private final int writeBehindMaxAttempts;
+
+    /**
+     * Time to wait before the first retry of a failed batch of queued trainings, doubled for every further retry.
+     */
+    private final Duration writeBehindRetryBackoff;
+
+    /**
+     * Whether the daily training rollups are rebuilt from the trainings table on startup.
+     */
+    private final boolean rollupRebuildOnStartup;
+
+    TrainingProperties(@DefaultValue("100") int defaultPageSize,
+                       @DefaultValue("1000") int maxPageSize,
+                       @DefaultValue("500") int importChunkSize,
+                       @DefaultValue("false") boolean writeBehindEnabled,
+                       @DefaultValue("10000") int writeBehindQueueCapacity,
+                       @DefaultValue("500") int writeBehindBatchSize,
+                       @DefaultValue("100ms") Duration writeBehindFlushInterval,
+                       @DefaultValue("30s") Duration writeBehindDrainTimeout,
+                       @DefaultValue("5") int writeBehindMaxAttempts,
+                       @DefaultValue("200ms") Duration writeBehindRetryBackoff,
+                       @DefaultValue("false") boolean rollupRebuildOnStartup) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.importChunkSize = importChunkSize;
+        this.writeBehindEnabled = writeBehindEnabled;
+        this.writeBehindQueueCapacity = writeBehindQueueCapacity;
+        this.writeBehindBatchSize = writeBehindBatchSize;
+        this.writeBehindFlushInterval = writeBehindFlushInterval;
+        this.writeBehindDrainTimeout = writeBehindDrainTimeout;
+        this.writeBehindMaxAttempts = writeBehindMaxAttempts;
+        this.writeBehindRetryBackoff = writeBehindRetryBackoff;
+        this.rollupRebuildOnStartup = rollupRebuildOnStartup;
+    }
+
+    /**
+     * Resolves the page size to use for a request.
+     *
+     * @param requested the page size requested by the client, if any.
+     * @return the requested page size capped by {@link #maxPageSize}, or {@link #defaultPageSize} if none was requested.
+     */
+    int resolvePageSize(@Nullable Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+}
@@ -1,16 +1,41 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import java.time.LocalDate;
-import java.util.Date;
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing {@link Training} entities in the database.
+ * <p>
+ * Queries returning lists of trainings fetch the training's user in the same statement,
+ * so mapping the trainings to DTOs does not load users one by one.
+ * </p>
+ * <p>
+ * Page queries order trainings by {@code (startTime, id)} or {@code (endTime, id)} and continue after the last
+ * training of the previous page (keyset pagination), so every page is a bounded index range scan regardless of
+ * its position.
+ * </p>
  */
-public interface TrainingRepository extends JpaRepository<Training, Long> {
+public interface TrainingRepository extends JpaRepository<Training, Long>, TrainingSearchRepository {
+
+    /**
+     * Retrieves all trainings together with their users.
+     *
+     * @return A list of all {@link Training} entities.
+     */
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Training> findAll();
 
     /**
      * Retrieves a list of trainings associated with a specific user ID.
@@ -18,6 +43,7 @@ public interface TrainingRepository extends JpaRepository<Training, Long> {
      * @param userId The ID of the user to retrieve trainings for.
      * @return A list of {@link Training} entities associated with the given user ID.
      */
+    @EntityGraph(attributePaths = "user")
     List<Training> findByUserId(Long userId);
 
     /**
@@ -26,7 +52,8 @@ public interface TrainingRepository extends JpaRepository<Training, Long> {
      * @param startTime The starting date and time to filter trainings.
      * @return A list of {@link Training} entities starting after the specified time.
      */
-    List<Training> findByStartTimeAfter(Date startTime);
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByStartTimeAfter(Instant startTime);
 
     /**
      * Retrieves a list of trainings with a specific activity type.
@@ -34,6 +61,277 @@ public interface TrainingRepository extends JpaRepository<Training, Long> {
      * @param activityType The type of activity to filter trainings.
      * @return A list of {@link Training} entities with the specified activity type.
      */
+    @EntityGraph(attributePaths = "user")
     List<Training> findByActivityType(ActivityType activityType);
 
+    /**
+     * Retrieves the first page of all trainings.
+     *
+     * @param limit the maximum number of trainings to return.
+     * @return trainings ordered by start time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("select t from Training t order by t.startTime, t.id")
+    List<Training> findPage(Limit limit);
+
+    /**
+     * Retrieves a page of all trainings following the given position.
+     *
+     * @param startTime the start time of the last training of the previous page.
+     * @param id        the ID of the last training of the previous page.
+     * @param limit     the maximum number of trainings to return.
+     * @return trainings ordered by start time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.startTime > :startTime or (t.startTime = :startTime and t.id > :id)
+            order by t.startTime, t.id
+            """)
+    List<Training> findPage(Instant startTime, Long id, Limit limit);
+
+    /**
+     * Retrieves the first page of trainings of a user.
+     *
+     * @param userId the ID of the user.
+     * @param limit  the maximum number of trainings to return.
+     * @return trainings ordered by start time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("select t from Training t where t.user.id = :userId order by t.startTime, t.id")
+    List<Training> findPageByUserId(Long userId, Limit limit);
+
+    /**
+     * Retrieves a page of trainings of a user following the given position.
+     *
+     * @param userId    the ID of the user.
+     * @param startTime the start time of the last training of the previous page.
+     * @param id        the ID of the last training of the previous page.
+     * @param limit     the maximum number of trainings to return.
+     * @return trainings ordered by start time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.user.id = :userId
+              and (t.startTime > :startTime or (t.startTime = :startTime and t.id > :id))
+            order by t.startTime, t.id
+            """)
+    List<Training> findPageByUserId(Long userId, Instant startTime, Long id, Limit limit);
+
+    /**
+     * Retrieves the most recent trainings of a user starting within {@code [from, to)}, newest first.
+     *
+     * @param userId the ID of the user.
+     * @param from   the inclusive lower bound of the start time.
+     * @param to     the exclusive upper bound of the start time.
+     * @param limit  the maximum number of trainings to return.
+     * @return trainings ordered by start time and ID, descending.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.user.id = :userId and t.startTime >= :from and t.startTime < :to
+            order by t.startTime desc, t.id desc
+            """)
+    List<Training> findRecentByUserId(Long userId, Instant from, Instant to, Limit limit);
+
+    /**
+     * Retrieves the first page of trainings finishing after the given time.
+     *
+     * @param from  the time after which the trainings finish.
+     * @param limit the maximum number of trainings to return.
+     * @return trainings ordered by end time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("select t from Training t where t.endTime > :from order by t.endTime, t.id")
+    List<Training> findPageFinishingAfter(Instant from, Limit limit);
+
+    /**
+     * Retrieves a page of trainings finishing after the given time, following the given position.
+     *
+     * @param from    the time after which the trainings finish.
+     * @param endTime the end time of the last training of the previous page.
+     * @param id      the ID of the last training of the previous page.
+     * @param limit   the maximum number of trainings to return.
+     * @return trainings ordered by end time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.endTime > :from
+              and (t.endTime > :endTime or (t.endTime = :endTime and t.id > :id))
+            order by t.endTime, t.id
+            """)
+    List<Training> findPageFinishingAfter(Instant from, Instant endTime, Long id, Limit limit);
+
+    /**
+     * Retrieves the first page of trainings starting within {@code [from, to)}.
+     *
+     * @param from  the inclusive lower bound of the start time.
+     * @param to    the exclusive upper bound of the start time.
+     * @param limit the maximum number of trainings to return.
+     * @return trainings ordered by start time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("select t from Training t where t.startTime >= :from and t.startTime < :to order by t.startTime, t.id")
+    List<Training> findPageStartingBetween(Instant from, Instant to, Limit limit);
+
+    /**
+     * Retrieves a page of trainings starting within {@code [from, to)}, following the given position.
+     *
+     * @param from      the inclusive lower bound of the start time.
+     * @param to        the exclusive upper bound of the start time.
+     * @param startTime the start time of the last training of the previous page.
+     * @param id        the ID of the last training of the previous page.
+     * @param limit     the maximum number of trainings to return.
+     * @return trainings ordered by start time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.startTime >= :from and t.startTime < :to
+              and (t.startTime > :startTime or (t.startTime = :startTime and t.id > :id))
+            order by t.startTime, t.id
+            """)
+    List<Training> findPageStartingBetween(Instant from, Instant to, Instant startTime, Long id, Limit limit);
+
+    /**
+     * Retrieves the first page of trainings finishing within {@code [from, to)}.
+     *
+     * @param from  the inclusive lower bound of the end time.
+     * @param to    the exclusive upper bound of the end time.
+     * @param limit the maximum number of trainings to return.
+     * @return trainings ordered by end time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("select t from Training t where t.endTime >= :from and t.endTime < :to order by t.endTime, t.id")
+    List<Training> findPageFinishingBetween(Instant from, Instant to, Limit limit);
+
+    /**
+     * Retrieves a page of trainings finishing within {@code [from, to)}, following the given position.
+     *
+     * @param from    the inclusive lower bound of the end time.
+     * @param to      the exclusive upper bound of the end time.
+     * @param endTime the end time of the last training of the previous page.
+     * @param id      the ID of the last training of the previous page.
+     * @param limit   the maximum number of trainings to return.
+     * @return trainings ordered by end time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.endTime >= :from and t.endTime < :to
+              and (t.endTime > :endTime or (t.endTime = :endTime and t.id > :id))
+            order by t.endTime, t.id
+            """)
+    List<Training> findPageFinishingBetween(Instant from, Instant to, Instant endTime, Long id, Limit limit);
+
+    /**
+     * Retrieves the first page of trainings with a specific activity type.
+     *
+     * @param activityType the type of activity.
+     * @param limit        the maximum number of trainings to return.
+     * @return trainings ordered by start time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("select t from Training t where t.activityType = :activityType order by t.startTime, t.id")
+    List<Training> findPageByActivityType(ActivityType activityType, Limit limit);
+
+    /**
+     * Retrieves a page of trainings with a specific activity type following the given position.
+     *
+     * @param activityType the type of activity.
+     * @param startTime    the start time of the last training of the previous page.
+     * @param id           the ID of the last training of the previous page.
+     * @param limit        the maximum number of trainings to return.
+     * @return trainings ordered by start time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.activityType = :activityType
+              and (t.startTime > :startTime or (t.startTime = :startTime and t.id > :id))
+            order by t.startTime, t.id
+            """)
+    List<Training> findPageByActivityType(ActivityType activityType, Instant startTime, Long id, Limit limit);
+
+    /**
+     * Streams all trainings together with their users, ordered by ID.
+     * Rows are read from a JDBC cursor in fetch-size chunks and the entities are loaded read-only, so the caller
+     * can keep memory use independent of the table size by clearing the persistence context while consuming.
+     * Must be consumed within a transaction and closed afterwards.
+     *
+     * @return a stream of all {@link Training}s.
+     */
+    @Query("select t from Training t left join fetch t.user order by t.id")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Training> streamAll();
+
+    /**
+     * Streams the trainings of a user together with the user, ordered by ID, like {@link #streamAll()}.
+     *
+     * @param userId the ID of the user whose trainings are streamed.
+     * @return a stream of the {@link Training}s of the user.
+     */
+    @Query("select t from Training t left join fetch t.user where t.user.id = :userId order by t.id")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Training> streamByUserId(Long userId);
+
+    /**
+     * Streams snapshots of all trainings ordered by ID, without loading managed entities.
+     * Rows are read from a JDBC cursor in fetch-size chunks, so memory use does not depend on the table size.
+     * Must be consumed within a transaction and closed afterwards.
+     *
+     * @return a stream of {@link TrainingSnapshot}s of all trainings.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot(t.id, t.user.id, t.activityType, t.startTime, t.endTime, t.distance, t.averageSpeed)
+            from Training t order by t.id""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<TrainingSnapshot> streamAllSnapshots();
+
+    /**
+     * Streams snapshots of the trainings starting within {@code [from, to)} ordered by start time, read through the
+     * {@code (start_time, id)} index. Must be consumed within a transaction and closed afterwards.
+     *
+     * @param from inclusive lower bound of the start time.
+     * @param to   exclusive upper bound of the start time.
+     * @return a stream of {@link TrainingSnapshot}s of the matching trainings.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot(t.id, t.user.id, t.activityType, t.startTime, t.endTime, t.distance, t.averageSpeed)
+            from Training t
+            where t.startTime >= :from and t.startTime < :to
+            order by t.startTime, t.id""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<TrainingSnapshot> streamSnapshotsStartingBetween(Instant from, Instant to);
+
+    /**
+     * Retrieves snapshots of all trainings of a user.
+     *
+     * @param userId the ID of the user whose trainings are fetched.
+     * @return a list of {@link TrainingSnapshot}s of the trainings of the user.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot(t.id, t.user.id, t.activityType, t.startTime, t.endTime, t.distance, t.averageSpeed)
+            from Training t
+            where t.user.id = :userId""")
+    List<TrainingSnapshot> findSnapshotsByUserId(Long userId);
+
+    /**
+     * Retrieves snapshots of the trainings of a user starting within {@code [from, to)}.
+     *
+     * @param userId the ID of the user whose trainings are fetched.
+     * @param from   inclusive lower bound of the start time.
+     * @param to     exclusive upper bound of the start time.
+     * @return a list of {@link TrainingSnapshot}s of the matching trainings.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot(t.id, t.user.id, t.activityType, t.startTime, t.endTime, t.distance, t.averageSpeed)
+            from Training t
+            where t.user.id = :userId and t.startTime >= :from and t.startTime < :to""")
+    List<TrainingSnapshot> findSnapshotsByUserIdStartingBetween(Long userId, Instant from, Instant to);
 }
@@ -0,0 +1,266 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsImportedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Service maintaining the {@link TrainingDailyRollup}s and answering summaries from them.
+ * <p>
+ * The rollups are updated by synchronous listeners of the training events, so they are written in the same
+ * transaction as the trainings and roll back with them. New trainings increment the rollups; updated trainings
+ * recompute the rollups of the days they moved from and to, because a maximum cannot be decremented.
+ * Days are UTC days of the start time.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class TrainingRollupService {
+
+    /**
+     * SQLSTATE of a unique constraint violation.
+     */
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String INSERT_ROLLUP = """
+            insert into training_daily_rollup
+                (user_id, training_day, activity_type, training_count, total_distance, total_duration_seconds, max_speed)
+            values (?, ?, ?, ?, ?, ?, ?)""";
+
+    private final TrainingDailyRollupRepository rollupRepository;
+    private final TrainingRepository trainingRepository;
+    private final TrainingProperties trainingProperties;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    @Transactional
+    public void onTrainingCreated(TrainingCreatedEvent event) {
+        add(List.of(event.training()));
+    }
+
+    @EventListener
+    @Transactional
+    public void onTrainingsImported(TrainingsImportedEvent event) {
+        add(event.trainings());
+    }
+
+    @EventListener
+    @Transactional
+    public void onTrainingUpdated(TrainingUpdatedEvent event) {
+        Set<UserDay> affectedDays = new LinkedHashSet<>();
+        if (event.previous() != null && event.previous().userId() != null) {
+            affectedDays.add(UserDay.of(event.previous()));
+        }
+        if (event.training().userId() != null) {
+            affectedDays.add(UserDay.of(event.training()));
+        }
+        affectedDays.forEach(this::recompute);
+    }
+
+    @EventListener
+    @Transactional
+    public void onUserDeleted(UserDeletedEvent event) {
+        rollupRepository.deleteByUserId(event.userId());
+    }
+
+    /**
+     * Rebuilds the rollups from the trainings table on startup, if enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildOnStartup() {
+        if (trainingProperties.isRollupRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces all rollups with rollups computed from the trainings table in a single pass.
+     * Trainings written while the rebuild runs may be counted twice or not at all.
+     *
+     * @return the number of written rollups.
+     */
+    @Transactional
+    public int rebuild() {
+        Map<TrainingDailyRollup.Key, Totals> totals = new HashMap<>();
+        try (Stream<TrainingSnapshot> trainings = trainingRepository.streamAllSnapshots()) {
+            trainings.filter(training -> training.userId() != null)
+                    .forEach(training -> totals.computeIfAbsent(keyOf(training), key -> new Totals()).add(training));
+        }
+        rollupRepository.deleteAllInBatch();
+        rollupRepository.saveAll(toRollups(totals));
+        log.info("Rebuilt {} daily training rollups", totals.size());
+        return totals.size();
+    }
+
+    /**
+     * Summarises the trainings of a user per period and activity type.
+     *
+     * @param userId the ID of the user whose trainings are summarised.
+     * @param from   the first day (UTC) to summarise.
+     * @param to     the last day (UTC) to summarise.
+     * @param period the length of the summarised periods.
+     * @return summaries ordered by period start, for every period and activity type with trainings.
+     */
+    @Transactional(readOnly = true)
+    public List<TrainingSummaryDto> summarize(Long userId, LocalDate from, LocalDate to, TrainingSummaryPeriod period) {
+        Map<PeriodKey, Totals> totals = new LinkedHashMap<>();
+        for (TrainingDailyRollup rollup : rollupRepository.findByUserIdAndDayBetween(userId, from, to)) {
+            PeriodKey key = new PeriodKey(period.startOf(rollup.getKey().getDay()), rollup.getKey().getActivityType());
+            totals.computeIfAbsent(key, periodKey -> new Totals()).add(rollup);
+        }
+        List<TrainingSummaryDto> summaries = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> summaries.add(new TrainingSummaryDto(key.periodStart(), key.activityType(),
+                total.count, total.distance, total.durationSeconds, total.maxSpeed)));
+        return summaries;
+    }
+
+    private void add(Collection<TrainingSnapshot> trainings) {
+        Map<TrainingDailyRollup.Key, Totals> totals = new LinkedHashMap<>();
+        for (TrainingSnapshot training : trainings) {
+            if (training.userId() != null) {
+                totals.computeIfAbsent(keyOf(training), key -> new Totals()).add(training);
+            }
+        }
+        totals.forEach(this::upsert);
+    }
+
+    private void recompute(UserDay userDay) {
+        rollupRepository.deleteByUserIdAndDay(userDay.userId(), userDay.day());
+        Map<TrainingDailyRollup.Key, Totals> totals = new HashMap<>();
+        List<TrainingSnapshot> trainings = trainingRepository.findSnapshotsByUserIdStartingBetween(userDay.userId(),
+                userDay.day().atStartOfDay().toInstant(ZoneOffset.UTC),
+                userDay.day().plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        for (TrainingSnapshot training : trainings) {
+            totals.computeIfAbsent(keyOf(training), key -> new Totals()).add(training);
+        }
+        totals.forEach(this::upsert);
+    }
+
+    /**
+     * Adds totals to a rollup, creating the rollup if it does not exist. When a concurrent transaction creates the
+     * same rollup between the increment and the insert, the insert fails and the increment is repeated on the rollup
+     * created meanwhile.
+     */
+    private void upsert(TrainingDailyRollup.Key key, Totals total) {
+        if (increment(key, total) == 0 && !insert(key, total)) {
+            increment(key, total);
+        }
+    }
+
+    private int increment(TrainingDailyRollup.Key key, Totals total) {
+        return rollupRepository.increment(key.getUserId(), key.getDay(), key.getActivityType().ordinal(),
+                total.count, total.distance, total.durationSeconds, total.maxSpeed);
+    }
+
+    /**
+     * Inserts a new rollup within a savepoint, so that losing the race against a concurrent insert of the same
+     * rollup rolls back only the insert. The statement bypasses JPA on the connection of the current transaction,
+     * because a failed JPA statement marks the whole transaction for rollback.
+     *
+     * @return {@code true} if the rollup was inserted, {@code false} if it exists already.
+     */
+    private boolean insert(TrainingDailyRollup.Key key, Totals total) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ROLLUP)) {
+                statement.setLong(1, key.getUserId());
+                statement.setObject(2, key.getDay());
+                statement.setInt(3, key.getActivityType().ordinal());
+                statement.setLong(4, total.count);
+                statement.setDouble(5, total.distance);
+                statement.setLong(6, total.durationSeconds);
+                statement.setDouble(7, total.maxSpeed);
+                statement.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw e;
+                }
+                connection.rollback(savepoint);
+                log.debug("Rollup {} created concurrently, incrementing it instead", key);
+                return false;
+            }
+        }));
+    }
+
+    private static List<TrainingDailyRollup> toRollups(Map<TrainingDailyRollup.Key, Totals> totals) {
+        List<TrainingDailyRollup> rollups = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> rollups.add(total.toRollup(key)));
+        return rollups;
+    }
+
+    private static TrainingDailyRollup.Key keyOf(TrainingSnapshot training) {
+        return new TrainingDailyRollup.Key(training.userId(), dayOf(training), training.activityType());
+    }
+
+    private static LocalDate dayOf(TrainingSnapshot training) {
+        return LocalDate.ofInstant(training.startTime(), ZoneOffset.UTC);
+    }
+
+    private record UserDay(Long userId, LocalDate day) {
+
+        static UserDay of(TrainingSnapshot training) {
+            return new UserDay(training.userId(), dayOf(training));
+        }
+    }
+
+    private record PeriodKey(LocalDate periodStart, ActivityType activityType) {
+    }
+
+    /**
+     * Mutable accumulator of the totals of a group of trainings or rollups.
+     */
+    private static final class Totals {
+
+        private long count;
+        private double distance;
+        private long durationSeconds;
+        private double maxSpeed;
+
+        void add(TrainingSnapshot training) {
+            count++;
+            distance += training.distance();
+            durationSeconds += Duration.between(training.startTime(), training.endTime()).toSeconds();
+            maxSpeed = Math.max(maxSpeed, training.averageSpeed());
+        }
+
+        void add(TrainingDailyRollup rollup) {
+            count += rollup.getTrainingCount();
+            distance += rollup.getTotalDistance();
+            durationSeconds += rollup.getTotalDurationSeconds();
+            maxSpeed = Math.max(maxSpeed, rollup.getMaxSpeed());
+        }
+
+        TrainingDailyRollup toRollup(TrainingDailyRollup.Key key) {
+            return new TrainingDailyRollup(key, count, distance, durationSeconds, maxSpeed);
+        }
+    }
+}
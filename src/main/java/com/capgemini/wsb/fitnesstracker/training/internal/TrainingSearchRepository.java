@@ -0,0 +1,24 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCursor;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSearchCriteria;
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Repository fragment searching {@link Training} entities by any combination of filters.
+ */
+interface TrainingSearchRepository {
+
+    /**
+     * Retrieves a single keyset page of trainings matching all given filters, together with their users.
+     *
+     * @param criteria the filters to apply.
+     * @param after    the position of the last training of the previous page, or {@code null} for the first page.
+     * @param limit    the maximum number of trainings to return.
+     * @return trainings ordered by start time and ID.
+     */
+    List<Training> search(TrainingSearchCriteria criteria, @Nullable TrainingCursor after, int limit);
+}
@@ -0,0 +1,127 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCursor;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSearchCriteria;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Implementation of {@link TrainingSearchRepository} building one query per combination of filters.
+ * <p>
+ * The filters present in a search form a bit mask (the query shape). The query text of every shape is built once
+ * and reused, and since equal query texts hit Hibernate's query plan cache, every shape is parsed and planned only
+ * once; searches of the same shape differ in parameter values only. Criteria queries would be planned on every
+ * execution, because Hibernate does not cache their plans.
+ * </p>
+ */
+class TrainingSearchRepositoryImpl implements TrainingSearchRepository {
+
+    private static final Filter[] FILTERS = Filter.values();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AtomicReferenceArray<String> queriesByShape = new AtomicReferenceArray<>(1 << FILTERS.length);
+
+    @Override
+    public List<Training> search(TrainingSearchCriteria criteria, @Nullable TrainingCursor after, int limit) {
+        int shape = 0;
+        for (Filter filter : FILTERS) {
+            if (filter.isPresent(criteria, after)) {
+                shape |= 1 << filter.ordinal();
+            }
+        }
+        TypedQuery<Training> query = entityManager.createQuery(queryOf(shape), Training.class);
+        if (criteria.userId() != null) {
+            query.setParameter("userId", criteria.userId());
+        }
+        if (criteria.activityType() != null) {
+            query.setParameter("activityType", criteria.activityType());
+        }
+        if (criteria.from() != null) {
+            query.setParameter("from", criteria.from());
+        }
+        if (criteria.to() != null) {
+            query.setParameter("to", criteria.to());
+        }
+        if (criteria.minDistance() != null) {
+            query.setParameter("minDistance", criteria.minDistance());
+        }
+        if (criteria.maxDistance() != null) {
+            query.setParameter("maxDistance", criteria.maxDistance());
+        }
+        if (criteria.minSpeed() != null) {
+            query.setParameter("minSpeed", criteria.minSpeed());
+        }
+        if (criteria.maxSpeed() != null) {
+            query.setParameter("maxSpeed", criteria.maxSpeed());
+        }
+        if (after != null) {
+            query.setParameter("afterTime", after.time());
+            query.setParameter("afterId", after.id());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private String queryOf(int shape) {
+        String query = queriesByShape.get(shape);
+        if (query == null) {
+            query = buildQuery(shape);
+            queriesByShape.set(shape, query);
+        }
+        return query;
+    }
+
+    private static String buildQuery(int shape) {
+        StringJoiner predicates = new StringJoiner(" and ", " where ", "").setEmptyValue("");
+        for (Filter filter : FILTERS) {
+            if ((shape & (1 << filter.ordinal())) != 0) {
+                predicates.add(filter.predicate);
+            }
+        }
+        return "select t from Training t left join fetch t.user" + predicates + " order by t.startTime, t.id";
+    }
+
+    /**
+     * Filters of a search, in the order of their bits in the query shape.
+     */
+    private enum Filter {
+
+        USER("t.user.id = :userId"),
+        ACTIVITY_TYPE("t.activityType = :activityType"),
+        FROM("t.startTime >= :from"),
+        TO("t.startTime < :to"),
+        MIN_DISTANCE("t.distance >= :minDistance"),
+        MAX_DISTANCE("t.distance <= :maxDistance"),
+        MIN_SPEED("t.averageSpeed >= :minSpeed"),
+        MAX_SPEED("t.averageSpeed <= :maxSpeed"),
+        AFTER("(t.startTime > :afterTime or (t.startTime = :afterTime and t.id > :afterId))");
+
+        private final String predicate;
+
+        Filter(String predicate) {
+            this.predicate = predicate;
+        }
+
+        boolean isPresent(TrainingSearchCriteria criteria, @Nullable TrainingCursor after) {
+            return switch (this) {
+                case USER -> criteria.userId() != null;
+                case ACTIVITY_TYPE -> criteria.activityType() != null;
+                case FROM -> criteria.from() != null;
+                case TO -> criteria.to() != null;
+                case MIN_DISTANCE -> criteria.minDistance() != null;
+                case MAX_DISTANCE -> criteria.maxDistance() != null;
+                case MIN_SPEED -> criteria.minSpeed() != null;
+                case MAX_SPEED -> criteria.maxSpeed() != null;
+                case AFTER -> after != null;
+            };
+        }
+    }
+}
@@ -1,16 +1,30 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCursor;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingFacade;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSearchCriteria;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the {@link TrainingFacade} interface for managing {@link Training} entities.
@@ -21,7 +35,17 @@ import java.util.Optional;
 @Slf4j
 public class TrainingServiceImpl implements TrainingFacade {
 
+    private static final Instant EARLIEST_START_TIME = Instant.parse("0001-01-01T00:00:00Z");
+    private static final Instant LATEST_START_TIME = Instant.parse("9999-12-31T23:59:59Z");
+    /**
+     * Number of streamed trainings after which the persistence context is cleared, matching the fetch size of the stream.
+     */
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final TrainingRepository trainingRepository;
+    private final TrainingActivityIndex trainingActivityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     /**
      * Retrieves all training records from the database.
@@ -51,7 +75,7 @@ public class TrainingServiceImpl implements TrainingFacade {
      * @return List of {@link Training} entities with start times after the specified date
      */
     @Override
-    public List<Training> findByStartTimeAfter(Date startTime) {
+    public List<Training> findByStartTimeAfter(Instant startTime) {
         return trainingRepository.findByStartTimeAfter(startTime);
     }
 
@@ -67,14 +91,155 @@ public class TrainingServiceImpl implements TrainingFacade {
     }
 
     /**
-     * Creates a new training record in the database.
+     * Retrieves a single keyset page of all training records.
+     *
+     * @param after Position of the last training of the previous page, or {@code null} for the first page
+     * @param limit Maximum number of trainings to return
+     * @return List of {@link Training} entities ordered by start time and ID
+     */
+    @Override
+    public List<Training> findTrainings(@Nullable TrainingCursor after, int limit) {
+        return after == null
+                ? trainingRepository.findPage(Limit.of(limit))
+                : trainingRepository.findPage(after.time(), after.id(), Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a single keyset page of training records associated with a specific user ID.
+     *
+     * @param userId ID of the user whose training records are to be fetched
+     * @param after  Position of the last training of the previous page, or {@code null} for the first page
+     * @param limit  Maximum number of trainings to return
+     * @return List of {@link Training} entities ordered by start time and ID
+     */
+    @Override
+    public List<Training> findByUserId(Long userId, @Nullable TrainingCursor after, int limit) {
+        return after == null
+                ? trainingRepository.findPageByUserId(userId, Limit.of(limit))
+                : trainingRepository.findPageByUserId(userId, after.time(), after.id(), Limit.of(limit));
+    }
+
+    /**
+     * Retrieves the most recent training records of a user within a time window. Missing bounds are replaced
+     * with the widest range of timestamps supported by SQL, so a single query on the
+     * {@code (user_id, start_time)} index serves every window.
+     *
+     * @param userId ID of the user whose training records are to be fetched
+     * @param from   Inclusive lower bound of the start time, or {@code null} for no lower bound
+     * @param to     Exclusive upper bound of the start time, or {@code null} for no upper bound
+     * @param limit  Maximum number of trainings to return
+     * @return List of {@link Training} entities ordered by start time, newest first
+     */
+    @Override
+    public List<Training> findRecentByUserId(Long userId, @Nullable Instant from, @Nullable Instant to, int limit) {
+        return trainingRepository.findRecentByUserId(userId,
+                from == null ? EARLIEST_START_TIME : from,
+                to == null ? LATEST_START_TIME : to,
+                Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a single keyset page of training records finishing after a specified time.
+     *
+     * @param endTime End time threshold for filtering training records
+     * @param after   Position of the last training of the previous page, or {@code null} for the first page
+     * @param limit   Maximum number of trainings to return
+     * @return List of {@link Training} entities ordered by end time and ID
+     */
+    @Override
+    public List<Training> findByEndTimeAfter(Instant endTime, @Nullable TrainingCursor after, int limit) {
+        return after == null
+                ? trainingRepository.findPageFinishingAfter(endTime, Limit.of(limit))
+                : trainingRepository.findPageFinishingAfter(endTime, after.time(), after.id(), Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a single keyset page of training records starting within {@code [from, to)}.
+     *
+     * @param from  Inclusive lower bound of the start time
+     * @param to    Exclusive upper bound of the start time
+     * @param after Position of the last training of the previous page, or {@code null} for the first page
+     * @param limit Maximum number of trainings to return
+     * @return List of {@link Training} entities ordered by start time and ID
+     */
+    @Override
+    public List<Training> findByStartTimeBetween(Instant from, Instant to, @Nullable TrainingCursor after, int limit) {
+        return after == null
+                ? trainingRepository.findPageStartingBetween(from, to, Limit.of(limit))
+                : trainingRepository.findPageStartingBetween(from, to, after.time(), after.id(), Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a single keyset page of training records finishing within {@code [from, to)}.
+     *
+     * @param from  Inclusive lower bound of the end time
+     * @param to    Exclusive upper bound of the end time
+     * @param after Position of the last training of the previous page, or {@code null} for the first page
+     * @param limit Maximum number of trainings to return
+     * @return List of {@link Training} entities ordered by end time and ID
+     */
+    @Override
+    public List<Training> findByEndTimeBetween(Instant from, Instant to, @Nullable TrainingCursor after, int limit) {
+        return after == null
+                ? trainingRepository.findPageFinishingBetween(from, to, Limit.of(limit))
+                : trainingRepository.findPageFinishingBetween(from, to, after.time(), after.id(), Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a single keyset page of training records with a specific activity type.
+     *
+     * @param activityType Activity type to filter training records
+     * @param after        Position of the last training of the previous page, or {@code null} for the first page
+     * @param limit        Maximum number of trainings to return
+     * @return List of {@link Training} entities ordered by start time and ID
+     */
+    @Override
+    public List<Training> findByActivityType(ActivityType activityType, @Nullable TrainingCursor after, int limit) {
+        return after == null
+                ? trainingRepository.findPageByActivityType(activityType, Limit.of(limit))
+                : trainingRepository.findPageByActivityType(activityType, after.time(), after.id(), Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a single keyset page of training records matching any combination of filters,
+     * with one cached query per combination of filters.
+     *
+     * @param criteria Filters the training records must match
+     * @param after    Position of the last training of the previous page, or {@code null} for the first page
+     * @param limit    Maximum number of trainings to return
+     * @return List of {@link Training} entities ordered by start time and ID
+     */
+    @Override
+    public List<Training> searchTrainings(TrainingSearchCriteria criteria, @Nullable TrainingCursor after, int limit) {
+        return trainingRepository.search(criteria, after, limit);
+    }
+
+    /**
+     * Counts trainings of every activity type from the in-memory {@link TrainingActivityIndex}, intersecting
+     * the activity bitmaps with the user and start date bitmaps instead of scanning the trainings table.
+     *
+     * @param userId ID of the user whose trainings are counted, or {@code null} for all users
+     * @param from   First start date (UTC) to count, or {@code null} for no lower bound
+     * @param to     Last start date (UTC) to count, or {@code null} for no upper bound
+     * @return Number of matching trainings for every {@link ActivityType}
+     */
+    @Override
+    public Map<ActivityType, Long> countByActivityType(@Nullable Long userId, @Nullable LocalDate from, @Nullable LocalDate to) {
+        return trainingActivityIndex.countByActivityType(userId, from, to);
+    }
+
+    /**
+     * Creates a new training record in the database and publishes a {@link TrainingCreatedEvent}.
      *
      * @param training Training entity containing data to be persisted
      * @return Created {@link Training} entity
      */
     @Override
+    @Transactional
     public Training createTraining(Training training) {
-        return trainingRepository.save(training);
+        Training createdTraining = trainingRepository.save(training);
+        eventPublisher.publishEvent(new TrainingCreatedEvent(TrainingSnapshot.of(createdTraining)));
+        return createdTraining;
     }
 
     /**
@@ -89,14 +254,80 @@ public class TrainingServiceImpl implements TrainingFacade {
     }
 
     /**
-     * Updates an existing training record in the database.
+     * Updates an existing training record in the database and publishes a {@link TrainingUpdatedEvent}
+     * carrying both the previously persisted and the new state.
      *
      * @param training Updated training entity with new data
      * @return Updated {@link Training} entity
      */
     @Override
+    @Transactional
     public Training updateTraining(Training training) {
-        return trainingRepository.save(training);
+        TrainingSnapshot previous = training.getPersistedState();
+        Training updatedTraining = trainingRepository.save(training);
+        eventPublisher.publishEvent(new TrainingUpdatedEvent(previous, TrainingSnapshot.of(updatedTraining)));
+        return updatedTraining;
+    }
+
+    /**
+     * Streams trainings from the database and passes them to the action, clearing the persistence context
+     * every {@value #STREAM_CLEAR_INTERVAL} trainings so that visited trainings can be garbage collected.
+     *
+     * @param userId ID of the user whose trainings are visited, or {@code null} for all trainings
+     * @param action action to perform on every training
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachTraining(@Nullable Long userId, Consumer<Training> action) {
+        try (Stream<Training> trainings = userId == null ? trainingRepository.streamAll() : trainingRepository.streamByUserId(userId)) {
+            Iterator<Training> iterator = trainings.iterator();
+            int visited = 0;
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++visited % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Streams snapshots of all trainings from the database and passes them to the action.
+     *
+     * @param action action to perform on every training snapshot
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachTrainingSnapshot(Consumer<TrainingSnapshot> action) {
+        try (Stream<TrainingSnapshot> trainings = trainingRepository.streamAllSnapshots()) {
+            trainings.forEach(action);
+        }
+    }
+
+    /**
+     * Streams snapshots of the trainings starting within a time window from the database and passes them to the action.
+     *
+     * @param from   inclusive lower bound of the start time
+     * @param to     exclusive upper bound of the start time
+     * @param action action to perform on every training snapshot
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachTrainingSnapshotStartingBetween(Instant from, Instant to, Consumer<TrainingSnapshot> action) {
+        try (Stream<TrainingSnapshot> trainings = trainingRepository.streamSnapshotsStartingBetween(from, to)) {
+            trainings.forEach(action);
+        }
+    }
+
+    /**
+     * Retrieves snapshots of all trainings of a user.
+     *
+     * @param userId ID of the user whose trainings are fetched
+     * @return List of {@link TrainingSnapshot}s of the user's trainings
+     */
+    @Override
+    public List<TrainingSnapshot> findTrainingSnapshotsByUserId(Long userId) {
+        return trainingRepository.findSnapshotsByUserId(userId);
     }
 
     /**
@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Length of the periods trainings are summarised over.
+ */
+enum TrainingSummaryPeriod {
+
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * Returns the first day of the period containing the given day. Weeks start on Monday.
+     *
+     * @param day the day to find the period of.
+     * @return the first day of the period.
+     */
+    LocalDate startOf(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+}
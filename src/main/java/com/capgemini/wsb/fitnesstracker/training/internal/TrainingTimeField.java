@@ -0,0 +1,10 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+/**
+ * Time of a training that time range queries filter and order by.
+ */
+enum TrainingTimeField {
+
+    START,
+    END
+}
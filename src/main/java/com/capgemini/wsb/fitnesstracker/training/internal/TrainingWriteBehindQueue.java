@@ -0,0 +1,203 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory queue of created trainings, written to the database in the background.
+ * <p>
+ * A single writer thread drains the queue in batches: a batch is written in one transaction as soon as it
+ * reaches {@link TrainingProperties#getWriteBehindBatchSize()} trainings or its oldest training has waited for
+ * {@link TrainingProperties#getWriteBehindFlushInterval()} (group commit). When the queue is full, new trainings
+ * are rejected instead of blocking the caller. On shutdown the queue stops accepting trainings once the web
+ * server has stopped, and the remaining trainings are written before the data source is closed.
+ * </p>
+ * <p>
+ * The trainings were already acknowledged to their clients, so a batch failing for any reason other than invalid
+ * rows, e.g. a lost database connection, is retried up to {@link TrainingProperties#getWriteBehindMaxAttempts()}
+ * times with exponential backoff. A batch is written in a single transaction rolled back as a whole on failure, so
+ * it can simply be written again; meanwhile the queue keeps accepting trainings until it is full.
+ * </p>
+ * <p>
+ * Publishes the {@code trainings.write_behind.queue.depth} gauge, the {@code trainings.write_behind.flush}
+ * timer, and the {@code trainings.write_behind.rejected} and {@code trainings.write_behind.dropped} counters.
+ * </p>
+ */
+@Component
+@Slf4j
+class TrainingWriteBehindQueue implements SmartLifecycle {
+
+    /**
+     * Stops after the web server (phase {@code DEFAULT_PHASE - 1024}) so no requests are queued while draining.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 2048;
+
+    private final TrainingImportService trainingImportService;
+    private final TrainingProperties trainingProperties;
+    private final BlockingQueue<QueuedTraining> queue;
+    private final Timer flushTimer;
+    private final Counter rejectedCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    TrainingWriteBehindQueue(TrainingImportService trainingImportService, TrainingProperties trainingProperties, MeterRegistry meterRegistry) {
+        this.trainingImportService = trainingImportService;
+        this.trainingProperties = trainingProperties;
+        this.queue = new ArrayBlockingQueue<>(trainingProperties.getWriteBehindQueueCapacity());
+        Gauge.builder("trainings.write_behind.queue.depth", queue, BlockingQueue::size)
+                .description("Number of trainings waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("trainings.write_behind.flush")
+                .description("Time taken to write a batch of queued trainings")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("trainings.write_behind.rejected")
+                .description("Number of trainings rejected because the queue was full")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("trainings.write_behind.dropped")
+                .description("Number of queued trainings which could not be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a validated training to be written in the background.
+     *
+     * @param training the training to write; must have passed {@link TrainingImportService#validate(TrainingCreationDto)}.
+     * @return the ID identifying the training in the logs, or empty if the queue is full or not running.
+     */
+    Optional<UUID> offer(TrainingCreationDto training) {
+        UUID ingestionId = UUID.randomUUID();
+        if (running && queue.offer(new QueuedTraining(ingestionId, training))) {
+            return Optional.of(ingestionId);
+        }
+        rejectedCounter.increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        writer = new Thread(this::drain, "training-write-behind");
+        writer.start();
+        log.info("Started training write-behind queue with capacity {}", trainingProperties.getWriteBehindQueueCapacity());
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(trainingProperties.getWriteBehindDrainTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Training write-behind queue not drained on shutdown, {} trainings lost", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return trainingProperties.isWriteBehindEnabled();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Writes queued trainings in batches until the queue is stopped and empty.
+     */
+    private void drain() {
+        int batchSize = trainingProperties.getWriteBehindBatchSize();
+        long flushIntervalNanos = trainingProperties.getWriteBehindFlushInterval().toNanos();
+        List<QueuedTraining> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                QueuedTraining first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    QueuedTraining next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            int lost = batch.size() + queue.size();
+            droppedCounter.increment(lost);
+            log.warn("Training write-behind writer interrupted, {} trainings lost", lost);
+        }
+    }
+
+    /**
+     * Writes a batch, retrying it with exponential backoff when it fails as a whole.
+     */
+    private void flush(List<QueuedTraining> batch) throws InterruptedException {
+        List<TrainingCreationDto> trainings = batch.stream().map(QueuedTraining::training).toList();
+        long backoffMillis = trainingProperties.getWriteBehindRetryBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                List<TrainingImportResultDto> results = trainingImportService.importValidated(trainings);
+                for (TrainingImportResultDto result : results) {
+                    if (result.status() != TrainingImportStatus.CREATED) {
+                        droppedCounter.increment();
+                        log.warn("Dropped queued training {}: {}", batch.get(result.index()).ingestionId(), result.message());
+                    }
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= trainingProperties.getWriteBehindMaxAttempts()) {
+                    droppedCounter.increment(batch.size());
+                    log.error("Dropped {} queued trainings {} after {} failed attempts to write them", batch.size(),
+                            batch.stream().map(QueuedTraining::ingestionId).toList(), attempt, e);
+                    return;
+                }
+                log.warn("Failed to write {} queued trainings, retrying in {} ms", batch.size(), backoffMillis, e);
+            } finally {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            Thread.sleep(backoffMillis);
+            backoffMillis *= 2;
+        }
+    }
+
+    private record QueuedTraining(UUID ingestionId, TrainingCreationDto training) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Serializes instants in the {@code yyyy-MM-dd'T'HH:mm:ss.SSS+00:00} format of the training DTOs.
+ * <p>
+ * The date is computed arithmetically from the epoch second and the digits are written into a single character
+ * array handed to the generator, avoiding the formatter, string builder and string a {@code @JsonFormat} pattern
+ * allocates for every value. Years outside {@code 1..9999} fall back to a {@link DateTimeFormatter}.
+ * </p>
+ */
+class UtcInstantSerializer extends StdSerializer<Instant> {
+
+    private static final DateTimeFormatter FALLBACK_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS+00:00")
+            .withZone(ZoneOffset.UTC);
+    private static final int SECONDS_PER_DAY = 86_400;
+    /**
+     * Days from 0000-03-01, the start of the proleptic Gregorian era used by the date computation, to 1970-01-01.
+     */
+    private static final long DAYS_0000_TO_1970 = 719_468;
+    private static final int DAYS_PER_ERA = 146_097;
+    private static final int LENGTH = 29;
+
+    UtcInstantSerializer() {
+        super(Instant.class);
+    }
+
+    @Override
+    public void serialize(Instant value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        long epochSecond = value.getEpochSecond();
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // civil date from a day count, years starting on the 1st of March so the leap day is the last day of a year
+        long days = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(days, DAYS_PER_ERA);
+        long dayOfEra = days - era * DAYS_PER_ERA;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 1 || year > 9999) {
+            generator.writeString(FALLBACK_FORMAT.format(value));
+            return;
+        }
+
+        char[] text = new char[LENGTH];
+        digits(text, 0, (int) year, 4);
+        text[4] = '-';
+        digits(text, 5, month, 2);
+        text[7] = '-';
+        digits(text, 8, day, 2);
+        text[10] = 'T';
+        digits(text, 11, secondOfDay / 3600, 2);
+        text[13] = ':';
+        digits(text, 14, secondOfDay / 60 % 60, 2);
+        text[16] = ':';
+        digits(text, 17, secondOfDay % 60, 2);
+        text[19] = '.';
+        digits(text, 20, value.getNano() / 1_000_000, 3);
+        "+00:00".getChars(0, 6, text, 23);
+        generator.writeString(text, 0, LENGTH);
+    }
+
+    private static void digits(char[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
@@ -12,22 +13,33 @@ import lombok.ToString;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Represents a user in the fitness tracker application.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users",
+        indexes = {
+                @Index(name = User.EMAIL_NORMALIZED_INDEX, columnList = "email_normalized", unique = true),
+                @Index(name = "idx_users_birthdate", columnList = "birthdate")
+        })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString
 public class User {
 
+    /**
+     * Name of the unique index on the normalized email, reported when an email is taken already.
+     */
+    public static final String EMAIL_NORMALIZED_INDEX = "idx_users_email_normalized";
+
     /**
      * Unique identifier for the user.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Nullable
     private Long id;
 
@@ -55,6 +67,21 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
 
+    /**
+     * Trimmed, lower-case form of the email used for indexed, case-insensitive lookups.
+     * Kept in sync with {@link #email} by {@link #setEmail(String)}.
+     */
+    @Column(name = "email_normalized", nullable = false)
+    @JsonIgnore
+    private String emailNormalized;
+
+    /**
+     * Version of the user used for optimistic locking. Incremented by every update of the user.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     /**
      * List of trainings associated with the user.
      * Mapped by the 'user' field in the Training entity.
@@ -76,9 +103,20 @@ public class User {
         this.lastName = lastName;
         this.birthdate = birthdate;
         this.email = email;
+        this.emailNormalized = normalizeEmail(email);
         this.trainings = new ArrayList<>();
     }
 
+    /**
+     * Normalizes an email address to the form stored in the indexed {@code email_normalized} column.
+     *
+     * @param email the email to normalize.
+     * @return the trimmed, lower-case email.
+     */
+    public static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Adds a training to the user's list of trainings and sets the user in the training.
      *
@@ -188,6 +226,35 @@ public class User {
      */
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalized = normalizeEmail(email);
+    }
+
+    /**
+     * Returns the normalized (trimmed, lower-case) email of the user.
+     *
+     * @return the normalized email of the user.
+     */
+    public String getEmailNormalized() {
+        return emailNormalized;
+    }
+
+    /**
+     * Returns the version of the user, incremented by every update.
+     *
+     * @return the version of the user.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the user. Only meant for detached copies of the user,
+     * the version of a managed user is maintained by the persistence provider.
+     *
+     * @param version the version of the user.
+     */
+    public void setVersion(long version) {
+        this.version = version;
     }
 
     /**
@@ -0,0 +1,9 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+/**
+ * Event published after a new {@link User} has been stored.
+ *
+ * @param user snapshot of the created user.
+ */
+public record UserCreatedEvent(UserSnapshot user) {
+}
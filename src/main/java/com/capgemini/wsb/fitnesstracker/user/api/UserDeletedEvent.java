@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+import java.util.List;
+
+/**
+ * Event published after a {@link User} has been removed, together with all their trainings.
+ * <p>
+ * The trainings are deleted in bulk without publishing training events, so their IDs are carried here for
+ * modules keeping data of trainings outside of the database.
+ * </p>
+ *
+ * @param userId      the ID of the removed user.
+ * @param trainingIds the IDs of the trainings removed with the user.
+ */
+public record UserDeletedEvent(Long userId, List<Long> trainingIds) {
+
+    public UserDeletedEvent {
+        trainingIds = List.copyOf(trainingIds);
+    }
+
+    /**
+     * Creates the event of a removed user who had no trainings.
+     *
+     * @param userId the ID of the removed user.
+     */
+    public UserDeletedEvent(Long userId) {
+        this(userId, List.of());
+    }
+}
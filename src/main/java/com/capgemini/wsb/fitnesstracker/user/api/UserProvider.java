@@ -1,13 +1,16 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserProvider {
 
     /**
      * Retrieves a user based on their ID.
      * If the user with given ID is not found, then {@link Optional#empty()} will be returned.
+     * The returned user may come from a cache and is detached, its trainings are not loaded.
      *
      * @param userId id of the user to be searched
      * @return An {@link Optional} containing the located user, or {@link Optional#empty()} if not found
@@ -15,14 +18,24 @@ public interface UserProvider {
     Optional<User> getUser(Long userId);
 
     /**
-     * Retrieves a user based on their email.
+     * Retrieves a user based on their email. The match is exact, but case-insensitive.
      * If the user with given email is not found, then {@link Optional#empty()} will be returned.
+     * The returned user may come from a cache and is detached, its trainings are not loaded.
      *
      * @param email The email of the user to be searched
      * @return An {@link Optional} containing the located user, or {@link Optional#empty()} if not found
      */
     Optional<User> getUserByEmail(String email);
 
+    /**
+     * Searches users whose email contains the given fragment, ignoring case.
+     *
+     * @param fragment the fragment of the email to search for
+     * @param limit    the maximum number of users to return
+     * @return a list of matching users ordered by ID
+     */
+    List<User> searchUsersByEmail(String fragment, int limit);
+
     /**
      * Retrieves all users.
      *
@@ -30,4 +43,29 @@ public interface UserProvider {
      */
     List<User> findAllUsers();
 
+    /**
+     * Retrieves a single page of users using keyset pagination on the user ID.
+     *
+     * @param afterId the ID of the last user of the previous page, or {@code 0} for the first page
+     * @param limit   the maximum number of users to return
+     * @return users with IDs greater than {@code afterId}, ordered by ID
+     */
+    List<User> findUsersAfter(Long afterId, int limit);
+
+    /**
+     * Retrieves the users with the given IDs with a single query. IDs of missing users are skipped.
+     *
+     * @param userIds the IDs of the users to retrieve
+     * @return the existing users among the given IDs, in no particular order
+     */
+    List<User> findUsersByIds(Collection<Long> userIds);
+
+    /**
+     * Passes snapshots of all users, ordered by ID, to the given action as they are read from the database.
+     * Users are not collected in memory, which makes this method suitable for streaming large result sets.
+     *
+     * @param action the action to be performed on every user
+     */
+    void forEachUser(Consumer<UserSnapshot> action);
+
 }
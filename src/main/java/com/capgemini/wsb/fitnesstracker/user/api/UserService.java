@@ -1,5 +1,8 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
+import jakarta.annotation.Nullable;
+
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface (API) for modifying operations on {@link User} entities through the API.
@@ -19,12 +22,20 @@ public interface UserService {
     User createUser(final User user);
 
     /**
-     * Deletes a user by their ID.
+     * Deletes a user by their ID, together with all their trainings, in a single transaction.
      *
      * @param id the ID of the user to be deleted.
      */
     void deleteUser(Long id);
 
+    /**
+     * Deletes a user by their ID in the background. The trainings of the user are deleted in bounded chunks,
+     * each in its own transaction, and the user itself is deleted last.
+     *
+     * @param id the ID of the user to be deleted.
+     */
+    void deleteUserInBackground(Long id);
+
     /**
      * Retrieves users older than the specified age.
      *
@@ -40,4 +51,18 @@ public interface UserService {
      * @return the updated User entity.
      */
     User updateUser(User user);
+
+    /**
+     * Applies changes to an existing user within a single transaction. The user is loaded once and the changes
+     * are written by dirty checking, with the user's version guarding against lost updates.
+     *
+     * @param id              the ID of the user to be updated.
+     * @param expectedVersion the version the changes are based on, or {@code null} to apply them to any version.
+     * @param changes         the changes to apply to the user.
+     * @return the updated User entity, with its new version.
+     * @throws UserNotFoundException if the user with the specified ID does not exist.
+     * @throws com.capgemini.wsb.fitnesstracker.exception.api.PreconditionFailedException
+     *                               if the user's version differs from the expected one.
+     */
+    User updateUser(Long id, @Nullable Long expectedVersion, Consumer<User> changes);
 }
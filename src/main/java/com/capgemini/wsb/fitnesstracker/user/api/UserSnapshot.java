@@ -0,0 +1,28 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable, detached view of a {@link User}.
+ * <p>
+ * Unlike the managed entity, a snapshot can be safely shared between threads and transactions,
+ * which makes it suitable for in-memory indexes, caches and domain events.
+ * </p>
+ */
+public record UserSnapshot(Long id, String firstName, String lastName, LocalDate birthdate, String email, long version) {
+
+    /**
+     * Creates a snapshot of the current state of the given user.
+     *
+     * @param user the user to copy.
+     * @return the snapshot of the user.
+     */
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getBirthdate(),
+                user.getEmail(),
+                user.getVersion());
+    }
+}
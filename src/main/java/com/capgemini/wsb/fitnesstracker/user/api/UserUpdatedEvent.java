@@ -0,0 +1,9 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+/**
+ * Event published after an existing {@link User} has been modified.
+ *
+ * @param user snapshot of the user after the modification.
+ */
+public record UserUpdatedEvent(UserSnapshot user) {
+}
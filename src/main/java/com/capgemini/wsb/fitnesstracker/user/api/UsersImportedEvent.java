@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+import java.util.List;
+
+/**
+ * Event published after a chunk of {@link User}s has been stored by a bulk import.
+ * Published instead of a {@link UserCreatedEvent} per user, so listeners can apply the whole chunk at once.
+ *
+ * @param users snapshots of the created users.
+ */
+public record UsersImportedEvent(List<UserSnapshot> users) {
+}
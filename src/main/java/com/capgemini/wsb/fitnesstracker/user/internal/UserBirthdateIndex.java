@@ -0,0 +1,200 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UsersImportedEvent;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of user birthdates, kept as a Fenwick tree of user counts per birth day.
+ * <p>
+ * Age thresholds translate to birthdate thresholds, so counting users older than an age is a prefix sum over the
+ * days up to the threshold. Adding, moving and removing a user as well as every count take logarithmic time in the
+ * number of days covered, so the index stays cheap to maintain however many users it holds. The covered days grow
+ * when a birthdate falls outside them, at least doubling so that growing stays rare. All operations hold the monitor
+ * for a logarithmic number of steps, and counts of several dates are taken at once so a histogram stays consistent.
+ * </p>
+ * <p>
+ * Birthdates are clamped to the days between {@link #MIN_DAY} and {@link #MAX_DAY}, which bounds the memory of the tree
+ * to a few hundred kilobytes even for bogus birthdates. Counts for ages up to two centuries are unaffected.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class UserBirthdateIndex {
+
+    /**
+     * Days added around the birthdates when the covered days are set up or grown.
+     */
+    private static final int MARGIN_DAYS = 10 * 366;
+    private static final int MIN_DAY = (int) LocalDate.of(1800, 1, 1).toEpochDay();
+    private static final int MAX_DAY = (int) LocalDate.of(2199, 12, 31).toEpochDay();
+
+    private final UserRepository userRepository;
+
+    /**
+     * Birthdates of the indexed users, guarded by {@code this}.
+     */
+    private final Map<Long, Integer> epochDaysById = new HashMap<>();
+
+    /**
+     * Fenwick tree of the number of users per day, 1-based, covering {@code tree.length - 1} days from {@link #firstDay}.
+     * Guarded by {@code this}.
+     */
+    private int[] tree = new int[1];
+    private int firstDay;
+
+    /**
+     * Loads birthdates of all users from the database into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        epochDaysById.clear();
+        try (Stream<UserSnapshot> users = userRepository.streamAllSnapshots()) {
+            users.forEach(user -> epochDaysById.put(user.id(), epochDayOf(user.birthdate())));
+        }
+        int min = epochDaysById.values().stream().min(Integer::compare).orElse(0);
+        int max = epochDaysById.values().stream().max(Integer::compare).orElse(0);
+        cover(min, max);
+        log.info("Indexed birthdates of {} users", epochDaysById.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserCreated(UserCreatedEvent event) {
+        put(event.user().id(), event.user().birthdate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUsersImported(UsersImportedEvent event) {
+        event.users().forEach(user -> put(user.id(), user.birthdate()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserUpdated(UserUpdatedEvent event) {
+        put(event.user().id(), event.user().birthdate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserDeleted(UserDeletedEvent event) {
+        Integer epochDay = epochDaysById.remove(event.userId());
+        if (epochDay != null) {
+            add(epochDay, -1);
+        }
+    }
+
+    /**
+     * Counts users born on or before the given date.
+     *
+     * @param date the date to compare birthdates against.
+     * @return the number of users born on or before the date.
+     */
+    synchronized int countBornOnOrBefore(LocalDate date) {
+        return countUpTo(date.toEpochDay());
+    }
+
+    /**
+     * Counts users born on or before each of the given dates, all from the same state of the index.
+     *
+     * @param dates the dates to compare birthdates against.
+     * @return the number of users born on or before the date, for every date.
+     */
+    synchronized int[] countsBornOnOrBefore(LocalDate[] dates) {
+        int[] counts = new int[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            counts[i] = countUpTo(dates[i].toEpochDay());
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the birthdate of the oldest indexed user, found by descending the tree to the first day with users.
+     *
+     * @return the earliest birthdate, or {@code null} if no users are indexed.
+     */
+    @Nullable
+    synchronized LocalDate earliestBirthdate() {
+        if (epochDaysById.isEmpty()) {
+            return null;
+        }
+        int position = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            if (position + step < tree.length && tree[position + step] == 0) {
+                position += step;
+            }
+        }
+        return LocalDate.ofEpochDay(firstDay + position);
+    }
+
+    private void put(Long id, LocalDate birthdate) {
+        int epochDay = epochDayOf(birthdate);
+        Integer previous = epochDaysById.put(id, epochDay);
+        if (previous != null) {
+            add(previous, -1);
+        }
+        int lastDay = firstDay + tree.length - 2;
+        if (epochDay < firstDay || epochDay > lastDay) {
+            int span = tree.length - 1;
+            cover(Math.min(epochDay, firstDay - span), Math.max(epochDay, lastDay + span));
+        } else {
+            add(epochDay, 1);
+        }
+    }
+
+    /**
+     * Rebuilds the tree from the indexed birthdates in linear time, covering at least the given days.
+     */
+    private void cover(int fromDay, int toDay) {
+        firstDay = Math.max(fromDay - MARGIN_DAYS, MIN_DAY);
+        int days = Math.min(toDay + MARGIN_DAYS, MAX_DAY) - firstDay + 1;
+        tree = new int[days + 1];
+        for (int epochDay : epochDaysById.values()) {
+            tree[epochDay - firstDay + 1]++;
+        }
+        for (int i = 1; i <= days; i++) {
+            int parent = i + (i & -i);
+            if (parent <= days) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private static int epochDayOf(LocalDate birthdate) {
+        return Math.clamp(birthdate.toEpochDay(), MIN_DAY, MAX_DAY);
+    }
+
+    private void add(int epochDay, int delta) {
+        for (int i = epochDay - firstDay + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the number of users born on or before the given day.
+     */
+    private int countUpTo(long epochDay) {
+        if (epochDay < firstDay) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = (int) Math.min(epochDay - firstDay + 1, tree.length - 1); i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+}
@@ -0,0 +1,97 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserUpdatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link UserSnapshot}s, keyed by user ID and by normalized email.
+ * <p>
+ * Only immutable snapshots are cached, never managed entities, so cached values can be shared between
+ * threads and transactions. Entries are evicted by size and time to live, and invalidated after every
+ * committed modification of the user. Hit, miss and eviction counters are published as the
+ * {@code cache.*} meters with {@code cache=users.byId} and {@code cache=users.byEmail} tags.
+ * </p>
+ */
+@Component
+class UserCache {
+
+    private final Cache<Long, UserSnapshot> usersById;
+    private final Cache<String, Long> idsByEmail;
+
+    UserCache(UserProperties properties, MeterRegistry meterRegistry) {
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getCacheTimeToLive())
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getCacheTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.byEmail");
+    }
+
+    /**
+     * Returns the cached user with the given ID, loading and caching it on a miss.
+     * Users that do not exist are not cached.
+     *
+     * @param id     the ID of the user.
+     * @param loader loads the user from the database on a miss.
+     * @return an {@link Optional} containing the user or {@link Optional#empty()} if it does not exist.
+     */
+    Optional<UserSnapshot> getById(Long id, Function<Long, Optional<UserSnapshot>> loader) {
+        return Optional.ofNullable(usersById.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Returns the cached user with the given email, loading and caching it on a miss.
+     * The email is resolved to a user ID first and the user is then read through {@link #getById}, so loading it
+     * is atomic with its invalidation and a user modified or deleted meanwhile is never cached. The email index
+     * only maps to user IDs, so a mapping that became stale after the user changed their email or was deleted is
+     * detected against the snapshot, dropped and resolved once more.
+     *
+     * @param email      the email of the user.
+     * @param idLoader   loads the ID of the user by normalized email from the database on a miss.
+     * @param userLoader loads the user by ID from the database on a miss.
+     * @return an {@link Optional} containing the user or {@link Optional#empty()} if it does not exist.
+     */
+    Optional<UserSnapshot> getByEmail(String email, Function<String, Optional<Long>> idLoader,
+                                      Function<Long, Optional<UserSnapshot>> userLoader) {
+        String normalized = User.normalizeEmail(email);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Long id = idsByEmail.get(normalized, key -> idLoader.apply(key).orElse(null));
+            if (id == null) {
+                return Optional.empty();
+            }
+            Optional<UserSnapshot> user = getById(id, userLoader);
+            if (user.isPresent() && User.normalizeEmail(user.get().email()).equals(normalized)) {
+                return user;
+            }
+            idsByEmail.invalidate(normalized);
+        }
+        return Optional.empty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        usersById.invalidate(event.user().id());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        usersById.invalidate(event.userId());
+    }
+}
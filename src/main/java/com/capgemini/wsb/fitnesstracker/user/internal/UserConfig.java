@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+@Configuration
+@EnableConfigurationProperties(UserProperties.class)
+@EnableAsync
+class UserConfig {
+
+}
@@ -1,15 +1,33 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.PreconditionFailedException;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.capgemini.wsb.fitnesstracker.user.api.UserFacade;
 import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.Nullable;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for managing users.
@@ -22,23 +40,38 @@ import java.util.List;
 @Slf4j
 class UserController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     // Tworzę jeden interfejs, który rozszerza UserService i UserProvider, aby móc odnieść się do UserServiceImpl używając jednego interfejsu (zachowując zasadę ISP).
     private final UserFacade userService;
     private final UserMapper userMapper;
+    private final UserQueryService userQueryService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+    private final UserProperties userProperties;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Retrieves all users.
+     * Retrieves a single page of users. Pages are keyed on the user ID, so every page costs
+     * a single index range scan regardless of its position. When the page is full, the cursor
+     * of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
      *
-     * @return a list of all users.
+     * @param after the ID of the last user of the previous page.
+     * @param size the requested page size.
+     * @return a page of users.
      */
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(value = "after", defaultValue = "0") Long after,
+                                                     @RequestParam(value = "size", required = false) Integer size) {
         try {
-            List<UserDto> users = userService.findAllUsers()
+            int pageSize = userProperties.resolvePageSize(size);
+            List<UserDto> users = userService.findUsersAfter(after, pageSize)
                     .stream()
                     .map(userMapper::toDto)
                     .toList();
-            return ResponseEntity.ok(users);
+            return page(users, pageSize, UserDto::Id);
         } catch (Exception e) {
             log.error("Error retrieving all users", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -46,24 +79,69 @@ class UserController {
     }
 
     /**
-     * Retrieves all users with only their names and IDs.
+     * Streams all users as newline-delimited JSON, writing rows as they are read from the database cursor.
+     *
+     * @param response the response to write the users to.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllUsers(HttpServletResponse response) {
+        stream(response, UserDto.class, userMapper::toDto);
+    }
+
+    /**
+     * Exports all users, together with the number of their trainings, as newline-delimited JSON.
+     * The export is streamed straight from the database, so it can be used for full dumps of any size.
+     *
+     * @param gzip     whether to compress the export with gzip.
+     * @param response the response to write the export to.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUsers(@RequestParam(defaultValue = "false") boolean gzip, HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        try (OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE) : response.getOutputStream()) {
+            userExportService.export(out);
+        } catch (Exception e) {
+            log.error("Error exporting users", e);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        }
+    }
+
+    /**
+     * Retrieves a single page of users with only their names and IDs.
      *
-     * @return a list of users with names and IDs.
+     * @param after the ID of the last user of the previous page.
+     * @param size the requested page size.
+     * @return a page of users with names and IDs.
      */
     @GetMapping("/nameAndId")
-    public ResponseEntity<List<UserDtoNameAndId>> getAllUsersNameAndId() {
+    public ResponseEntity<List<UserDtoNameAndId>> getAllUsersNameAndId(@RequestParam(value = "after", defaultValue = "0") Long after,
+                                                                       @RequestParam(value = "size", required = false) Integer size) {
         try {
-            List<UserDtoNameAndId> users = userService.findAllUsers()
-                    .stream()
-                    .map(userMapper::toNameAndIdDto)
-                    .toList();
-            return ResponseEntity.ok(users);
+            int pageSize = userProperties.resolvePageSize(size);
+            List<UserDtoNameAndId> users = userQueryService.findNameAndIdAfter(after, pageSize);
+            return page(users, pageSize, UserDtoNameAndId::Id);
         } catch (Exception e) {
             log.error("Error retrieving all users name and ID", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Streams all users with only their names and IDs as newline-delimited JSON.
+     *
+     * @param response the response to write the users to.
+     */
+    @GetMapping(value = "/nameAndId", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllUsersNameAndId(HttpServletResponse response) {
+        stream(response, UserDtoNameAndId.class, userMapper::toNameAndIdDto);
+    }
+
     /**
      * Retrieves a user by their ID.
      *
@@ -73,10 +151,11 @@ class UserController {
     @GetMapping("/ids/{id}")
     public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
         try {
-            UserDto user = userService.getUser(id)
-                    .map(userMapper::toDto)
+            User user = userService.getUser(id)
                     .orElseThrow(() -> new UserNotFoundException(id));
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok()
+                    .eTag(String.valueOf(user.getVersion()))
+                    .body(userMapper.toDto(user));
         } catch (UserNotFoundException e) {
             log.error("User not found with id: {}", id, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
@@ -87,14 +166,19 @@ class UserController {
     }
 
     /**
-     * Deletes a user by their ID.
+     * Deletes a user by their ID, together with all their trainings.
      *
-     * @param id the ID of the user to delete.
-     * @return a response entity with no content.
+     * @param id    the ID of the user to delete.
+     * @param async whether to delete the user in the background instead of within the request.
+     * @return a response entity with no content, or accepted if the user is deleted in the background.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id, @RequestParam(defaultValue = "false") boolean async) {
         try {
+            if (async) {
+                userService.deleteUserInBackground(id);
+                return ResponseEntity.accepted().build();
+            }
             userService.deleteUser(id);
             return ResponseEntity.noContent().build();
         } catch (UserNotFoundException e) {
@@ -115,8 +199,7 @@ class UserController {
     @GetMapping("/emails/{email}")
     public ResponseEntity<UserDtoIdAndEmail> getUserByEmail(@PathVariable String email) {
         try {
-            UserDtoIdAndEmail user = userService.getUserByEmail(email)
-                    .map(userMapper::toIdAndEmailDto)
+            UserDtoIdAndEmail user = userQueryService.findIdAndEmailByEmail(email)
                     .orElseThrow(() -> new UserNotFoundException(email));
             return ResponseEntity.ok(user);
         } catch (UserNotFoundException e) {
@@ -128,6 +211,68 @@ class UserController {
         }
     }
 
+    /**
+     * Searches users whose email contains the given fragment, ignoring case.
+     *
+     * @param fragment the fragment of the email to search for.
+     * @param limit the maximum number of users to return.
+     * @return a list of matching users with their IDs and emails.
+     */
+    @GetMapping("/emails")
+    public ResponseEntity<List<UserDtoIdAndEmail>> searchUsersByEmail(@RequestParam("fragment") String fragment,
+                                                                      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            List<UserDtoIdAndEmail> users = userQueryService.searchIdAndEmail(fragment, limit);
+            return ResponseEntity.ok(users);
+        } catch (Exception e) {
+            log.error("Error searching users by email", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Searches users by their first name, last name and email. Every word of the query must match the beginning
+     * of a word of the user's names or email, ignoring case and diacritics.
+     *
+     * @param query the words to search for.
+     * @param limit the maximum number of users to return.
+     * @return a list of matching users, best matches first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<UserDto>> searchUsers(@RequestParam("q") String query,
+                                                     @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(userQueryService.search(query, limit));
+        } catch (Exception e) {
+            log.error("Error searching users", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Imports many users at once.
+     * <p>
+     * The body is either a JSON array or newline-delimited JSON with one user per line. Users are read and
+     * inserted in chunks, so the whole body never has to be held in memory. Duplicated or incomplete users
+     * are skipped and reported in the result instead of failing the import.
+     * </p>
+     *
+     * @param request the request with the users to import in its body.
+     * @return the outcome of the import of every user, in the order of the body.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<UserImportResultDto>> importUsers(HttpServletRequest request) {
+        try (MappingIterator<UserDto> users = objectMapper.readerFor(UserDto.class).readValues(request.getInputStream())) {
+            return ResponseEntity.ok(userImportService.importUsers(users));
+        } catch (IOException e) {
+            log.error("Invalid users to import", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error importing users", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Adds a new user.
      *
@@ -158,10 +303,7 @@ class UserController {
     @GetMapping("/{age}")
     public ResponseEntity<List<UserDtoNameAndId>> getUsersOlderThan(@PathVariable Long age) {
         try {
-            List<UserDtoNameAndId> users = userService.getUserOlderThan(age)
-                    .stream()
-                    .map(userMapper::toNameAndIdDto)
-                    .toList();
+            List<UserDtoNameAndId> users = userQueryService.findNameAndIdOlderThan(age);
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             log.error("Error retrieving users older than age", e);
@@ -169,26 +311,159 @@ class UserController {
         }
     }
 
+    /**
+     * Counts users older than the specified age.
+     *
+     * @param age the age to compare.
+     * @return the number of users older than the specified age.
+     */
+    @GetMapping("/ages/count")
+    public ResponseEntity<Integer> countUsersOlderThan(@RequestParam("olderThan") Long age) {
+        try {
+            return ResponseEntity.ok(userQueryService.countOlderThan(age));
+        } catch (Exception e) {
+            log.error("Error counting users older than age", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves the number of users per age bracket.
+     *
+     * @param bracketSize the width of a bracket in years.
+     * @return the number of users in every bracket, youngest first.
+     */
+    @GetMapping("/ages/histogram")
+    public ResponseEntity<List<AgeBracketDto>> getAgeHistogram(@RequestParam(value = "bracketSize", defaultValue = "10") int bracketSize) {
+        try {
+            return ResponseEntity.ok(userQueryService.getAgeHistogram(bracketSize));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid age bracket size", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error retrieving age histogram", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Updates an existing user.
+     * <p>
+     * The update is applied in a single transaction. If an {@code If-Match} header with the user's ETag is given,
+     * the update is only applied if the user was not modified since, otherwise 412 Precondition Failed is returned.
+     * </p>
      *
-     * @param id the ID of the user to update.
-     * @param userDto the user data to update.
-     * @return the updated user.
+     * @param id      the ID of the user to update.
+     * @param ifMatch the ETag of the user the update is based on, if any.
+     * @param userDto the updated user data.
+     * @return the updated user, with its new ETag.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody UserUpdateDto userDto) {
+    public ResponseEntity<User> updateUser(@PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @RequestBody UserUpdateDto userDto) {
         try {
-            User userToUpdate = userService.getUser(id)
-                    .orElseThrow(() -> new UserNotFoundException(id));
-            User updatedUser = userService.updateUser(userMapper.updateUserFromDto(userDto, userToUpdate));
-            return ResponseEntity.ok(updatedUser);
+            User updatedUser = userService.updateUser(id, parseVersion(ifMatch), user -> userMapper.updateUserFromDto(userDto, user));
+            return ResponseEntity.ok()
+                    .eTag(String.valueOf(updatedUser.getVersion()))
+                    .body(updatedUser);
         } catch (UserNotFoundException e) {
             log.error("User not found with id: {}", id, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        } catch (PreconditionFailedException | OptimisticLockingFailureException e) {
+            log.warn("User with id: {} was modified concurrently", id, e);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (Exception e) {
             log.error("Error updating user", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Partially updates an existing user. Only the attributes present in the body are changed.
+     * <p>
+     * Clients that know the user's ETag can send it in the {@code If-Match} header without reading the user first;
+     * if the user was modified in the meantime, 412 Precondition Failed is returned and nothing is changed.
+     * </p>
+     *
+     * @param id      the ID of the user to update.
+     * @param ifMatch the ETag of the user the update is based on, if any.
+     * @param userDto the attributes to change.
+     * @return the updated user, with its new ETag.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<UserDto> patchUser(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestBody UserUpdateDto userDto) {
+        try {
+            User updatedUser = userService.updateUser(id, parseVersion(ifMatch), user -> userMapper.updateUserFromDto(userDto, user));
+            return ResponseEntity.ok()
+                    .eTag(String.valueOf(updatedUser.getVersion()))
+                    .body(userMapper.toDto(updatedUser));
+        } catch (UserNotFoundException e) {
+            log.error("User not found with id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (PreconditionFailedException | OptimisticLockingFailureException e) {
+            log.warn("User with id: {} was modified concurrently", id, e);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (Exception e) {
+            log.error("Error patching user", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Extracts the user version from an {@code If-Match} header.
+     *
+     * @param ifMatch the value of the header, if any.
+     * @return the version, or {@code null} if any version matches.
+     * @throws PreconditionFailedException if the header does not contain a user version.
+     */
+    @Nullable
+    private static Long parseVersion(@Nullable String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Unknown ETag " + ifMatch);
+        }
+    }
+
+    private static <T> ResponseEntity<List<T>> page(List<T> users, int pageSize, Function<T, Long> idExtractor) {
+        if (users.size() < pageSize) {
+            return ResponseEntity.ok(users);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(idExtractor.apply(users.get(users.size() - 1))))
+                .body(users);
+    }
+
+    private <T> void stream(HttpServletResponse response, Class<T> type, Function<UserSnapshot, T> mapper) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ObjectWriter writer = objectMapper.writerFor(type)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (SequenceWriter sequence = writer.writeValues(response.getOutputStream())) {
+            userService.forEachUser(user -> write(sequence, mapper.apply(user)));
+        } catch (Exception e) {
+            log.error("Error streaming users", e);
+            if (!response.isCommitted()) {
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        }
+    }
+
+    private static void write(SequenceWriter sequence, Object value) {
+        try {
+            sequence.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
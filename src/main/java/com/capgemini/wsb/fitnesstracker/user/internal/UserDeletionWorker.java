@@ -0,0 +1,106 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deletes users with a large number of trainings off the request thread.
+ * <p>
+ * Trainings are deleted in chunks of {@link UserProperties#getDeletionChunkSize()}, every chunk in its own short
+ * transaction, so locks on the trainings table are never held for long. The user is deleted last, together with the
+ * trainings added meanwhile, so a failed deletion can simply be repeated. IDs of all deleted trainings are collected
+ * for the {@link UserDeletedEvent}. The deletion runs without a caller to
+ * report to, so failures are logged here.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class UserDeletionWorker {
+
+    /**
+     * Number of attempts to delete the user when trainings keep being added to it.
+     */
+    private static final int MAX_USER_DELETION_ATTEMPTS = 3;
+
+    private final UserRepository userRepository;
+    private final UserProperties userProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Deletes the trainings of a user in chunks, then the remaining trainings and the user in a final transaction.
+     * The final transaction is repeated when a training added concurrently still references the user.
+     *
+     * @param userId the ID of the user to delete.
+     */
+    @Async
+    public void deleteInChunks(Long userId) {
+        try {
+            List<Long> deletedTrainingIds = deleteTrainingChunks(userId);
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    deleteUser(userId, deletedTrainingIds);
+                    return;
+                } catch (DataIntegrityViolationException e) {
+                    if (attempt == MAX_USER_DELETION_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.warn("Trainings were added to User with ID: {} while deleting it, retrying", userId);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to delete User with ID: {} in the background, the deletion can be repeated", userId, e);
+        }
+    }
+
+    private List<Long> deleteTrainingChunks(Long userId) {
+        Limit chunk = Limit.of(userProperties.getDeletionChunkSize());
+        List<Long> deletedTrainingIds = new ArrayList<>();
+        List<Long> deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<Long> trainingIds = userRepository.findTrainingIdsByUserId(userId, chunk);
+                if (!trainingIds.isEmpty()) {
+                    userRepository.deleteTrainingsByIdIn(trainingIds);
+                }
+                return trainingIds;
+            });
+            deletedTrainingIds.addAll(deleted);
+        } while (!deleted.isEmpty());
+        return deletedTrainingIds;
+    }
+
+    private void deleteUser(Long userId, List<Long> deletedTrainingIds) {
+        FinalDeletion deletion = transactionTemplate.execute(status -> {
+            List<Long> remainingTrainingIds = userRepository.findAllTrainingIdsByUserId(userId);
+            int remainingTrainings = userRepository.deleteTrainingsByUserId(userId);
+            List<Long> trainingIds = new ArrayList<>(deletedTrainingIds);
+            trainingIds.addAll(remainingTrainingIds);
+            if (userRepository.deleteUserById(userId) == 0) {
+                return new FinalDeletion(false, remainingTrainings);
+            }
+            eventPublisher.publishEvent(new UserDeletedEvent(userId, trainingIds));
+            return new FinalDeletion(true, remainingTrainings);
+        });
+        long totalTrainings = deletedTrainingIds.size() + deletion.remainingTrainings();
+        if (deletion.userDeleted()) {
+            log.info("Deleted User with ID: {} and {} trainings in the background", userId, totalTrainings);
+        } else {
+            log.warn("User with ID: {} was already deleted, removed {} remaining trainings", userId, totalTrainings);
+        }
+    }
+
+    private record FinalDeletion(boolean userDeleted, int remainingTrainings) {
+    }
+}
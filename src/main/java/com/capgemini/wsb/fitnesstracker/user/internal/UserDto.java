@@ -37,3 +37,26 @@ record UserUpdateDto(@Nullable String firstName, @Nullable String lastName,
  */
 record UserDtoIdAndEmail(Long Id, String email) {
 }
+
+/**
+ * Data Transfer Object (DTO) for transferring the number of users within an age bracket.
+ * The bracket contains users aged from {@code fromAge} (inclusive) to {@code toAge} (exclusive).
+ */
+record AgeBracketDto(int fromAge, int toAge, long count) {
+}
+
+/**
+ * Data Transfer Object (DTO) describing the outcome of importing a single user in a bulk import.
+ * The {@code index} is the zero-based position of the user in the request.
+ */
+record UserImportResultDto(int index, @Nullable Long id, UserImportStatus status, @Nullable String message) {
+}
+
+/**
+ * Outcome of importing a single user in a bulk import.
+ */
+enum UserImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID
+}
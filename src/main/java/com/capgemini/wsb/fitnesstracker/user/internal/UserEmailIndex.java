@@ -0,0 +1,165 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UsersImportedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory n-gram (trigram) index over user emails used for substring searches.
+ * <p>
+ * The index is built from the database on application startup and kept up to date
+ * from the user domain events, so substring searches never have to scan the {@code users} table.
+ * Searches never sort all candidates: the emails are kept ordered by user ID, so fragments shorter than a
+ * trigram walk them in the order of the result and stop after {@code limit} matches, and the candidates of longer
+ * fragments are reduced to the {@code limit} smallest IDs with a bounded heap.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class UserEmailIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final UserRepository userRepository;
+
+    private final NavigableMap<Long, String> emailsById = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Long>> idsByGram = new ConcurrentHashMap<>();
+
+    /**
+     * Loads all user emails from the database into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<UserSnapshot> users = userRepository.streamAllSnapshots()) {
+            users.forEach(user -> put(user.id(), user.email()));
+        }
+        log.info("Indexed emails of {} users", emailsById.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        put(event.user().id(), event.user().email());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        event.users().forEach(user -> put(user.id(), user.email()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        put(event.user().id(), event.user().email());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        remove(event.userId());
+    }
+
+    /**
+     * Finds IDs of users whose email contains the given fragment, ignoring case.
+     *
+     * @param fragment the fragment to search for.
+     * @param limit    the maximum number of IDs to return.
+     * @return matching user IDs in ascending order.
+     */
+    List<Long> search(String fragment, int limit) {
+        String normalized = User.normalizeEmail(fragment);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Predicate<Long> matches = id -> {
+            String email = emailsById.get(id);
+            return email != null && email.contains(normalized);
+        };
+        if (normalized.length() < GRAM_LENGTH) {
+            return emailsById.keySet().stream().filter(matches).limit(limit).toList();
+        }
+        PriorityQueue<Long> smallest = new PriorityQueue<>(limit, Comparator.reverseOrder());
+        for (Long id : candidates(normalized)) {
+            if (smallest.size() < limit) {
+                if (matches.test(id)) {
+                    smallest.add(id);
+                }
+            } else if (id < smallest.peek() && matches.test(id)) {
+                smallest.poll();
+                smallest.add(id);
+            }
+        }
+        List<Long> ids = new ArrayList<>(smallest);
+        ids.sort(Comparator.naturalOrder());
+        return ids;
+    }
+
+    /**
+     * Picks the smallest posting list among the fragment's trigrams.
+     */
+    private Set<Long> candidates(String fragment) {
+        Set<Long> smallest = null;
+        for (String gram : grams(fragment)) {
+            Set<Long> ids = idsByGram.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        return smallest;
+    }
+
+    private synchronized void put(Long id, String email) {
+        remove(id);
+        String normalized = User.normalizeEmail(email);
+        emailsById.put(id, normalized);
+        for (String gram : grams(normalized)) {
+            idsByGram.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        String previous = emailsById.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            idsByGram.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,87 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Service exporting all users, together with the number of their trainings, as newline-delimited JSON.
+ * <p>
+ * Rows are read through a forward-only JDBC cursor and written one by one with Jackson's streaming generator,
+ * so neither entities nor DTOs are created and memory use does not depend on the number of users.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class UserExportService {
+
+    private static final String EXPORT_QUERY = """
+            select u.id, u.first_name, u.last_name, u.birthdate, u.email,
+                   (select count(*) from trainings t where t.user_id = u.id) as training_count
+            from users u
+            order by u.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final UserProperties userProperties;
+
+    /**
+     * Writes all users to the given stream, one JSON object per line, ordered by ID.
+     * The stream is flushed but not closed.
+     *
+     * @param out the stream to write the users to.
+     * @return the number of exported users.
+     * @throws IOException if the users cannot be written.
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out) throws IOException {
+        long[] exported = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_QUERY,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(userProperties.getExportFetchSize());
+                return statement;
+            }, (ResultSet row) -> {
+                writeUser(generator, row);
+                exported[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} users", exported[0]);
+        return exported[0];
+    }
+
+    private static void writeUser(JsonGenerator generator, ResultSet row) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("Id", row.getLong("id"));
+            generator.writeStringField("firstName", row.getString("first_name"));
+            generator.writeStringField("lastName", row.getString("last_name"));
+            generator.writeStringField("birthdate", row.getObject("birthdate", LocalDate.class).toString());
+            generator.writeStringField("email", row.getString("email"));
+            generator.writeNumberField("trainingCount", row.getLong("training_count"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
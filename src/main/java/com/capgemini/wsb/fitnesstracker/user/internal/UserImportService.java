@@ -0,0 +1,162 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UsersImportedEvent;
+import com.fasterxml.jackson.databind.MappingIterator;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Service importing large numbers of users.
+ * <p>
+ * Users are read lazily from the given iterator and inserted in chunks, every chunk in its own transaction,
+ * so the JDBC driver can batch the inserts. Users with an email that is already taken, either by an existing
+ * user or by an earlier user in the same import, are reported per row instead of failing the whole import.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class UserImportService {
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final UserProperties userProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Imports all users read by the iterator.
+     * <p>
+     * Chunks imported before a malformed user is read stay imported.
+     * </p>
+     *
+     * @param users the users to import.
+     * @return the outcome of the import of every user, in the order of the input.
+     * @throws IOException if the users cannot be read.
+     */
+    List<UserImportResultDto> importUsers(MappingIterator<UserDto> users) throws IOException {
+        int chunkSize = userProperties.getImportChunkSize();
+        List<UserImportResultDto> results = new ArrayList<>();
+        Set<String> requestedEmails = new HashSet<>();
+        List<PendingUser> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (users.hasNextValue()) {
+            UserDto user = users.nextValue();
+            int position = index++;
+            String violation = validate(user);
+            if (violation != null) {
+                results.add(new UserImportResultDto(position, null, UserImportStatus.INVALID, violation));
+                continue;
+            }
+            String emailNormalized = User.normalizeEmail(user.email());
+            if (!requestedEmails.add(emailNormalized)) {
+                results.add(new UserImportResultDto(position, null, UserImportStatus.DUPLICATE, "Email is repeated in the request"));
+                continue;
+            }
+            chunk.add(new PendingUser(position, user, emailNormalized));
+            if (chunk.size() == chunkSize) {
+                results.addAll(importChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk));
+        }
+        results.sort(Comparator.comparingInt(UserImportResultDto::index));
+        log.info("Imported {} users", results.stream().filter(result -> result.status() == UserImportStatus.CREATED).count());
+        return results;
+    }
+
+    private List<UserImportResultDto> importChunk(List<PendingUser> chunk) {
+        try {
+            return transactionTemplate.execute(status -> insertChunk(chunk));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Chunk of {} users violated a constraint, retrying row by row", chunk.size(), e);
+            return chunk.stream().map(this::insertSingle).toList();
+        }
+    }
+
+    private List<UserImportResultDto> insertChunk(List<PendingUser> chunk) {
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmailsNormalized(
+                chunk.stream().map(PendingUser::emailNormalized).toList()));
+        List<UserImportResultDto> results = new ArrayList<>(chunk.size());
+        List<PendingUser> accepted = new ArrayList<>(chunk.size());
+        List<User> entities = new ArrayList<>(chunk.size());
+        for (PendingUser pending : chunk) {
+            if (takenEmails.contains(pending.emailNormalized())) {
+                results.add(new UserImportResultDto(pending.index(), null, UserImportStatus.DUPLICATE, "User with this email already exists"));
+            } else {
+                accepted.add(pending);
+                entities.add(userMapper.toEntity(pending.user()));
+            }
+        }
+        userRepository.saveAll(entities);
+        userRepository.flush();
+        for (int i = 0; i < accepted.size(); i++) {
+            results.add(new UserImportResultDto(accepted.get(i).index(), entities.get(i).getId(), UserImportStatus.CREATED, null));
+        }
+        eventPublisher.publishEvent(new UsersImportedEvent(entities.stream().map(UserSnapshot::of).toList()));
+        return results;
+    }
+
+    private UserImportResultDto insertSingle(PendingUser pending) {
+        try {
+            User created = transactionTemplate.execute(status -> {
+                User user = userRepository.saveAndFlush(userMapper.toEntity(pending.user()));
+                eventPublisher.publishEvent(new UserCreatedEvent(UserSnapshot.of(user)));
+                return user;
+            });
+            return new UserImportResultDto(pending.index(), created.getId(), UserImportStatus.CREATED, null);
+        } catch (DataIntegrityViolationException e) {
+            if (violatesUniqueEmail(e)) {
+                return new UserImportResultDto(pending.index(), null, UserImportStatus.DUPLICATE, "User with this email already exists");
+            }
+            return new UserImportResultDto(pending.index(), null, UserImportStatus.INVALID, "User violates a database constraint");
+        }
+    }
+
+    /**
+     * Tells whether the violated constraint is the unique index on the normalized email, as opposed to e.g. a
+     * column that is too long.
+     */
+    private static boolean violatesUniqueEmail(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.EMAIL_NORMALIZED_INDEX);
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static String validate(UserDto user) {
+        if (isBlank(user.firstName()) || isBlank(user.lastName()) || isBlank(user.email()) || user.birthdate() == null) {
+            return "First name, last name, birthdate and email are required";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(@Nullable String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record PendingUser(int index, UserDto user, String emailNormalized) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
 import org.springframework.stereotype.Component;
 
 /**
@@ -25,6 +26,20 @@ class UserMapper {
                 user.getEmail());
     }
 
+    /**
+     * Converts a UserSnapshot to a UserDto.
+     *
+     * @param user the UserSnapshot to convert.
+     * @return the corresponding UserDto.
+     */
+    UserDto toDto(UserSnapshot user) {
+        return new UserDto(user.id(),
+                user.firstName(),
+                user.lastName(),
+                user.birthdate(),
+                user.email());
+    }
+
     /**
      * Converts a UserDto to a User entity.
      *
@@ -51,6 +66,18 @@ class UserMapper {
                 user.getLastName());
     }
 
+    /**
+     * Converts a UserSnapshot to a UserDtoNameAndId.
+     *
+     * @param user the UserSnapshot to convert.
+     * @return the corresponding UserDtoNameAndId.
+     */
+    UserDtoNameAndId toNameAndIdDto(UserSnapshot user) {
+        return new UserDtoNameAndId(user.id(),
+                user.firstName(),
+                user.lastName());
+    }
+
     /**
      * Converts a User entity to a UserDtoIdAndEmail.
      *
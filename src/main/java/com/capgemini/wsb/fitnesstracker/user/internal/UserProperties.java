@@ -0,0 +1,80 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the user module.
+ */
+@ConfigurationProperties(prefix = "fitness-tracker.users")
+@Getter
+class UserProperties {
+
+    /**
+     * Number of users returned in a single page when the client does not request a page size.
+     */
+    private final int defaultPageSize;
+
+    /**
+     * Upper bound for the page size requested by the client.
+     */
+    private final int maxPageSize;
+
+    /**
+     * Maximum number of users kept in the read-through user cache.
+     */
+    private final long cacheMaximumSize;
+
+    /**
+     * Time after which a cached user is evicted, regardless of how often it is read.
+     */
+    private final Duration cacheTimeToLive;
+
+    /**
+     * Number of users inserted in a single transaction by the bulk import.
+     */
+    private final int importChunkSize;
+
+    /**
+     * Number of trainings deleted in a single transaction when a user is deleted in the background.
+     */
+    private final int deletionChunkSize;
+
+    /**
+     * Number of rows fetched from the database in a single round trip by the user export.
+     */
+    private final int exportFetchSize;
+
+    UserProperties(@DefaultValue("100") int defaultPageSize,
+                   @DefaultValue("1000") int maxPageSize,
+                   @DefaultValue("10000") long cacheMaximumSize,
+                   @DefaultValue("10m") Duration cacheTimeToLive,
+                   @DefaultValue("500") int importChunkSize,
+                   @DefaultValue("1000") int deletionChunkSize,
+                   @DefaultValue("500") int exportFetchSize) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.cacheMaximumSize = cacheMaximumSize;
+        this.cacheTimeToLive = cacheTimeToLive;
+        this.importChunkSize = importChunkSize;
+        this.deletionChunkSize = deletionChunkSize;
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    /**
+     * Resolves the page size to use for a request.
+     *
+     * @param requested the page size requested by the client, if any.
+     * @return the requested page size capped by {@link #maxPageSize}, or {@link #defaultPageSize} if none was requested.
+     */
+    int resolvePageSize(@Nullable Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+}
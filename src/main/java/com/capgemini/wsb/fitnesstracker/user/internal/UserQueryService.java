@@ -0,0 +1,132 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-only queries backing the user endpoints that only need a few columns.
+ * <p>
+ * The DTOs are built by constructor expressions directly from the result set, so no managed {@link User}
+ * entities, dirty-checking snapshots or lazy collection proxies are created on these paths.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+class UserQueryService {
+
+    private final UserRepository userRepository;
+    private final UserEmailIndex userEmailIndex;
+    private final UserBirthdateIndex userBirthdateIndex;
+    private final UserSearchIndex userSearchIndex;
+    private final UserMapper userMapper;
+
+    /**
+     * Retrieves a single keyset page of users' names and IDs.
+     *
+     * @param afterId the ID of the last user of the previous page, or {@code 0} for the first page.
+     * @param limit   the maximum number of users to return.
+     * @return users' names and IDs ordered by ID.
+     */
+    List<UserDtoNameAndId> findNameAndIdAfter(Long afterId, int limit) {
+        return userRepository.findNameAndIdByIdGreaterThan(afterId, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves names and IDs of users older than the specified age.
+     *
+     * @param age the age to compare.
+     * @return users' names and IDs ordered by ID.
+     */
+    List<UserDtoNameAndId> findNameAndIdOlderThan(Long age) {
+        LocalDate birthdate = LocalDate.now().minusYears(age);
+        return userRepository.findNameAndIdByBirthdateBefore(birthdate);
+    }
+
+    /**
+     * Counts users older than the specified age using the in-memory {@link UserBirthdateIndex}.
+     *
+     * @param age the age to compare.
+     * @return the number of users older than the specified age.
+     */
+    int countOlderThan(Long age) {
+        LocalDate birthdate = LocalDate.now().minusYears(age);
+        return userBirthdateIndex.countBornOnOrBefore(birthdate.minusDays(1));
+    }
+
+    /**
+     * Counts users per age bracket using the in-memory {@link UserBirthdateIndex}, without touching individual rows.
+     * Brackets start at age 0 and end with the bracket of the oldest user.
+     *
+     * @param bracketSize the width of a bracket in years.
+     * @return the number of users in every bracket, youngest first.
+     */
+    List<AgeBracketDto> getAgeHistogram(int bracketSize) {
+        if (bracketSize <= 0) {
+            throw new IllegalArgumentException("Bracket size must be positive, got " + bracketSize);
+        }
+        LocalDate earliestBirthdate = userBirthdateIndex.earliestBirthdate();
+        if (earliestBirthdate == null) {
+            return List.of();
+        }
+        LocalDate today = LocalDate.now();
+        int brackets = Period.between(earliestBirthdate, today).getYears() / bracketSize + 1;
+        LocalDate[] bounds = new LocalDate[brackets + 1];
+        for (int i = 0; i <= brackets; i++) {
+            bounds[i] = today.minusYears((long) i * bracketSize);
+        }
+        int[] bornOnOrBefore = userBirthdateIndex.countsBornOnOrBefore(bounds);
+        List<AgeBracketDto> histogram = new ArrayList<>(brackets);
+        for (int i = 0; i < brackets; i++) {
+            histogram.add(new AgeBracketDto(i * bracketSize, (i + 1) * bracketSize, bornOnOrBefore[i] - bornOnOrBefore[i + 1]));
+        }
+        return histogram;
+    }
+
+    /**
+     * Retrieves the ID and email of the user with the given email, matched exactly but case-insensitively.
+     *
+     * @param email the email of the user.
+     * @return an {@link Optional} containing the user's ID and email or {@link Optional#empty()} if none matched.
+     */
+    Optional<UserDtoIdAndEmail> findIdAndEmailByEmail(String email) {
+        return userRepository.findIdAndEmailByEmailNormalized(User.normalizeEmail(email));
+    }
+
+    /**
+     * Searches IDs and emails of users whose email contains the given fragment, ignoring case.
+     *
+     * @param fragment the fragment of the email to search for.
+     * @param limit    the maximum number of users to return.
+     * @return users' IDs and emails ordered by ID.
+     */
+    List<UserDtoIdAndEmail> searchIdAndEmail(String fragment, int limit) {
+        List<Long> ids = userEmailIndex.search(fragment, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findIdAndEmailByIdIn(ids);
+    }
+
+    /**
+     * Searches users by the tokens of their names and emails, with prefix matching of every query term.
+     *
+     * @param query the query to search for.
+     * @param limit the maximum number of users to return.
+     * @return matching users, best matches first.
+     */
+    List<UserDto> search(String query, int limit) {
+        return userSearchIndex.search(query, limit).stream()
+                .map(userMapper::toDto)
+                .toList();
+    }
+}
@@ -1,11 +1,20 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 /**
@@ -18,24 +27,63 @@ import java.util.Optional;
 interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * Query searching users by email address. It matches by exact match.
+     * Query searching users by email address. It matches by exact, case-insensitive match
+     * using the indexed normalized email column.
      *
      * @param email the email of the user to search for.
      * @return an {@link Optional} containing the found user or {@link Optional#empty()} if none matched.
      */
     default Optional<User> findByEmail(String email) {
-        return findAll().stream()
-                .filter(user -> Objects.equals(user.getEmail(), email))
-                .findFirst();
+        return findByEmailNormalized(User.normalizeEmail(email));
     }
 
     /**
-     * Query searching users by email address with case-insensitive matching and partial matching.
+     * Query searching users by their normalized email address.
      *
-     * @param email the email of the user to search for.
+     * @param emailNormalized the normalized email, see {@link User#normalizeEmail(String)}.
      * @return an {@link Optional} containing the found user or {@link Optional#empty()} if none matched.
      */
-    Optional<User> findByEmailIgnoreCaseContaining(String email);
+    Optional<User> findByEmailNormalized(String emailNormalized);
+
+    /**
+     * Query returning a snapshot of the user with the given ID, without hydrating a managed entity.
+     *
+     * @param id the ID of the user.
+     * @return an {@link Optional} containing the user's snapshot or {@link Optional#empty()} if none matched.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot(u.id, u.firstName, u.lastName, u.birthdate, u.email, u.version)
+            from User u where u.id = :id""")
+    Optional<UserSnapshot> findSnapshotById(Long id);
+
+    /**
+     * Query returning a snapshot of the user with the given normalized email, without hydrating a managed entity.
+     *
+     * @param emailNormalized the normalized email, see {@link User#normalizeEmail(String)}.
+     * @return an {@link Optional} containing the user's snapshot or {@link Optional#empty()} if none matched.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot(u.id, u.firstName, u.lastName, u.birthdate, u.email, u.version)
+            from User u where u.emailNormalized = :emailNormalized""")
+    Optional<UserSnapshot> findSnapshotByEmailNormalized(String emailNormalized);
+
+    /**
+     * Query returning the ID of the user with the given normalized email.
+     *
+     * @param emailNormalized the normalized email, see {@link User#normalizeEmail(String)}.
+     * @return an {@link Optional} containing the user's ID or {@link Optional#empty()} if none matched.
+     */
+    @Query("select u.id from User u where u.emailNormalized = :emailNormalized")
+    Optional<Long> findIdByEmailNormalized(String emailNormalized);
+
+    /**
+     * Query returning those of the given normalized emails that already belong to a user.
+     *
+     * @param emailsNormalized the normalized emails to check.
+     * @return the normalized emails that are already taken.
+     */
+    @Query("select u.emailNormalized from User u where u.emailNormalized in :emailsNormalized")
+    List<String> findExistingEmailsNormalized(Collection<String> emailsNormalized);
 
     /**
      * Query searching for users whose birthdate is before the specified date.
@@ -44,4 +92,121 @@ interface UserRepository extends JpaRepository<User, Long> {
      * @return a list of users whose birthdate is before the specified date.
      */
     List<User> findByBirthdateBefore(LocalDate birthdate);
-}
\ No newline at end of file
+
+    /**
+     * Query returning a single keyset page of users with IDs greater than the given one.
+     *
+     * @param id    the ID of the last user of the previous page.
+     * @param limit the maximum number of users to return.
+     * @return users ordered by ID.
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Query returning a single keyset page of users projected straight into {@link UserDtoNameAndId}s,
+     * without hydrating managed entities.
+     *
+     * @param id    the ID of the last user of the previous page.
+     * @param limit the maximum number of users to return.
+     * @return users' names and IDs ordered by ID.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.user.internal.UserDtoNameAndId(u.id, u.firstName, u.lastName)
+            from User u where u.id > :id order by u.id""")
+    List<UserDtoNameAndId> findNameAndIdByIdGreaterThan(Long id, Limit limit);
+
+    /**
+     * Query returning names and IDs of users whose birthdate is before the specified date, projected straight
+     * into {@link UserDtoNameAndId}s.
+     *
+     * @param birthdate the date to compare birthdates against.
+     * @return users' names and IDs ordered by ID.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.user.internal.UserDtoNameAndId(u.id, u.firstName, u.lastName)
+            from User u where u.birthdate < :birthdate order by u.id""")
+    List<UserDtoNameAndId> findNameAndIdByBirthdateBefore(LocalDate birthdate);
+
+    /**
+     * Query returning the ID and email of the user with the given normalized email,
+     * projected straight into a {@link UserDtoIdAndEmail}.
+     *
+     * @param emailNormalized the normalized email, see {@link User#normalizeEmail(String)}.
+     * @return an {@link Optional} containing the found user's ID and email or {@link Optional#empty()} if none matched.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.user.internal.UserDtoIdAndEmail(u.id, u.email)
+            from User u where u.emailNormalized = :emailNormalized""")
+    Optional<UserDtoIdAndEmail> findIdAndEmailByEmailNormalized(String emailNormalized);
+
+    /**
+     * Query returning IDs and emails of the users with the given IDs, projected straight into {@link UserDtoIdAndEmail}s.
+     *
+     * @param ids the IDs of the users.
+     * @return users' IDs and emails ordered by ID.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.user.internal.UserDtoIdAndEmail(u.id, u.email)
+            from User u where u.id in :ids order by u.id""")
+    List<UserDtoIdAndEmail> findIdAndEmailByIdIn(Collection<Long> ids);
+
+    /**
+     * Streams snapshots of all users ordered by ID, without loading managed entities.
+     * Rows are read from a JDBC cursor in fetch-size chunks, so memory use does not depend on the table size.
+     * Must be consumed within a transaction and closed afterwards.
+     *
+     * @return a stream of {@link UserSnapshot}s of all users.
+     */
+    @Query("select new com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot(u.id, u.firstName, u.lastName, u.birthdate, u.email, u.version) from User u order by u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<UserSnapshot> streamAllSnapshots();
+
+    /**
+     * Deletes all trainings of a user with a single statement, without loading them into the persistence context.
+     *
+     * @param userId the ID of the user whose trainings are deleted.
+     * @return the number of deleted trainings.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Training t where t.user.id = :userId")
+    int deleteTrainingsByUserId(Long userId);
+
+    /**
+     * Retrieves IDs of the trainings of a user, ordered by ID.
+     *
+     * @param userId the ID of the user whose trainings are searched.
+     * @param limit  the maximum number of IDs to return.
+     * @return the IDs of the user's trainings.
+     */
+    @Query("select t.id from Training t where t.user.id = :userId order by t.id")
+    List<Long> findTrainingIdsByUserId(Long userId, Limit limit);
+
+    /**
+     * Retrieves IDs of all trainings of a user, e.g. right before they are deleted in bulk.
+     *
+     * @param userId the ID of the user whose trainings are searched.
+     * @return the IDs of the user's trainings.
+     */
+    @Query("select t.id from Training t where t.user.id = :userId")
+    List<Long> findAllTrainingIdsByUserId(Long userId);
+
+    /**
+     * Deletes trainings with the given IDs with a single statement.
+     *
+     * @param ids the IDs of the trainings to delete.
+     * @return the number of deleted trainings.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Training t where t.id in :ids")
+    int deleteTrainingsByIdIn(Collection<Long> ids);
+
+    /**
+     * Deletes a user with a single statement. The user's trainings must already be deleted.
+     *
+     * @param id the ID of the user to delete.
+     * @return the number of deleted users, {@code 0} if the user does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(Long id);
+}
@@ -0,0 +1,196 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UsersImportedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the tokens of user names and emails, used for ranked full-text user searches.
+ * <p>
+ * Tokens are kept in a sorted map, so all tokens starting with a query term form a contiguous range
+ * and prefix matching costs a single range lookup. Every query term must match; users are ranked by
+ * how well the terms match, with name matches ranked above email matches and whole-token matches
+ * above prefix matches.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class UserSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int EMAIL_WEIGHT = 1;
+    private static final int EXACT_MATCH_FACTOR = 2;
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, UserSnapshot> usersById = new ConcurrentHashMap<>();
+
+    /**
+     * Postings of every token: IDs of users having the token, with the weight of the best field containing it.
+     */
+    private final NavigableMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+
+    /**
+     * Loads all users from the database into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<UserSnapshot> users = userRepository.streamAllSnapshots()) {
+            users.forEach(this::put);
+        }
+        log.info("Indexed names of {} users with {} distinct tokens", usersById.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        put(event.user());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        event.users().forEach(this::put);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        put(event.user());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        remove(event.userId());
+    }
+
+    /**
+     * Finds users matching all terms of the query. A term matches a user if any token of their first name,
+     * last name or email starts with the term, ignoring case and diacritics.
+     *
+     * @param query the query to search for.
+     * @param limit the maximum number of users to return.
+     * @return matching users, best matches first and ties ordered by ID.
+     */
+    List<UserSnapshot> search(String query, int limit) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> scores = null;
+        for (String term : terms) {
+            Map<Long, Integer> termScores = score(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<Long, Integer> matchingAll = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : termScores.entrySet()) {
+                    Integer score = scores.get(entry.getKey());
+                    if (score != null) {
+                        matchingAll.put(entry.getKey(), score + entry.getValue());
+                    }
+                }
+                scores = matchingAll;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> usersById.get(entry.getKey()))
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Scores users having a token starting with the term, keeping the best scoring token of every user.
+     */
+    private Map<Long, Integer> score(String term) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> posting : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            int factor = posting.getKey().equals(term) ? EXACT_MATCH_FACTOR : 1;
+            posting.getValue().forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private synchronized void put(UserSnapshot user) {
+        remove(user.id());
+        usersById.put(user.id(), user);
+        for (Map.Entry<String, Integer> token : weightedTokens(user).entrySet()) {
+            postings.computeIfAbsent(token.getKey(), key -> new ConcurrentHashMap<>()).put(user.id(), token.getValue());
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        UserSnapshot previous = usersById.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String token : weightedTokens(previous).keySet()) {
+            postings.computeIfPresent(token, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static Map<String, Integer> weightedTokens(UserSnapshot user) {
+        Map<String, Integer> tokens = new HashMap<>();
+        for (String token : tokenize(user.email())) {
+            tokens.put(token, EMAIL_WEIGHT);
+        }
+        List<String> names = new ArrayList<>(tokenize(user.firstName()));
+        names.addAll(tokenize(user.lastName()));
+        for (String token : names) {
+            tokens.put(token, NAME_WEIGHT);
+        }
+        return tokens;
+    }
+
+    /**
+     * Splits a value into lower-case tokens without diacritics, e.g. {@code "Zoë.O'Neil@x.com"}
+     * into {@code zoe}, {@code o}, {@code neil}, {@code x} and {@code com}.
+     */
+    private static Set<String> tokenize(String value) {
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,12 +1,21 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
+import com.capgemini.wsb.fitnesstracker.exception.api.PreconditionFailedException;
 import com.capgemini.wsb.fitnesstracker.user.api.*;
+import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for handling operations on {@link User} entities.
@@ -18,6 +27,10 @@ import java.util.Optional;
 @Slf4j
 class UserServiceImpl implements UserFacade {
     private final UserRepository userRepository;
+    private final UserEmailIndex userEmailIndex;
+    private final UserCache userCache;
+    private final UserDeletionWorker userDeletionWorker;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new user.
@@ -32,22 +45,47 @@ class UserServiceImpl implements UserFacade {
         if (user.getId() != null) {
             throw new IllegalArgumentException("User has already DB ID, update is not permitted!");
         }
-        return userRepository.save(user);
+        User createdUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserCreatedEvent(UserSnapshot.of(createdUser)));
+        return createdUser;
     }
 
     /**
-     * Deletes a user by their ID.
+     * Deletes a user by their ID, together with all their trainings.
+     * <p>
+     * Trainings and the user are removed with set-based statements instead of cascading the removal
+     * through the entity graph, which would load and delete every training one by one.
+     * </p>
      *
      * @param id the ID of the user to be deleted.
      * @throws UserNotFoundException if the user with the specified ID does not exist.
      */
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         log.info("Deleting User with ID: {}", id);
+        List<Long> trainingIds = userRepository.findAllTrainingIdsByUserId(id);
+        int deletedTrainings = userRepository.deleteTrainingsByUserId(id);
+        if (userRepository.deleteUserById(id) == 0) {
+            throw new UserNotFoundException(id);
+        }
+        log.info("Deleted User with ID: {} and {} trainings", id, deletedTrainings);
+        eventPublisher.publishEvent(new UserDeletedEvent(id, trainingIds));
+    }
+
+    /**
+     * Deletes a user by their ID in the background.
+     *
+     * @param id the ID of the user to be deleted.
+     * @throws UserNotFoundException if the user with the specified ID does not exist.
+     */
+    @Override
+    public void deleteUserInBackground(Long id) {
         if (!userRepository.existsById(id)) {
             throw new UserNotFoundException(id);
         }
-        userRepository.deleteById(id);
+        log.info("Scheduling deletion of User with ID: {}", id);
+        userDeletionWorker.deleteInChunks(id);
     }
 
     /**
@@ -64,40 +102,92 @@ class UserServiceImpl implements UserFacade {
     }
 
     /**
-     * Updates an existing user.
+     * Updates an existing user. Only the user's own attributes are copied onto the managed entity,
+     * so passing a detached user (e.g. one returned by {@link #getUser(Long)}) never touches their trainings.
      *
      * @param user the User entity to be updated.
      * @return the updated User entity.
      * @throws UserNotFoundException if the user with the specified ID does not exist.
      */
     @Override
+    @Transactional
     public User updateUser(User user) {
-        if (!userRepository.existsById(user.getId())) {
-            throw new UserNotFoundException(user.getId());
+        return updateUser(user.getId(), null, existingUser -> {
+            existingUser.setFirstName(user.getFirstName());
+            existingUser.setLastName(user.getLastName());
+            existingUser.setBirthdate(user.getBirthdate());
+            existingUser.setEmail(user.getEmail());
+        });
+    }
+
+    /**
+     * Applies changes to an existing user. The changes are flushed before the update is published,
+     * so the published snapshot and the returned user carry the new version.
+     *
+     * @param id              the ID of the user to be updated.
+     * @param expectedVersion the version the changes are based on, or {@code null} to apply them to any version.
+     * @param changes         the changes to apply to the user.
+     * @return the updated User entity.
+     * @throws UserNotFoundException       if the user with the specified ID does not exist.
+     * @throws PreconditionFailedException if the user's version differs from the expected one.
+     */
+    @Override
+    @Transactional
+    public User updateUser(Long id, @Nullable Long expectedVersion, Consumer<User> changes) {
+        User existingUser = userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+        if (expectedVersion != null && expectedVersion != existingUser.getVersion()) {
+            throw new PreconditionFailedException("User with ID=%s has version %s, expected %s"
+                    .formatted(id, existingUser.getVersion(), expectedVersion));
         }
-        return userRepository.save(user);
+        changes.accept(existingUser);
+        userRepository.flush();
+        eventPublisher.publishEvent(new UserUpdatedEvent(UserSnapshot.of(existingUser)));
+        return existingUser;
     }
 
     /**
-     * Retrieves a user by their ID.
+     * Retrieves a user by their ID through the {@link UserCache}.
      *
      * @param userId the ID of the user to retrieve.
-     * @return an {@link Optional} containing the found user or {@link Optional#empty()} if none matched.
+     * @return an {@link Optional} containing a detached copy of the found user or {@link Optional#empty()} if none matched.
      */
     @Override
     public Optional<User> getUser(final Long userId) {
-        return userRepository.findById(userId);
+        return userCache.getById(userId, userRepository::findSnapshotById)
+                .map(UserServiceImpl::toDetachedUser);
     }
 
     /**
-     * Retrieves a user by their email.
+     * Retrieves a user by their email through the {@link UserCache}, using the indexed normalized email column on a miss.
      *
      * @param email the email of the user to retrieve.
-     * @return an {@link Optional} containing the found user or {@link Optional#empty()} if none matched.
+     * @return an {@link Optional} containing a detached copy of the found user or {@link Optional#empty()} if none matched.
      */
     @Override
     public Optional<User> getUserByEmail(final String email) {
-        return userRepository.findByEmailIgnoreCaseContaining(email);
+        return userCache.getByEmail(email, userRepository::findIdByEmailNormalized, userRepository::findSnapshotById)
+                .map(UserServiceImpl::toDetachedUser);
+    }
+
+    /**
+     * Searches users by email fragment. Candidates are resolved from the in-memory {@link UserEmailIndex},
+     * so only the matching rows are loaded from the database.
+     *
+     * @param fragment the fragment of the email to search for.
+     * @param limit    the maximum number of users to return.
+     * @return a list of matching users ordered by ID.
+     */
+    @Override
+    public List<User> searchUsersByEmail(final String fragment, final int limit) {
+        List<Long> ids = userEmailIndex.search(fragment, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllById(ids)
+                .stream()
+                .sorted(Comparator.comparing(User::getId))
+                .toList();
     }
 
     /**
@@ -109,4 +199,50 @@ class UserServiceImpl implements UserFacade {
     public List<User> findAllUsers() {
         return userRepository.findAll();
     }
+
+    /**
+     * Retrieves a single keyset page of users.
+     *
+     * @param afterId the ID of the last user of the previous page, or {@code 0} for the first page.
+     * @param limit   the maximum number of users to return.
+     * @return users with IDs greater than {@code afterId}, ordered by ID.
+     */
+    @Override
+    public List<User> findUsersAfter(final Long afterId, final int limit) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves the users with the given IDs with a single {@code IN} query.
+     *
+     * @param userIds the IDs of the users to retrieve.
+     * @return the existing users among the given IDs.
+     */
+    @Override
+    public List<User> findUsersByIds(final Collection<Long> userIds) {
+        return userRepository.findAllById(userIds);
+    }
+
+    /**
+     * Streams snapshots of all users from a database cursor to the given action.
+     *
+     * @param action the action to be performed on every user.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachUser(final Consumer<UserSnapshot> action) {
+        try (Stream<UserSnapshot> users = userRepository.streamAllSnapshots()) {
+            users.forEach(action);
+        }
+    }
+
+    /**
+     * Creates a fresh, detached user from a cached snapshot, so callers can never modify the cached state.
+     */
+    private static User toDetachedUser(UserSnapshot snapshot) {
+        User user = new User(snapshot.firstName(), snapshot.lastName(), snapshot.birthdate(), snapshot.email());
+        user.setId(snapshot.id());
+        user.setVersion(snapshot.version());
+        return user;
+    }
 }
@@ -0,0 +1,131 @@
+package com.capgemini.wsb.fitnesstracker;
+
+import com.capgemini.wsb.FitnessTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares throughput and tail latency of {@code /v1/trainings} and {@code /v1/users} with requests handled on the
+ * Tomcat thread pool and on virtual threads. Each mode runs in its own application instance with the sample data,
+ * loaded by more concurrent clients than the Tomcat pool has threads.
+ * Not picked up by the default test run, execute explicitly with {@code -Dtest=ExecutionModeBenchmark}.
+ */
+@Tag("Benchmark")
+@Slf4j
+class ExecutionModeBenchmark {
+
+    private static final int CLIENTS = 1_000;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+    private static final List<String> PATHS = List.of("/v1/trainings", "/v1/users");
+
+    @Test
+    void shouldServeAllRequests_inBothExecutionModes() throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            String mode = virtualThreads ? "virtual" : "platform";
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FitnessTracker.class)
+                    .profiles("loadInitialData")
+                    .properties("server.port=0",
+                            "spring.threads.virtual.enabled=" + virtualThreads,
+                            "spring.datasource.url=jdbc:h2:mem:benchmark-" + mode,
+                            "spring.jmx.enabled=false")
+                    .run()) {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                for (String path : PATHS) {
+                    URI uri = URI.create("http://localhost:" + port + path);
+                    load(uri, WARMUP);
+                    results.add(new Result(mode, path, load(uri, MEASUREMENT)));
+                }
+            }
+        }
+
+        results.forEach(result -> log.info("{}", result));
+        assertThat(results).allSatisfy(result -> assertThat(result.run().failures()).isZero());
+    }
+
+    /**
+     * Lets every client send requests one after the other for the given time.
+     */
+    private static Run load(URI uri, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong failures = new AtomicLong();
+        List<Future<long[]>> clients = new ArrayList<>(CLIENTS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder().executor(executor).build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).header("Accept", "application/json").build();
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+            long[] latencies = new long[0];
+            for (Future<long[]> client : clients) {
+                long[] clientLatencies = client.get();
+                int offset = latencies.length;
+                latencies = Arrays.copyOf(latencies, offset + clientLatencies.length);
+                System.arraycopy(clientLatencies, 0, latencies, offset, clientLatencies.length);
+            }
+            Arrays.sort(latencies);
+            return new Run(latencies.length / (duration.toNanos() / 1_000_000_000.0),
+                    percentile(latencies, 0.5),
+                    percentile(latencies, 0.99),
+                    failures.get());
+        }
+    }
+
+    private static Duration percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(sortedLatencies[(int) Math.ceil(percentile * sortedLatencies.length) - 1]);
+    }
+
+    private record Run(double requestsPerSecond, Duration p50, Duration p99, long failures) {
+    }
+
+    private record Result(String mode, String path, Run run) {
+
+        @Override
+        public String toString() {
+            return "%-8s %-14s %9.1f req/s  p50 %6d ms  p99 %6d ms  %d failed (%d clients)".formatted(mode, path,
+                    run.requestsPerSecond(), run.p50().toMillis(), run.p99().toMillis(), run.failures(), CLIENTS);
+        }
+    }
+}
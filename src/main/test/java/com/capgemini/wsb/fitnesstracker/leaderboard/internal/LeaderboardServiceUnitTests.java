@@ -0,0 +1,231 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardPeriod;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingFacade;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardServiceUnitTests {
+
+    private static final Instant NOW = Instant.now();
+
+    /**
+     * The trainings table, by ID.
+     */
+    private final Map<Long, TrainingSnapshot> trainings = new ConcurrentSkipListMap<>();
+    /**
+     * Runs once while the next load streams the trainings table, after the first training.
+     */
+    private Runnable duringLoad = () -> {
+    };
+    private final TrainingFacade trainingFacade = trainingFacade();
+    private final LeaderboardService leaderboardService = new LeaderboardService(trainingFacade);
+
+    @Test
+    void shouldRankUsersByTotalDistance_whenTrainingsAreCreated() {
+        create(training(1, 1L, ActivityType.RUNNING, NOW, 5));
+        create(training(2, 2L, ActivityType.CYCLING, NOW, 30));
+        create(training(3, 1L, ActivityType.RUNNING, NOW, 10));
+
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.ALL_TIME, null, 0, 10)).containsExactly(
+                new LeaderboardEntry(1, 2L, 30, 1),
+                new LeaderboardEntry(2, 1L, 15, 2));
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.WEEK, ActivityType.RUNNING, 0, 10)).containsExactly(
+                new LeaderboardEntry(1, 1L, 15, 2));
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.ALL_TIME, null, 1, 10)).containsExactly(
+                new LeaderboardEntry(2, 1L, 15, 2));
+        assertThat(leaderboardService.findEntry(2L, LeaderboardPeriod.MONTH, null)).contains(new LeaderboardEntry(1, 2L, 30, 1));
+        assertThat(leaderboardService.findEntry(2L, LeaderboardPeriod.ALL_TIME, ActivityType.RUNNING)).isEmpty();
+    }
+
+    @Test
+    void shouldMoveDistance_whenTrainingIsUpdated() {
+        TrainingSnapshot running = training(1, 1L, ActivityType.RUNNING, NOW, 5);
+        create(running);
+
+        update(running, training(1, 2L, ActivityType.WALKING, NOW, 7));
+
+        assertThat(leaderboardService.findEntry(1L, LeaderboardPeriod.ALL_TIME, null)).isEmpty();
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.ALL_TIME, ActivityType.RUNNING, 0, 10)).isEmpty();
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.ALL_TIME, ActivityType.WALKING, 0, 10)).containsExactly(
+                new LeaderboardEntry(1, 2L, 7, 1));
+    }
+
+    @Test
+    void shouldKeepTotalsOfLastUpdate_whenSameTrainingIsUpdatedConcurrently() throws Exception {
+        TrainingSnapshot loaded = training(1, 1L, ActivityType.RUNNING, NOW, 5);
+        create(training(2, 1L, ActivityType.RUNNING, NOW, 10));
+        create(loaded);
+        // both requests loaded the training before either committed, so both events carry the same previous state
+        trainings.put(1L, training(1, 1L, ActivityType.RUNNING, NOW, 8));
+        trainings.put(1L, training(1, 1L, ActivityType.RUNNING, NOW, 9));
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> updates = new ArrayList<>();
+        for (double distance : new double[]{8, 9}) {
+            updates.add(CompletableFuture.runAsync(() -> {
+                awaitQuietly(start);
+                leaderboardService.onTrainingUpdated(new TrainingUpdatedEvent(loaded, training(1, 1L, ActivityType.RUNNING, NOW, distance)));
+            }));
+        }
+
+        start.countDown();
+        CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(leaderboardService.findEntry(1L, LeaderboardPeriod.ALL_TIME, null)).contains(new LeaderboardEntry(1, 1L, 19, 2));
+        assertThat(leaderboardService.findEntry(1L, LeaderboardPeriod.WEEK, ActivityType.RUNNING)).contains(new LeaderboardEntry(1, 1L, 19, 2));
+    }
+
+    @Test
+    void shouldCountOnlyAllTime_whenTrainingStartedBeforeCurrentPeriod() {
+        Instant lastYear = NOW.minusSeconds(366L * 86_400);
+        create(training(1, 1L, ActivityType.RUNNING, lastYear, 5));
+
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.WEEK, null, 0, 10)).isEmpty();
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.MONTH, null, 0, 10)).isEmpty();
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.ALL_TIME, null, 0, 10)).hasSize(1);
+    }
+
+    @Test
+    void shouldStartWeekOverFromTrainingsOfNewWeek_whenRollingOverToNextWeek() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate nextWeek = LeaderboardPeriod.WEEK.nextStart(LeaderboardPeriod.WEEK.startOf(today));
+        trainings.put(1L, training(1, 1L, ActivityType.RUNNING, NOW, 5));
+        trainings.put(2L, training(2, 2L, ActivityType.RUNNING, nextWeek.atTime(8, 0).toInstant(ZoneOffset.UTC), 8));
+        leaderboardService.rebuild();
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.WEEK, null, 0, 10)).extracting(LeaderboardEntry::userId).containsExactly(1L);
+        clearInvocations(trainingFacade);
+
+        leaderboardService.rollOver(nextWeek);
+
+        verify(trainingFacade, never()).forEachTrainingSnapshot(any());
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.WEEK, null, 0, 10)).extracting(LeaderboardEntry::userId).containsExactly(2L);
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.ALL_TIME, null, 0, 10)).extracting(LeaderboardEntry::userId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shouldServeQueriesAndCountTrainingOnce_whenTrainingIsCreatedWhileReloading() {
+        trainings.put(1L, training(1, 1L, ActivityType.RUNNING, NOW, 5));
+        trainings.put(2L, training(2, 2L, ActivityType.RUNNING, NOW, 8));
+        duringLoad = () -> {
+            // committed while the load streams the table, seen by the load and published to the listeners too
+            join(CompletableFuture.runAsync(() -> leaderboardService.onTrainingCreated(new TrainingCreatedEvent(trainings.get(2L)))));
+            assertThat(join(CompletableFuture.supplyAsync(() -> leaderboardService.findTop(LeaderboardPeriod.ALL_TIME, null, 0, 10))))
+                    .extracting(LeaderboardEntry::userId).containsExactly(2L);
+        };
+
+        leaderboardService.rebuild();
+        // a creation event arriving after the reload was swapped in
+        leaderboardService.onTrainingCreated(new TrainingCreatedEvent(trainings.get(1L)));
+
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.ALL_TIME, null, 0, 10)).containsExactly(
+                new LeaderboardEntry(1, 2L, 8, 1),
+                new LeaderboardEntry(2, 1L, 5, 1));
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.WEEK, null, 0, 10)).hasSize(2);
+    }
+
+    @Test
+    void shouldDropUser_whenUserIsDeleted() {
+        create(training(1, 1L, ActivityType.RUNNING, NOW, 5));
+
+        leaderboardService.onUserDeleted(new UserDeletedEvent(1L));
+
+        assertThat(leaderboardService.findTop(LeaderboardPeriod.ALL_TIME, null, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectPage_whenLimitIsNotPositive() {
+        assertThatThrownBy(() -> leaderboardService.findTop(LeaderboardPeriod.ALL_TIME, null, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void create(TrainingSnapshot training) {
+        trainings.put(training.id(), training);
+        leaderboardService.onTrainingCreated(new TrainingCreatedEvent(training));
+    }
+
+    private void update(TrainingSnapshot previous, TrainingSnapshot training) {
+        trainings.put(training.id(), training);
+        leaderboardService.onTrainingUpdated(new TrainingUpdatedEvent(previous, training));
+    }
+
+    @SuppressWarnings("unchecked")
+    private TrainingFacade trainingFacade() {
+        TrainingFacade facade = mock(TrainingFacade.class);
+        doAnswer(invocation -> {
+            stream(invocation.getArgument(0), training -> true);
+            return null;
+        }).when(facade).forEachTrainingSnapshot(any(Consumer.class));
+        doAnswer(invocation -> {
+            Instant from = invocation.getArgument(0);
+            Instant to = invocation.getArgument(1);
+            stream(invocation.getArgument(2), training -> !training.startTime().isBefore(from) && training.startTime().isBefore(to));
+            return null;
+        }).when(facade).forEachTrainingSnapshotStartingBetween(any(), any(), any(Consumer.class));
+        when(facade.findTrainingSnapshotsByUserId(anyLong())).thenAnswer(invocation -> trainings.values().stream()
+                .filter(training -> Objects.equals(training.userId(), invocation.getArgument(0)))
+                .toList());
+        return facade;
+    }
+
+    private void stream(Consumer<TrainingSnapshot> action, Predicate<TrainingSnapshot> filter) {
+        boolean first = true;
+        for (TrainingSnapshot training : trainings.values()) {
+            if (filter.test(training)) {
+                action.accept(training);
+                if (first) {
+                    first = false;
+                    Runnable hook = duringLoad;
+                    duringLoad = () -> {
+                    };
+                    hook.run();
+                }
+            }
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        return future.orTimeout(5, TimeUnit.SECONDS).join();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static TrainingSnapshot training(long id, Long userId, ActivityType activityType, Instant startTime, double distance) {
+        return new TrainingSnapshot(id, userId, activityType, startTime, startTime.plusSeconds(3_600), distance, distance);
+    }
+}
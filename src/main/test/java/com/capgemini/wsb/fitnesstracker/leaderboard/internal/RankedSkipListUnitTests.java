@@ -0,0 +1,83 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedSkipListUnitTests {
+
+    private static final Comparator<Map.Entry<Long, Double>> RANKING = Map.Entry.<Long, Double>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey());
+
+    @Test
+    void shouldOrderByDescendingScoreThenUserId_whenInserting() {
+        RankedSkipList list = new RankedSkipList();
+        list.insert(3, 10);
+        list.insert(1, 5);
+        list.insert(2, 10);
+        list.insert(4, 20);
+
+        assertThat(userIdsFrom(list, 1)).containsExactly(4L, 2L, 3L, 1L);
+        assertThat(list.rank(4, 20)).isEqualTo(1);
+        assertThat(list.rank(2, 10)).isEqualTo(2);
+        assertThat(list.rank(1, 5)).isEqualTo(4);
+        assertThat(list.rank(1, 6)).isZero();
+        assertThat(list.nodeAt(5)).isNull();
+    }
+
+    @Test
+    void shouldMatchSortedReference_whenApplyingRandomUpdates() {
+        RankedSkipList list = new RankedSkipList();
+        Map<Long, Double> scores = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 20_000; i++) {
+            long userId = random.nextLong(1, 2_000);
+            Double previous = scores.remove(userId);
+            if (previous != null) {
+                assertThat(list.remove(userId, previous)).isTrue();
+            }
+            if (random.nextInt(4) != 0) {
+                double score = random.nextInt(500);
+                list.insert(userId, score);
+                scores.put(userId, score);
+            }
+        }
+
+        List<Map.Entry<Long, Double>> expected = new ArrayList<>(scores.entrySet());
+        expected.sort(RANKING);
+        assertThat(list.size()).isEqualTo(expected.size());
+        assertThat(userIdsFrom(list, 1)).containsExactlyElementsOf(expected.stream().map(Map.Entry::getKey).toList());
+        for (int rank = 1; rank <= expected.size(); rank += 37) {
+            Map.Entry<Long, Double> entry = expected.get(rank - 1);
+            assertThat(list.rank(entry.getKey(), entry.getValue())).isEqualTo(rank);
+            assertThat(list.nodeAt(rank).userId()).isEqualTo(entry.getKey());
+        }
+    }
+
+    @Test
+    void shouldNotRemove_whenScoreDiffers() {
+        RankedSkipList list = new RankedSkipList();
+        list.insert(1, 10);
+
+        assertThat(list.remove(1, 11)).isFalse();
+        assertThat(list.remove(2, 10)).isFalse();
+        assertThat(list.remove(1, 10)).isTrue();
+        assertThat(list.size()).isZero();
+        assertThat(list.nodeAt(1)).isNull();
+    }
+
+    private static List<Long> userIdsFrom(RankedSkipList list, long rank) {
+        List<Long> userIds = new ArrayList<>();
+        for (RankedSkipList.Node node = list.nodeAt(rank); node != null; node = node.next()) {
+            userIds.add(node.userId());
+        }
+        return userIds;
+    }
+}
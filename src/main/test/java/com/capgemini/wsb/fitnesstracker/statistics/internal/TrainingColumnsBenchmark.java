@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAnalyticsFilter;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingMetric;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures scans of {@link TrainingColumns} filled with 50 million synthetic trainings of 100,000 users.
+ * The columns take about 1.5 GB, so the test JVM needs a larger heap, e.g. {@code -DargLine=-Xmx3g}.
+ * Not picked up by the default test run, execute explicitly with {@code -Dtest=TrainingColumnsBenchmark}.
+ */
+@Tag("Benchmark")
+@Slf4j
+class TrainingColumnsBenchmark {
+
+    private static final int TRAININGS = 50_000_000;
+    private static final int USERS = 100_000;
+    private static final int ROUNDS = 5;
+    private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+
+    @Test
+    void shouldScanFiftyMillionTrainings() {
+        TrainingColumns columns = new TrainingColumns(TRAININGS + 1);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int id = 1; id <= TRAININGS; id++) {
+            Instant startTime = START.plusSeconds(random.nextLong(4L * 365 * 86_400));
+            int duration = random.nextInt(600, 10_800);
+            double averageSpeed = random.nextDouble(3, 40);
+            columns.put(new TrainingSnapshot((long) id, (long) random.nextInt(1, USERS + 1),
+                    ACTIVITY_TYPES[random.nextInt(ACTIVITY_TYPES.length)], startTime, startTime.plusSeconds(duration),
+                    averageSpeed * duration / 3_600, averageSpeed));
+        }
+        TrainingAnalyticsFilter lastYear = new TrainingAnalyticsFilter(null, ActivityType.RUNNING,
+                LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31));
+
+        measure("aggregate, no filter", () -> columns.aggregate(TrainingAnalyticsFilter.all()));
+        measure("aggregate, type and year", () -> columns.aggregate(lastYear));
+        measure("aggregate, one user", () -> columns.aggregate(new TrainingAnalyticsFilter(7L, null, null, null)));
+        measure("aggregate per type", () -> columns.aggregateByActivityType(TrainingAnalyticsFilter.all()));
+        measure("distance histogram", () -> columns.histogram(TrainingMetric.DISTANCE, 1, TrainingAnalyticsFilter.all()));
+
+        assertThat(columns.aggregate(TrainingAnalyticsFilter.all()).trainingCount()).isEqualTo(TRAININGS);
+    }
+
+    private static void measure(String name, Supplier<?> query) {
+        query.get();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        log.info("{}: {} ms over {} trainings", name, best / 1_000_000, TRAININGS);
+    }
+}
@@ -0,0 +1,161 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAggregate;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingAnalyticsFilter;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingMetric;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrainingColumnsUnitTests {
+
+    private static final Instant START = Instant.parse("2024-01-19T08:00:00Z");
+
+    @Test
+    void shouldAggregateAllTrainings_whenFilterIsEmpty() {
+        TrainingColumns columns = new TrainingColumns(4);
+        columns.put(training(1, 1L, ActivityType.RUNNING, START, 1_800, 5, 10));
+        columns.put(training(2, 2L, ActivityType.CYCLING, START, 3_600, 30, 30));
+        columns.put(training(100, null, ActivityType.RUNNING, START, 3_600, 10, 10));
+
+        TrainingAggregate aggregate = columns.aggregate(TrainingAnalyticsFilter.all());
+
+        assertThat(columns.count()).isEqualTo(3);
+        assertThat(aggregate.trainingCount()).isEqualTo(3);
+        assertThat(aggregate.totalDistance()).isEqualTo(45);
+        assertThat(aggregate.averageDistance()).isEqualTo(15);
+        assertThat(aggregate.totalDurationSeconds()).isEqualTo(9_000);
+        assertThat(aggregate.averageDurationSeconds()).isEqualTo(3_000);
+        assertThat(aggregate.averageSpeed()).isCloseTo(16.67, within(0.01));
+        assertThat(aggregate.maxAverageSpeed()).isEqualTo(30);
+    }
+
+    @Test
+    void shouldReplaceTraining_whenPuttingSameIdAgain() {
+        TrainingColumns columns = new TrainingColumns(16);
+        columns.put(training(1, 1L, ActivityType.RUNNING, START, 1_800, 5, 10));
+
+        columns.put(training(1, 1L, ActivityType.WALKING, START, 3_600, 4, 4));
+
+        assertThat(columns.count()).isEqualTo(1);
+        TrainingAggregate[] aggregates = columns.aggregateByActivityType(TrainingAnalyticsFilter.all());
+        assertThat(aggregates[ActivityType.RUNNING.ordinal()].trainingCount()).isZero();
+        assertThat(aggregates[ActivityType.WALKING.ordinal()].trainingCount()).isEqualTo(1);
+        assertThat(aggregates[ActivityType.WALKING.ordinal()].totalDistance()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldAggregateOnlyMatchingTrainings_whenFiltering() {
+        TrainingColumns columns = new TrainingColumns(16);
+        columns.put(training(1, 1L, ActivityType.RUNNING, START, 1_800, 5, 10));
+        columns.put(training(2, 1L, ActivityType.RUNNING, START.plusSeconds(86_400 * 3), 1_800, 7, 14));
+        columns.put(training(3, 1L, ActivityType.CYCLING, START, 3_600, 30, 30));
+        columns.put(training(4, 2L, ActivityType.RUNNING, START, 1_800, 6, 12));
+
+        TrainingAggregate byUserAndType = columns.aggregate(new TrainingAnalyticsFilter(1L, ActivityType.RUNNING, null, null));
+        TrainingAggregate byDates = columns.aggregate(new TrainingAnalyticsFilter(null, null,
+                LocalDate.of(2024, 1, 20), LocalDate.of(2024, 1, 22)));
+        TrainingAggregate byMissingUser = columns.aggregate(new TrainingAnalyticsFilter(3L, null, null, null));
+
+        assertThat(byUserAndType.trainingCount()).isEqualTo(2);
+        assertThat(byUserAndType.totalDistance()).isEqualTo(12);
+        assertThat(byDates.trainingCount()).isEqualTo(1);
+        assertThat(byDates.totalDistance()).isEqualTo(7);
+        assertThat(byMissingUser).isEqualTo(new TrainingAggregate(0, 0, 0, 0, 0, 0, 0));
+    }
+
+    @Test
+    void shouldDropTrainingsOfUser_whenRemovingUser() {
+        TrainingColumns columns = new TrainingColumns(16);
+        columns.put(training(1, 1L, ActivityType.RUNNING, START, 1_800, 5, 10));
+        columns.put(training(2, 1L, ActivityType.CYCLING, START, 3_600, 30, 30));
+        columns.put(training(3, 2L, ActivityType.RUNNING, START, 1_800, 6, 12));
+
+        int removed = columns.removeUser(1L);
+
+        assertThat(removed).isEqualTo(2);
+        assertThat(columns.count()).isEqualTo(1);
+        assertThat(columns.aggregate(TrainingAnalyticsFilter.all()).totalDistance()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldCountTrainingsPerBucket_whenComputingHistogram() {
+        TrainingColumns columns = new TrainingColumns(16);
+        columns.put(training(1, 1L, ActivityType.RUNNING, START, 1_800, 2, 10));
+        columns.put(training(2, 1L, ActivityType.RUNNING, START, 1_800, 4.9, 10));
+        columns.put(training(3, 1L, ActivityType.RUNNING, START, 1_800, 12, 10));
+        columns.put(training(4, 1L, ActivityType.RUNNING, START, 7_200, 1e9, 10));
+
+        long[] distances = columns.histogram(TrainingMetric.DISTANCE, 5, TrainingAnalyticsFilter.all());
+        long[] durations = columns.histogram(TrainingMetric.DURATION, 3_600, TrainingAnalyticsFilter.all());
+
+        assertThat(distances).hasSize(TrainingColumns.MAX_BUCKETS);
+        assertThat(distances[0]).isEqualTo(2);
+        assertThat(distances[2]).isEqualTo(1);
+        assertThat(distances[TrainingColumns.MAX_BUCKETS - 1]).isEqualTo(1);
+        assertThat(durations).containsExactly(3, 0, 1);
+    }
+
+    @Test
+    void shouldStoreTrainings_whenIdsExceedIntRange() {
+        TrainingColumns columns = new TrainingColumns(16);
+        long largeUserId = Integer.MAX_VALUE + 1L;
+        columns.put(training(Long.MAX_VALUE, largeUserId, ActivityType.RUNNING, START, 1_800, 5, 10));
+        columns.put(training(Integer.MAX_VALUE * 4L, largeUserId, ActivityType.CYCLING, START, 3_600, 30, 30));
+        columns.put(training(1, 1L, ActivityType.RUNNING, START, 1_800, 6, 12));
+
+        assertThat(columns.count()).isEqualTo(3);
+        assertThat(columns.aggregate(new TrainingAnalyticsFilter(largeUserId, null, null, null)).totalDistance()).isEqualTo(35);
+        assertThat(columns.aggregate(new TrainingAnalyticsFilter(largeUserId + 1, null, null, null)).trainingCount()).isZero();
+        assertThat(columns.aggregate(new TrainingAnalyticsFilter(Long.MAX_VALUE, null, null, null)).trainingCount()).isZero();
+
+        assertThat(columns.removeUser(largeUserId)).isEqualTo(2);
+        assertThat(columns.aggregate(TrainingAnalyticsFilter.all()).totalDistance()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldMatchStoredTrainings_whenTrainingsAreRepeatedlyPutAndRemoved() {
+        TrainingColumns columns = new TrainingColumns(16);
+        Map<Long, TrainingSnapshot> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            if (random.nextInt(100) == 0) {
+                long userId = random.nextInt(1, 6);
+                int removed = columns.removeUser(userId);
+                int expectedRemoved = expected.size();
+                expected.values().removeIf(training -> training.userId() == userId);
+                assertThat(removed).isEqualTo(expectedRemoved - expected.size());
+            } else {
+                // few distinct IDs with colliding low bits, so trainings are replaced and probe sequences are shared
+                TrainingSnapshot training = training(random.nextInt(2_000) * 1_024L, (long) random.nextInt(1, 6),
+                        ActivityType.RUNNING, START, 60, random.nextInt(1, 100), 10);
+                columns.put(training);
+                expected.put(training.id(), training);
+            }
+        }
+
+        assertThat(columns.count()).isEqualTo(expected.size());
+        for (long userId = 1; userId <= 5; userId++) {
+            long user = userId;
+            TrainingAggregate aggregate = columns.aggregate(new TrainingAnalyticsFilter(userId, null, null, null));
+            assertThat(aggregate.trainingCount()).isEqualTo(expected.values().stream().filter(training -> training.userId() == user).count());
+            assertThat(aggregate.totalDistance()).isEqualTo(expected.values().stream()
+                    .filter(training -> training.userId() == user).mapToDouble(TrainingSnapshot::distance).sum());
+        }
+    }
+
+    private static TrainingSnapshot training(long id, Long userId, ActivityType activityType, Instant startTime,
+                                             long durationSeconds, double distance, double averageSpeed) {
+        return new TrainingSnapshot(id, userId, activityType, startTime, startTime.plusSeconds(durationSeconds),
+                distance, averageSpeed);
+    }
+}
@@ -0,0 +1,96 @@
+package com.capgemini.wsb.fitnesstracker.track;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@Transactional
+@AutoConfigureMockMvc(addFilters = false)
+class TrackApiIntegrationTest extends IntegrationTestBase {
+
+    @TempDir
+    static Path trackDirectory;
+
+    @DynamicPropertySource
+    static void trackProperties(DynamicPropertyRegistry registry) {
+        registry.add("fitness-tracker.tracks.directory", trackDirectory::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldReturnUploadedTrack_whenGettingTrack() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), randomUUID().toString()));
+        Training training = persistTraining(new Training(user, Instant.parse("2024-01-19T08:00:00Z"), Instant.parse("2024-01-19T09:00:00Z"),
+                ActivityType.RUNNING, 10.0, 10.0));
+        String track = """
+                [
+                  {"time": "2024-01-19T08:00:00.000+00:00", "latitude": 52.229676, "longitude": 21.012229, "heartRate": 120},
+                  {"time": "2024-01-19T08:00:05.000+00:00", "latitude": 52.229801, "longitude": 21.012101}
+                ]
+                """;
+
+        mockMvc.perform(put("/v1/trainings/{id}/track", training.getId()).contentType(MediaType.APPLICATION_JSON).content(track))
+                .andDo(log())
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/trainings/{id}/track", training.getId()).accept(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].time").value("2024-01-19T08:00:00.000+00:00"))
+                .andExpect(jsonPath("$[0].latitude").value(52.229676))
+                .andExpect(jsonPath("$[0].heartRate").value(120))
+                .andExpect(jsonPath("$[1].longitude").value(21.012101))
+                .andExpect(jsonPath("$[1].heartRate").value(nullValue()));
+
+        mockMvc.perform(get("/v1/trainings/{id}/track", training.getId()).accept(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_OCTET_STREAM_VALUE));
+    }
+
+    @Test
+    void shouldRejectTrack_whenPointsAreNotOrderedByTime() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), randomUUID().toString()));
+        Training training = persistTraining(new Training(user, Instant.parse("2024-01-19T08:00:00Z"), Instant.parse("2024-01-19T09:00:00Z"),
+                ActivityType.RUNNING, 10.0, 10.0));
+        String track = """
+                [
+                  {"time": "2024-01-19T08:00:05.000+00:00", "latitude": 52.2, "longitude": 21.0},
+                  {"time": "2024-01-19T08:00:00.000+00:00", "latitude": 52.2, "longitude": 21.0}
+                ]
+                """;
+
+        mockMvc.perform(put("/v1/trainings/{id}/track", training.getId()).contentType(MediaType.APPLICATION_JSON).content(track))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/v1/trainings/{id}/track", training.getId() + 1000).contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,123 @@
+package com.capgemini.wsb.fitnesstracker.track;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that tracks of trainings are deleted together with their user, both within the request and in the
+ * background. Not transactional, so the tracks are deleted after the deletion of the user commits.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = "fitness-tracker.users.deletion-chunk-size=2")
+class TrackDeletionIntegrationTest extends IntegrationTestBase {
+
+    private static final Instant START = Instant.parse("2024-01-19T08:00:00Z");
+
+    private static final String TRACK = """
+            [
+              {"time": "2024-01-19T08:00:00.000+00:00", "latitude": 52.229676, "longitude": 21.012229},
+              {"time": "2024-01-19T08:00:05.000+00:00", "latitude": 52.229801, "longitude": 21.012101}
+            ]
+            """;
+
+    @TempDir
+    static Path trackDirectory;
+
+    @DynamicPropertySource
+    static void trackProperties(DynamicPropertyRegistry registry) {
+        registry.add("fitness-tracker.tracks.directory", trackDirectory::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldDeleteTracks_whenDeletingUser() throws Exception {
+        User user = existingUser(generateUser());
+        List<Long> trainingIds = trainingsWithTracks(user, 3);
+        Long otherTrainingId = trainingsWithTracks(existingUser(generateUser()), 1).get(0);
+
+        mockMvc.perform(delete("/v1/users/{userId}", user.getId()))
+                .andExpect(status().isNoContent());
+
+        for (Long trainingId : trainingIds) {
+            assertThat(trackFile(trainingId)).doesNotExist();
+            mockMvc.perform(get("/v1/trainings/{id}/track", trainingId).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/v1/trainings/{id}/track", trainingId).accept(MediaType.APPLICATION_OCTET_STREAM))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/v1/trainings/{id}/track/samples", trainingId))
+                    .andExpect(status().isNotFound());
+        }
+        assertThat(trackFile(otherTrainingId)).exists();
+        mockMvc.perform(get("/v1/trainings/{id}/track", otherTrainingId).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldDeleteTracks_whenDeletingUserInBackground() throws Exception {
+        User user = existingUser(generateUser());
+        List<Long> trainingIds = trainingsWithTracks(user, 5);
+
+        mockMvc.perform(delete("/v1/users/{userId}", user.getId()).param("async", "true"))
+                .andExpect(status().isAccepted());
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(trainingIds).allSatisfy(trainingId -> assertThat(trackFile(trainingId)).doesNotExist()));
+        mockMvc.perform(get("/v1/trainings/{id}/track", trainingIds.get(0)).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<Long> trainingsWithTracks(User user, int trainings) throws Exception {
+        List<Long> trainingIds = new ArrayList<>();
+        for (int i = 0; i < trainings; i++) {
+            Instant start = START.plus(i, ChronoUnit.DAYS);
+            Training training = persistTraining(new Training(user, start, start.plus(1, ChronoUnit.HOURS), ActivityType.RUNNING, 10.0, 10.0));
+            mockMvc.perform(put("/v1/trainings/{id}/track", training.getId()).contentType(MediaType.APPLICATION_JSON).content(TRACK))
+                    .andExpect(status().isNoContent());
+            mockMvc.perform(get("/v1/trainings/{id}/track/samples", training.getId()))
+                    .andExpect(status().isOk());
+            assertThat(trackFile(training.getId())).exists();
+            trainingIds.add(training.getId());
+        }
+        return trainingIds;
+    }
+
+    private static Path trackFile(Long trainingId) {
+        return trackDirectory.resolve(String.format("%03d", trainingId % 1000)).resolve(trainingId + ".trk");
+    }
+
+    private static User generateUser() {
+        return new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now().minusYears(30), randomUUID() + "@domain.com");
+    }
+}
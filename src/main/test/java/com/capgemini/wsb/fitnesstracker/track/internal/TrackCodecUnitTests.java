@@ -0,0 +1,70 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.track.api.TrackPoint;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrackCodecUnitTests {
+
+    @Test
+    void shouldDecodeEncodedTrack() {
+        List<TrackPoint> points = List.of(
+                new TrackPoint(Instant.parse("2024-01-19T08:00:00.000Z"), 52.229676, 21.012229, 120, 104.5),
+                new TrackPoint(Instant.parse("2024-01-19T08:00:01.250Z"), 52.229701, 21.012190, null, null),
+                new TrackPoint(Instant.parse("2024-01-19T08:00:02.500Z"), -33.868820, -151.209295, 95, -2.3));
+
+        List<TrackPoint> decoded = TrackCodec.decode(TrackCodec.encode(points));
+
+        assertThat(decoded).isEqualTo(points);
+    }
+
+    @Test
+    void shouldEncodeRegularSamplesInFewBytesPerPoint() {
+        List<TrackPoint> points = new ArrayList<>();
+        Instant start = Instant.parse("2024-01-19T08:00:00Z");
+        for (int i = 0; i < 3600; i++) {
+            points.add(new TrackPoint(start.plusSeconds(i), (52_200_000 + i * 30) / 1e6, (21_000_000 - i * 20) / 1e6, 140 + i % 5, (1000 + i % 7) / 10d));
+        }
+
+        ByteBuffer encoded = TrackCodec.encode(points);
+
+        assertThat(TrackCodec.pointCount(encoded)).isEqualTo(3600);
+        assertThat(encoded.remaining()).isLessThan(3600 * 8);
+        assertThat(TrackCodec.decode(encoded)).hasSize(3600).last().isEqualTo(points.get(3599));
+    }
+
+    @Test
+    void shouldDecodeTrackWithoutElevationColumn_whenStoredInFirstFormatVersion() {
+        List<TrackPoint> points = List.of(
+                new TrackPoint(Instant.parse("2024-01-19T08:00:00.000Z"), 52.229676, 21.012229, 120, null),
+                new TrackPoint(Instant.parse("2024-01-19T08:00:01.000Z"), 52.229701, 21.012190, 121, null));
+        ByteBuffer current = TrackCodec.encode(points);
+        int columnBytes = current.getInt(8) + current.getInt(12) + current.getInt(16) + current.getInt(20);
+        ByteBuffer firstVersion = ByteBuffer.allocate(6 * Integer.BYTES + columnBytes)
+                .putInt(0x54524B31)
+                .putInt(points.size())
+                .putInt(current.getInt(8))
+                .putInt(current.getInt(12))
+                .putInt(current.getInt(16))
+                .putInt(current.getInt(20))
+                .put(current.slice(TrackCodec.HEADER_BYTES, columnBytes))
+                .flip();
+
+        assertThat(TrackCodec.decode(firstVersion)).isEqualTo(points);
+    }
+
+    @Test
+    void shouldRejectTruncatedTrack() {
+        ByteBuffer encoded = TrackCodec.encode(List.of(new TrackPoint(Instant.EPOCH, 1, 1, 60, 0d), new TrackPoint(Instant.EPOCH, 2, 2, 61, 1d)));
+
+        assertThatThrownBy(() -> TrackCodec.decode(encoded.limit(encoded.limit() - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.track.api.TrackPoint;
+import com.capgemini.wsb.fitnesstracker.track.api.TrackSample;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrackSeriesUnitTests {
+
+    private static final Instant START = Instant.parse("2024-01-19T08:00:00Z");
+
+    @Test
+    void shouldDeriveDistanceSpeedAndPace_whenConvertingTrackToSamples() {
+        List<TrackPoint> points = new ArrayList<>();
+        for (int i = 0; i <= 60; i++) {
+            // 0.00009 degrees of latitude are about 10 metres
+            points.add(new TrackPoint(START.plusSeconds(i * 3L), 52 + i * 0.00009, 21, null, 100d + i));
+        }
+
+        List<TrackSample> samples = TrackSeries.toSamples(points);
+
+        assertThat(samples).hasSize(61);
+        assertThat(samples.get(0).speed()).isZero();
+        assertThat(samples.get(0).pace()).isNull();
+        assertThat(samples.get(60).distance()).isCloseTo(600.5, within(1.0));
+        assertThat(samples.get(60).speed()).isCloseTo(3.34, within(0.01));
+        assertThat(samples.get(60).pace()).isCloseTo(299.7, within(1.0));
+        assertThat(samples.get(60).elevation()).isEqualTo(160);
+    }
+
+    @Test
+    void shouldKeepEndsAndPeaks_whenDownsampling() {
+        List<TrackPoint> points = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            double elevation = i == 6_543 ? 250 : 100;
+            points.add(new TrackPoint(START.plusSeconds(i), 52 + i * 0.00003, 21, null, elevation));
+        }
+        List<TrackSample> samples = TrackSeries.toSamples(points);
+
+        List<TrackSample> downsampled = TrackSeries.downsample(samples, 200);
+
+        assertThat(downsampled).hasSize(200);
+        assertThat(downsampled.get(0)).isSameAs(samples.get(0));
+        assertThat(downsampled.get(199)).isSameAs(samples.get(9_999));
+        assertThat(downsampled).contains(samples.get(6_543));
+        assertThat(downsampled).isSortedAccordingTo((first, second) -> first.time().compareTo(second.time()));
+    }
+
+    @Test
+    void shouldReturnAllSamples_whenTrackIsShorterThanResolution() {
+        List<TrackSample> samples = TrackSeries.toSamples(List.of(
+                new TrackPoint(START, 52, 21, 120, null),
+                new TrackPoint(START.plusSeconds(1), 52.00001, 21, 121, null)));
+
+        assertThat(TrackSeries.downsample(samples, 500)).isEqualTo(samples);
+    }
+}
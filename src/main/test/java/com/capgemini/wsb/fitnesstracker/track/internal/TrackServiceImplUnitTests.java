@@ -0,0 +1,83 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.track.api.TrackPoint;
+import com.capgemini.wsb.fitnesstracker.track.api.TrackSample;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingFacade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrackServiceImplUnitTests {
+
+    private static final Long TRAINING_ID = 1L;
+    private static final Instant START = Instant.parse("2024-01-19T08:00:00Z");
+
+    private final TrackStore trackStore = mock(TrackStore.class);
+    private final TrainingFacade trainingFacade = mock(TrainingFacade.class);
+    private final TrackServiceImpl trackService = new TrackServiceImpl(trackStore, trainingFacade,
+            new TrackProperties(Path.of("tracks"), 10, 1000, 500, 10_000));
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutDownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldNotCacheSamplesOfReplacedTrack_whenTrackIsReplacedWhileSamplesAreComputed() throws Exception {
+        when(trainingFacade.getTrainingById(TRAINING_ID)).thenReturn(Optional.of(mock(Training.class)));
+        AtomicReference<ByteBuffer> stored = new AtomicReference<>(TrackCodec.encode(track(2)));
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(trackStore.read(TRAINING_ID)).thenAnswer(invocation -> {
+            ByteBuffer encoded = stored.get();
+            reading.countDown();
+            release.await();
+            return Optional.of(encoded.asReadOnlyBuffer());
+        });
+        doAnswer(invocation -> {
+            stored.set(invocation.getArgument(1));
+            return null;
+        }).when(trackStore).write(eq(TRAINING_ID), any());
+
+        Future<Optional<List<TrackSample>>> samplesOfPreviousTrack = executor.submit(() -> trackService.getSamples(TRAINING_ID, 100));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<?> save = executor.submit(() -> trackService.saveTrack(TRAINING_ID, track(3)));
+
+        // the track cannot be replaced while samples of the previous track are being computed
+        assertThatThrownBy(() -> save.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        release.countDown();
+        assertThat(samplesOfPreviousTrack.get(5, TimeUnit.SECONDS)).hasValueSatisfying(samples -> assertThat(samples).hasSize(2));
+        save.get(5, TimeUnit.SECONDS);
+
+        assertThat(trackService.getSamples(TRAINING_ID, 100)).hasValueSatisfying(samples -> assertThat(samples).hasSize(3));
+    }
+
+    private static List<TrackPoint> track(int points) {
+        return IntStream.range(0, points)
+                .mapToObj(i -> new TrackPoint(START.plusSeconds(i * 5L), 52 + i * 0.0001, 21, null, null))
+                .toList();
+    }
+}
@@ -5,6 +5,7 @@ import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -12,13 +13,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Base64;
+import java.util.Date;
 
 import static java.time.LocalDate.now;
 import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,8 +54,8 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[0].user.email").value(user1.getEmail()))
 
 
-                .andExpect(jsonPath("$[0].startTime").value(sdf.format(training1.getStartTime())))
-                .andExpect(jsonPath("$[0].endTime").value(sdf.format(training1.getEndTime())))
+                .andExpect(jsonPath("$[0].startTime").value(sdf.format(Date.from(training1.getStartTime()))))
+                .andExpect(jsonPath("$[0].endTime").value(sdf.format(Date.from(training1.getEndTime()))))
                 .andExpect(jsonPath("$[0].distance").value((training1.getDistance())))
                 .andExpect(jsonPath("$[0].averageSpeed").value(training1.getAverageSpeed()))
 
@@ -70,14 +77,40 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[0].user.firstName").value(user1.getFirstName()))
                 .andExpect(jsonPath("$[0].user.lastName").value(user1.getLastName()))
                 .andExpect(jsonPath("$[0].user.email").value(user1.getEmail()))
-                .andExpect(jsonPath("$[0].startTime").value(sdf.format(training1.getStartTime())))
-                .andExpect(jsonPath("$[0].endTime").value(sdf.format(training1.getEndTime())))
+                .andExpect(jsonPath("$[0].startTime").value(sdf.format(Date.from(training1.getStartTime()))))
+                .andExpect(jsonPath("$[0].endTime").value(sdf.format(Date.from(training1.getEndTime()))))
                 .andExpect(jsonPath("$[0].distance").value((training1.getDistance())))
                 .andExpect(jsonPath("$[0].averageSpeed").value(training1.getAverageSpeed()))
 
                 .andExpect(jsonPath("$[1]").doesNotExist());;
     }
 
+    @Test
+    void shouldReturnNewestTrainingsOfUser_whenGettingRecentTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-17 19:00:00", "2024-05-17 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        Training training2 = persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        Training training3 = persistTraining(generateTrainingWithDetails(user1, "2024-05-18 19:00:00", "2024-05-18 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        persistTraining(generateTrainingWithDetails(user2, "2024-05-20 19:00:00", "2024-05-20 20:30:00", ActivityType.RUNNING, 14, 11.5));
+
+        mockMvc.perform(get("/v1/trainings/users/{userId}/recent", user1.getId()).param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].Id").value(training2.getId()))
+                .andExpect(jsonPath("$[1].Id").value(training3.getId()))
+                .andExpect(jsonPath("$[2]").doesNotExist());
+
+        mockMvc.perform(get("/v1/trainings/users/{userId}/recent", user1.getId()).param("to", "2024-05-18T00:00")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].Id").value(training1.getId()))
+                .andExpect(jsonPath("$[1]").doesNotExist());
+    }
+
     @Test
     void shouldReturnAllFinishedTrainingsAfterTime_whenGettingAllFinishedTrainingsAfterTime() throws Exception {
 
@@ -96,13 +129,43 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[0].user.firstName").value(user1.getFirstName()))
                 .andExpect(jsonPath("$[0].user.lastName").value(user1.getLastName()))
                 .andExpect(jsonPath("$[0].user.email").value(user1.getEmail()))
-                .andExpect(jsonPath("$[0].startTime").value(sdf.format(training1.getStartTime())))
-                .andExpect(jsonPath("$[0].endTime").value(sdf.format(training1.getEndTime())))
+                .andExpect(jsonPath("$[0].startTime").value(sdf.format(Date.from(training1.getStartTime()))))
+                .andExpect(jsonPath("$[0].endTime").value(sdf.format(Date.from(training1.getEndTime()))))
                 .andExpect(jsonPath("$[0].distance").value((training1.getDistance())))
                 .andExpect(jsonPath("$[0].averageSpeed").value(training1.getAverageSpeed()))
                 .andExpect(jsonPath("$[1]").doesNotExist());
     }
 
+    @Test
+    void shouldReturnTrainingsWithinRange_whenGettingTrainingsInRange() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        Training training2 = persistTraining(generateTrainingWithDetails(user1, "2024-05-17 23:00:00", "2024-05-18 00:30:00", ActivityType.RUNNING, 14, 11.5));
+        Training training3 = persistTraining(generateTrainingWithDetails(user1, "2024-05-20 19:00:00", "2024-05-20 20:30:00", ActivityType.RUNNING, 14, 11.5));
+
+        mockMvc.perform(get("/v1/trainings/range").param("from", "2024-05-18T00:00").param("to", "2024-05-20T00:00")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].Id").value(training1.getId()))
+                .andExpect(jsonPath("$[1]").doesNotExist());
+
+        mockMvc.perform(get("/v1/trainings/range").param("from", "2024-05-18T00:00").param("to", "2024-05-20T00:00")
+                        .param("field", "END")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].Id").value(training2.getId()))
+                .andExpect(jsonPath("$[1].Id").value(training1.getId()))
+                .andExpect(jsonPath("$[2]").doesNotExist());
+
+        mockMvc.perform(get("/v1/trainings/range").param("from", "2024-05-20T00:00").param("to", "2024-05-18T00:00")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getAllTrainingByActivityType_whenGettingAllTrainingByActivityType() throws Exception {
 
@@ -156,6 +219,142 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
 
     }
 
+    @Test
+    void shouldReportEveryTraining_whenImportingTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+
+        String importRequest = """
+                {"userId": %1$s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.0, "averageSpeed": 10.0}
+                {"userId": %3$s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.0, "averageSpeed": 10.0}
+                {"userId": %2$s, "startTime": "2024-04-02T10:00:00", "endTime": "2024-04-02T11:00:00", "activityType": "CYCLING", "distance": 30.0, "averageSpeed": 30.0}
+                {"userId": %1$s, "startTime": "2024-04-03T10:00:00", "endTime": "2024-04-03T09:00:00", "activityType": "WALKING", "distance": 5.0, "averageSpeed": 5.0}
+                {"userId": %2$s, "startTime": "2024-04-03T10:00:00", "activityType": "WALKING", "distance": 5.0, "averageSpeed": 5.0}
+                """.formatted(user1.getId(), user2.getId(), user2.getId() + 1000);
+
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_NDJSON).content(importRequest))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("USER_NOT_FOUND"))
+                .andExpect(jsonPath("$[2].status").value("CREATED"))
+                .andExpect(jsonPath("$[3].status").value("INVALID"))
+                .andExpect(jsonPath("$[4].status").value("INVALID"));
+
+        assertThat(getAllTrainings()).extracting(Training::getActivityType)
+                .containsExactlyInAnyOrder(ActivityType.RUNNING, ActivityType.CYCLING);
+    }
+
+    @Test
+    void shouldReportCreatedTrainingsAndStop_whenImportedTrainingIsMalformed() throws Exception {
+
+        User user1 = existingUser(generateClient());
+
+        String importRequest = """
+                {"userId": %1$s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.0, "averageSpeed": 10.0}
+                {"userId": %1$s, "startTime": "2024-04-02T10:00:00", "endTime": "2024-04-02T11:00:00", "activityType": "DIVING", "distance": 1.0, "averageSpeed": 1.0}
+                {"userId": %1$s, "startTime": "2024-04-03T10:00:00", "endTime": "2024-04-03T11:00:00", "activityType": "CYCLING", "distance": 30.0, "averageSpeed": 30.0}
+                """.formatted(user1.getId());
+
+        String response = mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_NDJSON).content(importRequest))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(getAllTrainings()).extracting(Training::getId)
+                .containsExactly(JsonPath.<Number>read(response, "$[0].id").longValue());
+    }
+
+    @Test
+    void shouldSummariseTrainingsFromRollups_whenTrainingsAreCreatedAndMoved() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        String training = """
+                {"userId": %s, "startTime": "%s", "endTime": "%s", "activityType": "RUNNING", "distance": %s, "averageSpeed": %s}
+                """;
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON)
+                        .content(training.formatted(user1.getId(), "2024-04-01T10:00:00", "2024-04-01T11:00:00", 10.0, 10.0)))
+                .andExpect(status().isCreated());
+        String created = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON)
+                        .content(training.formatted(user1.getId(), "2024-04-03T10:00:00", "2024-04-03T10:30:00", 6.0, 12.0)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long movedId = JsonPath.<Number>read(created, "$.id").longValue();
+
+        mockMvc.perform(get("/v1/trainings/users/{id}/summary", user1.getId())
+                        .param("from", "2024-04-01").param("to", "2024-04-30").param("period", "WEEK"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].periodStart").value("2024-04-01"))
+                .andExpect(jsonPath("$[0].trainingCount").value(2))
+                .andExpect(jsonPath("$[0].totalDistance").value(16.0))
+                .andExpect(jsonPath("$[0].totalDurationSeconds").value(5400))
+                .andExpect(jsonPath("$[0].maxSpeed").value(12.0));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", movedId).contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"startTime": "2024-04-08T10:00:00", "endTime": "2024-04-08T10:30:00", "activityType": "CYCLING", "distance": 6.0, "averageSpeed": 12.0}
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/trainings/users/{id}/summary", user1.getId())
+                        .param("from", "2024-04-01").param("to", "2024-04-30").param("period", "WEEK"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].periodStart").value("2024-04-01"))
+                .andExpect(jsonPath("$[0].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[0].trainingCount").value(1))
+                .andExpect(jsonPath("$[0].maxSpeed").value(10.0))
+                .andExpect(jsonPath("$[1].periodStart").value("2024-04-08"))
+                .andExpect(jsonPath("$[1].activityType").value("CYCLING"))
+                .andExpect(jsonPath("$[1].trainingCount").value(1));
+    }
+
+    @Test
+    void shouldCombineFilters_whenSearchingTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        persistTraining(generateTrainingWithDetails(user1, "2024-01-10 08:00:00", "2024-01-10 09:00:00", ActivityType.RUNNING, 5, 8));
+        Training matching1 = persistTraining(generateTrainingWithDetails(user1, "2024-01-12 08:00:00", "2024-01-12 09:00:00", ActivityType.RUNNING, 12, 10));
+        persistTraining(generateTrainingWithDetails(user1, "2024-01-13 08:00:00", "2024-01-13 09:00:00", ActivityType.CYCLING, 30, 25));
+        Training matching2 = persistTraining(generateTrainingWithDetails(user1, "2024-01-14 08:00:00", "2024-01-14 09:00:00", ActivityType.RUNNING, 15, 11));
+        persistTraining(generateTrainingWithDetails(user2, "2024-01-12 08:00:00", "2024-01-12 09:00:00", ActivityType.RUNNING, 12, 10));
+
+        String cursor = mockMvc.perform(get("/v1/trainings/search")
+                        .param("userId", user1.getId().toString())
+                        .param("activityType", "RUNNING")
+                        .param("from", "2024-01-11T00:00")
+                        .param("minDistance", "10")
+                        .param("limit", "1"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].Id").value(matching1.getId()))
+                .andExpect(jsonPath("$[0].user.id").value(user1.getId()))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/v1/trainings/search")
+                        .param("userId", user1.getId().toString())
+                        .param("activityType", "RUNNING")
+                        .param("from", "2024-01-11T00:00")
+                        .param("minDistance", "10")
+                        .param("limit", "1")
+                        .param("cursor", cursor))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].Id").value(matching2.getId()));
+    }
+
     @Test
     void shouldUpdateTraining_whenUpdatingTraining() throws Exception {
 
@@ -183,6 +382,71 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$.averageSpeed").value(0.0));
     }
 
+    @Test
+    void shouldReturnNextPage_whenFollowingCursor() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-01-19 08:00:00", "2024-01-19 09:00:00", ActivityType.RUNNING, 1, 1));
+        Training training2 = persistTraining(generateTrainingWithDetails(user1, "2024-01-19 08:00:00", "2024-01-19 09:00:00", ActivityType.RUNNING, 2, 2));
+        Training training3 = persistTraining(generateTrainingWithDetails(user1, "2024-01-18 08:00:00", "2024-01-18 09:00:00", ActivityType.RUNNING, 3, 3));
+
+        String cursor = mockMvc.perform(get("/v1/trainings").param("limit", "2").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].Id").value(training3.getId()))
+                .andExpect(jsonPath("$[1].Id").value(training1.getId()))
+                .andExpect(jsonPath("$[2]").doesNotExist())
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/v1/trainings").param("limit", "2").param("cursor", cursor).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[0].Id").value(training2.getId()))
+                .andExpect(jsonPath("$[1]").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectCursor_whenCursorIsTampered() throws Exception {
+
+        ByteBuffer outOfRangeTime = ByteBuffer.allocate(20).putLong(Long.MAX_VALUE).putInt(0).putLong(1);
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(outOfRangeTime.array());
+
+        mockMvc.perform(get("/v1/trainings").param("limit", "2").param("cursor", tampered).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/trainings").param("limit", "2").param("cursor", "not-a-cursor").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldStreamAllTrainingsOfUser_whenExportingTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTraining(user1));
+        Training training2 = persistTraining(generateTrainingWithActivityType(user1, ActivityType.CYCLING));
+        persistTraining(generateTraining(user2));
+
+        mockMvc.perform(get("/v1/trainings/export").param("userId", user1.getId().toString()).accept(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].Id").value(training1.getId()))
+                .andExpect(jsonPath("$[0].startTime").value("2024-01-19T08:00:00.000+00:00"))
+                .andExpect(jsonPath("$[0].user.email").value(user1.getEmail()))
+                .andExpect(jsonPath("$[1].Id").value(training2.getId()))
+                .andExpect(jsonPath("$[1].activityType").value("CYCLING"));
+
+        String lines = mockMvc.perform(get("/v1/trainings/export").accept(MediaType.APPLICATION_NDJSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(lines.lines()).hasSize(3)
+                .allSatisfy(line -> assertThat(line).startsWith("{\"Id\":").endsWith("}"));
+    }
+
     private static User generateClient() {
         return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
     }
@@ -192,8 +456,8 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
 
         return new Training(
                 user,
-                sdf.parse("2024-01-19 08:00:00"),
-                sdf.parse("2024-01-19 09:30:00"),
+                sdf.parse("2024-01-19 08:00:00").toInstant(),
+                sdf.parse("2024-01-19 09:30:00").toInstant(),
                 ActivityType.RUNNING,
                 10.5,
                 8.2);
@@ -204,8 +468,8 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
 
         return new Training(
                 user,
-                sdf.parse("2024-01-19 08:00:00"),
-                sdf.parse("2024-01-19 09:30:00"),
+                sdf.parse("2024-01-19 08:00:00").toInstant(),
+                sdf.parse("2024-01-19 09:30:00").toInstant(),
                 activityType,
                 0, 0);
     }
@@ -215,8 +479,8 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
 
         return new Training(
                 user,
-                sdf.parse(startTime),
-                sdf.parse(endTime),
+                sdf.parse(startTime).toInstant(),
+                sdf.parse(endTime).toInstant(),
                 activityType,
                 distance,
                 averageSpeed);
@@ -0,0 +1,90 @@
+package com.capgemini.wsb.fitnesstracker.training;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that listing trainings costs a fixed number of statements, no matter how many trainings
+ * and distinct users are listed. Not transactional, so every request runs with an empty persistence context.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TrainingQueryCountIntegrationTest extends IntegrationTestBase {
+
+    private static final Instant START = Instant.ofEpochMilli(1_700_000_000_000L);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUpStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void shouldUseSingleStatement_whenGettingAllTrainings(int users) throws Exception {
+        List<User> owners = createTrainingsOfDistinctUsers(users);
+
+        assertSingleStatement("/v1/trainings", users);
+        assertSingleStatement("/v1/trainings/users/" + owners.get(0).getId(), 1);
+        assertSingleStatement("/v1/trainings/activityType?activityType=RUNNING", users);
+        assertSingleStatement("/v1/trainings/finishAfter?date=2020-01-01T00:00", users);
+        assertSingleStatement("/v1/trainings/range?from=2020-01-01T00:00&to=2030-01-01T00:00&field=END", users);
+    }
+
+    private void assertSingleStatement(String url, int expectedTrainings) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(get(url).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(expectedTrainings)));
+
+        assertThat(statistics.getPrepareStatementCount()).as(url).isEqualTo(1);
+    }
+
+    private List<User> createTrainingsOfDistinctUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(),
+                    LocalDate.now().minusYears(30), randomUUID() + "@domain.com"));
+            persistTraining(new Training(user, START, START.plus(1, ChronoUnit.HOURS),
+                    ActivityType.RUNNING, 10.5, 8.2));
+            users.add(user);
+        }
+        return users;
+    }
+}
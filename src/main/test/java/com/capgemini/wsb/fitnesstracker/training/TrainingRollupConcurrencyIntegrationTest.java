@@ -0,0 +1,82 @@
+package com.capgemini.wsb.fitnesstracker.training;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Verifies that trainings created concurrently for the same user, day and activity type all succeed and are all
+ * counted in the daily rollup. Not transactional, so every request commits on its own.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class TrainingRollupConcurrencyIntegrationTest extends IntegrationTestBase {
+
+    private static final int REQUESTS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpRollups() {
+        jdbcTemplate.update("delete from training_daily_rollup");
+    }
+
+    @Test
+    void shouldCountEveryTraining_whenFirstTrainingsOfDayAreCreatedConcurrently() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(),
+                LocalDate.now().minusYears(30), randomUUID() + "@domain.com"));
+        String training = """
+                {"userId": %s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.0, "averageSpeed": 10.0}
+                """.formatted(user.getId());
+        CyclicBarrier start = new CyclicBarrier(REQUESTS);
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            List<CompletableFuture<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                statuses.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await(5, TimeUnit.SECONDS);
+                        return mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(training))
+                                .andReturn().getResponse().getStatus();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, executor));
+            }
+
+            assertThat(statuses).extracting(status -> status.get(30, TimeUnit.SECONDS)).containsOnly(201);
+        } finally {
+            executor.shutdown();
+        }
+
+        Map<String, Object> rollup = jdbcTemplate.queryForMap(
+                "select training_count, total_distance from training_daily_rollup where user_id = ?", user.getId());
+        assertThat(((Number) rollup.get("training_count")).intValue()).isEqualTo(REQUESTS);
+        assertThat(((Number) rollup.get("total_distance")).doubleValue()).isEqualTo(REQUESTS * 10.0);
+    }
+}
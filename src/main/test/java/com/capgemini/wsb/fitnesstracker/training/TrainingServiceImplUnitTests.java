@@ -10,9 +10,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
-import java.util.Date;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,8 @@ import static org.mockito.Mockito.*;
 public class TrainingServiceImplUnitTests {
     @Mock
     private TrainingRepository trainingRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private TrainingServiceImpl trainingService;
 
@@ -33,8 +36,8 @@ public class TrainingServiceImplUnitTests {
     @Test
     void testFindAllTrainings() {
         // Given
-        Training training1 = new Training(new Date(), new Date(), ActivityType.RUNNING, 10.0, 5.0);
-        Training training2 = new Training(new Date(), new Date(), ActivityType.CYCLING, 15.0, 7.5);
+        Training training1 = new Training(Instant.now(), Instant.now(), ActivityType.RUNNING, 10.0, 5.0);
+        Training training2 = new Training(Instant.now(), Instant.now(), ActivityType.CYCLING, 15.0, 7.5);
         List<Training> expectedTrainings = Arrays.asList(training1, training2);
         when(trainingRepository.findAll()).thenReturn(expectedTrainings);
         // When
@@ -49,8 +52,8 @@ public class TrainingServiceImplUnitTests {
     void testFindByUserId() {
         // Given
         Long userId = 1L;
-        Training training1 = new Training(new Date(), new Date(), ActivityType.RUNNING, 10.0, 5.0);
-        Training training2 = new Training(new Date(), new Date(), ActivityType.CYCLING, 15.0, 7.5);
+        Training training1 = new Training(Instant.now(), Instant.now(), ActivityType.RUNNING, 10.0, 5.0);
+        Training training2 = new Training(Instant.now(), Instant.now(), ActivityType.CYCLING, 15.0, 7.5);
         List<Training> expectedTrainings = Arrays.asList(training1, training2);
         when(trainingRepository.findByUserId(userId)).thenReturn(expectedTrainings);
         // When
@@ -65,8 +68,8 @@ public class TrainingServiceImplUnitTests {
     void testFindByActivityType() {
         // Given
         ActivityType activityType = ActivityType.RUNNING;
-        Training training1 = new Training(new Date(), new Date(), activityType, 10.0, 5.0);
-        Training training2 = new Training(new Date(), new Date(), activityType, 15.0, 7.5);
+        Training training1 = new Training(Instant.now(), Instant.now(), activityType, 10.0, 5.0);
+        Training training2 = new Training(Instant.now(), Instant.now(), activityType, 15.0, 7.5);
         List<Training> expectedTrainings = Arrays.asList(training1, training2);
         when(trainingRepository.findByActivityType(activityType)).thenReturn(expectedTrainings);
         // When
@@ -80,9 +83,9 @@ public class TrainingServiceImplUnitTests {
     @Test
     void testFindByStartTimeAfter() {
         // Given
-        Date startTime = new Date();
-        Training training1 = new Training(new Date(), new Date(), ActivityType.RUNNING, 10.0, 5.0);
-        Training training2 = new Training(new Date(), new Date(), ActivityType.CYCLING, 15.0, 7.5);
+        Instant startTime = Instant.now();
+        Training training1 = new Training(Instant.now(), Instant.now(), ActivityType.RUNNING, 10.0, 5.0);
+        Training training2 = new Training(Instant.now(), Instant.now(), ActivityType.CYCLING, 15.0, 7.5);
         List<Training> expectedTrainings = Arrays.asList(training1, training2);
         when(trainingRepository.findByStartTimeAfter(startTime)).thenReturn(expectedTrainings);
         // When
@@ -96,7 +99,7 @@ public class TrainingServiceImplUnitTests {
     @Test
     void testCreateTraining() {
         // Given
-        Training trainingToCreate = new Training(new Date(), new Date(), ActivityType.RUNNING, 10.0, 5.0);
+        Training trainingToCreate = new Training(Instant.now(), Instant.now(), ActivityType.RUNNING, 10.0, 5.0);
         when(trainingRepository.save(trainingToCreate)).thenReturn(trainingToCreate);
         // When
         Training createdTraining = trainingService.createTraining(trainingToCreate);
@@ -108,8 +111,8 @@ public class TrainingServiceImplUnitTests {
     void testUpdateTraining() {
         // Given
         Long trainingId = 1L;
-        Training existingTraining = new Training(new Date(), new Date(), ActivityType.RUNNING, 10.0, 5.0);
-        Training updatedTraining = new Training(new Date(), new Date(), ActivityType.CYCLING, 15.0, 7.5);
+        Training existingTraining = new Training(Instant.now(), Instant.now(), ActivityType.RUNNING, 10.0, 5.0);
+        Training updatedTraining = new Training(Instant.now(), Instant.now(), ActivityType.CYCLING, 15.0, 7.5);
         when(trainingRepository.findById(trainingId)).thenReturn(Optional.of(existingTraining));
         when(trainingRepository.save(updatedTraining)).thenReturn(updatedTraining);
         // When
@@ -0,0 +1,129 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsImportedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrainingActivityIndexUnitTests {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 4, 1);
+
+    private final TrainingRepository trainingRepository = mock(TrainingRepository.class);
+    private final TrainingActivityIndex index = new TrainingActivityIndex(trainingRepository);
+
+    @Test
+    void shouldCountTrainingsStartingWithinDays_whenFilteringByDateRange() {
+        rebuild(
+                training(1L, 1L, ActivityType.RUNNING, DAY.minusDays(1)),
+                training(2L, 1L, ActivityType.RUNNING, DAY),
+                training(3L, 2L, ActivityType.CYCLING, DAY.plusDays(1)),
+                training(4L, 2L, ActivityType.RUNNING, DAY.plusDays(2)),
+                training(5L, 1L, ActivityType.WALKING, DAY.plusDays(3)));
+
+        assertThat(index.countByActivityType(null, DAY, DAY.plusDays(2)))
+                .containsEntry(ActivityType.RUNNING, 2L)
+                .containsEntry(ActivityType.CYCLING, 1L)
+                .containsEntry(ActivityType.WALKING, 0L)
+                .containsEntry(ActivityType.TENNIS, 0L)
+                .hasSize(ActivityType.values().length);
+        assertThat(index.countByActivityType(null, DAY.plusDays(1), null)).containsEntry(ActivityType.RUNNING, 1L).containsEntry(ActivityType.WALKING, 1L);
+        assertThat(index.countByActivityType(null, null, DAY)).containsEntry(ActivityType.RUNNING, 2L).containsEntry(ActivityType.CYCLING, 0L);
+        assertThat(index.countByActivityType(null, DAY.plusDays(2), DAY)).containsEntry(ActivityType.RUNNING, 0L);
+        assertThat(index.countByActivityType(null, null, null)).containsEntry(ActivityType.RUNNING, 3L);
+    }
+
+    @Test
+    void shouldIntersectUserAndDateRange_whenFilteringByBoth() {
+        rebuild(
+                training(1L, 1L, ActivityType.RUNNING, DAY),
+                training(2L, 2L, ActivityType.RUNNING, DAY),
+                training(3L, 1L, ActivityType.CYCLING, DAY.plusDays(5)),
+                training(4L, 1L, ActivityType.RUNNING, DAY.plusDays(5)));
+
+        assertThat(index.countByActivityType(1L, null, null)).containsEntry(ActivityType.RUNNING, 2L).containsEntry(ActivityType.CYCLING, 1L);
+        assertThat(index.countByActivityType(1L, DAY, DAY)).containsEntry(ActivityType.RUNNING, 1L).containsEntry(ActivityType.CYCLING, 0L);
+        assertThat(index.countByActivityType(2L, DAY.plusDays(1), null)).containsEntry(ActivityType.RUNNING, 0L);
+        assertThat(index.countByActivityType(3L, null, null)).containsEntry(ActivityType.RUNNING, 0L);
+    }
+
+    @Test
+    void shouldMoveTraining_whenTrainingIsUpdated() {
+        TrainingSnapshot previous = training(1L, 1L, ActivityType.RUNNING, DAY);
+        index.onTrainingCreated(new TrainingCreatedEvent(previous));
+
+        index.onTrainingUpdated(new TrainingUpdatedEvent(previous, training(1L, 2L, ActivityType.CYCLING, DAY.plusDays(7))));
+
+        assertThat(index.countByActivityType(1L, null, null)).containsEntry(ActivityType.RUNNING, 0L).containsEntry(ActivityType.CYCLING, 0L);
+        assertThat(index.countByActivityType(null, DAY, DAY)).containsEntry(ActivityType.RUNNING, 0L).containsEntry(ActivityType.CYCLING, 0L);
+        assertThat(index.countByActivityType(2L, DAY.plusDays(7), DAY.plusDays(7)))
+                .containsEntry(ActivityType.RUNNING, 0L)
+                .containsEntry(ActivityType.CYCLING, 1L);
+    }
+
+    @Test
+    void shouldRemoveTrainingEverywhere_whenPreviousStateIsUnknown() {
+        index.onTrainingsImported(new TrainingsImportedEvent(List.of(
+                training(1L, 1L, ActivityType.RUNNING, DAY),
+                training(2L, 1L, ActivityType.RUNNING, DAY))));
+
+        index.onTrainingUpdated(new TrainingUpdatedEvent(null, training(1L, 2L, ActivityType.SWIMMING, DAY.plusDays(1))));
+
+        assertThat(index.countByActivityType(1L, null, null)).containsEntry(ActivityType.RUNNING, 1L).containsEntry(ActivityType.SWIMMING, 0L);
+        assertThat(index.countByActivityType(null, DAY, DAY)).containsEntry(ActivityType.RUNNING, 1L);
+        assertThat(index.countByActivityType(2L, DAY.plusDays(1), null)).containsEntry(ActivityType.SWIMMING, 1L);
+    }
+
+    @Test
+    void shouldDropTrainingsOfUser_whenUserIsDeleted() {
+        rebuild(
+                training(1L, 1L, ActivityType.RUNNING, DAY),
+                training(2L, 1L, ActivityType.CYCLING, DAY.plusDays(1)),
+                training(3L, 2L, ActivityType.RUNNING, DAY));
+
+        index.onUserDeleted(new UserDeletedEvent(1L));
+        index.onUserDeleted(new UserDeletedEvent(1L));
+
+        assertThat(index.countByActivityType(null, null, null))
+                .containsEntry(ActivityType.RUNNING, 1L)
+                .containsEntry(ActivityType.CYCLING, 0L);
+        assertThat(index.countByActivityType(null, DAY.plusDays(1), null)).containsEntry(ActivityType.CYCLING, 0L);
+        assertThat(index.countByActivityType(1L, null, null)).containsEntry(ActivityType.RUNNING, 0L);
+    }
+
+    @Test
+    void shouldIndexIdsUpToUnsignedIntLimit_whenIdsExceedIntRange() {
+        long largeId = Integer.MAX_VALUE + 1L;
+        index.onTrainingCreated(new TrainingCreatedEvent(training(largeId, 1L, ActivityType.TENNIS, DAY)));
+        index.onTrainingCreated(new TrainingCreatedEvent(training(TrainingActivityIndex.MAX_TRAINING_ID, 1L, ActivityType.TENNIS, DAY)));
+
+        assertThat(index.countByActivityType(1L, DAY, DAY)).containsEntry(ActivityType.TENNIS, 2L);
+        assertThatThrownBy(() -> index.onTrainingCreated(new TrainingCreatedEvent(
+                training(TrainingActivityIndex.MAX_TRAINING_ID + 1, 1L, ActivityType.TENNIS, DAY))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(index.countByActivityType(null, null, null)).containsEntry(ActivityType.TENNIS, 2L);
+    }
+
+    private void rebuild(TrainingSnapshot... trainings) {
+        when(trainingRepository.streamAllSnapshots()).thenReturn(Stream.of(trainings));
+        index.rebuild();
+    }
+
+    private static TrainingSnapshot training(long id, Long userId, ActivityType activityType, LocalDate day) {
+        Instant startTime = day.atTime(10, 0).toInstant(ZoneOffset.UTC);
+        return new TrainingSnapshot(id, userId, activityType, startTime, startTime.plusSeconds(3_600), 10, 10);
+    }
+}
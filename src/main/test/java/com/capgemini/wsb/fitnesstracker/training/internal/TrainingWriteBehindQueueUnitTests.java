@@ -0,0 +1,132 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrainingWriteBehindQueueUnitTests {
+
+    private final TrainingImportService trainingImportService = mock(TrainingImportService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(trainingImportService.importValidated(anyList())).thenAnswer(invocation -> {
+            List<TrainingCreationDto> trainings = invocation.getArgument(0);
+            synchronized (batchSizes) {
+                batchSizes.add(trainings.size());
+            }
+            return List.of();
+        });
+    }
+
+    @Test
+    void shouldRejectTrainings_whenQueueIsNotRunning() {
+        TrainingWriteBehindQueue queue = new TrainingWriteBehindQueue(trainingImportService, properties(10, 5), meterRegistry);
+
+        assertThat(queue.offer(training())).isEmpty();
+        assertThat(meterRegistry.get("trainings.write_behind.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldWriteEveryQueuedTrainingInBatches_whenStopping() {
+        TrainingWriteBehindQueue queue = new TrainingWriteBehindQueue(trainingImportService, properties(100, 4), meterRegistry);
+        queue.start();
+        for (int i = 0; i < 10; i++) {
+            assertThat(queue.offer(training())).isPresent();
+        }
+
+        queue.stop();
+
+        assertThat(batchSizes).allMatch(size -> size <= 4);
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+        assertThat(meterRegistry.get("trainings.write_behind.queue.depth").gauge().value()).isZero();
+        assertThat(meterRegistry.get("trainings.write_behind.flush").timer().count()).isEqualTo(batchSizes.size());
+    }
+
+    @Test
+    void shouldRejectTrainings_whenQueueIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(trainingImportService.importValidated(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return List.of();
+        });
+        TrainingWriteBehindQueue queue = new TrainingWriteBehindQueue(trainingImportService, properties(2, 1), meterRegistry);
+        queue.start();
+        assertThat(queue.offer(training())).isPresent();
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(queue.offer(training())).isPresent();
+        assertThat(queue.offer(training())).isPresent();
+        assertThat(queue.offer(training())).isEmpty();
+
+        release.countDown();
+        queue.stop();
+        assertThat(meterRegistry.get("trainings.write_behind.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRetryBatch_whenWritingBatchFailsTransiently() {
+        when(trainingImportService.importValidated(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(List.of(new TrainingImportResultDto(0, 1L, TrainingImportStatus.CREATED, null)));
+        TrainingWriteBehindQueue queue = new TrainingWriteBehindQueue(trainingImportService, properties(10, 5), meterRegistry);
+        queue.start();
+        assertThat(queue.offer(training())).isPresent();
+
+        queue.stop();
+
+        verify(trainingImportService, times(3)).importValidated(anyList());
+        assertThat(meterRegistry.get("trainings.write_behind.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldCountDroppedTrainings_whenTrainingIsInvalidOrBatchCannotBeWritten() {
+        when(trainingImportService.importValidated(anyList()))
+                .thenReturn(List.of(new TrainingImportResultDto(0, 1L, TrainingImportStatus.CREATED, null)))
+                .thenReturn(List.of(new TrainingImportResultDto(0, null, TrainingImportStatus.USER_NOT_FOUND, "User not found")))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        TrainingWriteBehindQueue queue = new TrainingWriteBehindQueue(trainingImportService, properties(10, 1), meterRegistry);
+        queue.start();
+        assertThat(queue.offer(training())).isPresent();
+        assertThat(queue.offer(training())).isPresent();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(meterRegistry.get("trainings.write_behind.dropped").counter().count()).isEqualTo(1));
+        assertThat(queue.offer(training())).isPresent();
+
+        queue.stop();
+
+        verify(trainingImportService, times(5)).importValidated(anyList());
+        assertThat(meterRegistry.get("trainings.write_behind.dropped").counter().count()).isEqualTo(2);
+    }
+
+    private static TrainingProperties properties(int queueCapacity, int batchSize) {
+        return new TrainingProperties(100, 1000, 500, true, queueCapacity, batchSize, Duration.ofMillis(50), Duration.ofSeconds(5),
+                3, Duration.ofMillis(10), false);
+    }
+
+    private static TrainingCreationDto training() {
+        Instant start = Instant.parse("2024-01-01T10:00:00Z");
+        return new TrainingCreationDto(null, start, start.plusSeconds(3600), ActivityType.RUNNING, 10.0, 10.0, 1L);
+    }
+}
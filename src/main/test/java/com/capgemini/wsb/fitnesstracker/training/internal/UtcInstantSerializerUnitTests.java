@@ -0,0 +1,42 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UtcInstantSerializerUnitTests {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS+00:00").withZone(ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(Instant.class, new UtcInstantSerializer()));
+
+    @Test
+    void shouldWriteSameTextAsFormatter_whenSerializingInstants() throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        long min = Instant.parse("0001-01-01T00:00:00Z").toEpochMilli();
+        long max = Instant.parse("9999-12-31T23:59:59.999Z").toEpochMilli();
+        for (int i = 0; i < 100_000; i++) {
+            Instant instant = Instant.ofEpochMilli(random.nextLong(min, max + 1)).plusNanos(random.nextInt(1_000_000));
+
+            assertThat(objectMapper.writeValueAsString(instant)).isEqualTo('"' + FORMAT.format(instant) + '"');
+        }
+    }
+
+    @Test
+    void shouldWriteBoundaryInstants() throws Exception {
+        for (String text : new String[]{"1970-01-01T00:00:00Z", "1969-12-31T23:59:59.999Z", "2000-02-29T12:00:00Z",
+                "2100-03-01T00:00:00Z", "0001-01-01T00:00:00Z", "9999-12-31T23:59:59.999Z", "+10000-01-01T00:00:00Z"}) {
+            Instant instant = Instant.parse(text);
+
+            assertThat(objectMapper.writeValueAsString(instant)).isEqualTo('"' + FORMAT.format(instant) + '"');
+        }
+    }
+}
@@ -19,6 +19,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -166,6 +167,53 @@ class UserApiIntegrationTest extends IntegrationTestBase {
 
     }
 
+    @Test
+    void shouldReportEveryUser_whenImportingUsers() throws Exception {
+        User existing = existingUser(generateUser());
+
+        String importRequest = """
+                {"firstName": "Mike", "lastName": "Scott", "birthdate": "1999-09-29", "email": "mike.scott@domain.com"}
+                {"firstName": "Jim", "lastName": "Halpert", "birthdate": "1998-01-01", "email": "%s"}
+                {"firstName": "Michael", "lastName": "Scott", "birthdate": "1999-09-29", "email": "MIKE.SCOTT@domain.com"}
+                {"firstName": "Pam", "lastName": "Beesly", "email": "pam.beesly@domain.com"}
+                """.formatted(existing.getEmail());
+
+        mockMvc.perform(post("/v1/users/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(importRequest))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$[2].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$[3].status").value("INVALID"));
+
+        assertThat(getAllUsers()).extracting(User::getEmail)
+                .containsExactlyInAnyOrder(existing.getEmail(), "mike.scott@domain.com");
+    }
+
+    @Test
+    void shouldRejectPatch_whenUserWasModifiedSinceETag() throws Exception {
+        User user = existingUser(generateUser());
+
+        mockMvc.perform(patch("/v1/users/{id}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", "\"0\"")
+                        .content("{\"firstName\": \"Dwight\"}"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.firstName").value("Dwight"));
+
+        mockMvc.perform(patch("/v1/users/{id}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", "\"0\"")
+                        .content("{\"firstName\": \"Jim\"}"))
+                .andDo(log())
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void shouldUpdateUser_whenUpdatingUser() throws Exception {
         User user1 = existingUser(generateUser());
@@ -0,0 +1,123 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UsersImportedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserBirthdateIndexUnitTests {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserBirthdateIndex index = new UserBirthdateIndex(userRepository);
+
+    @Test
+    void shouldCountUsersBornOnOrBeforeDate_whenIndexIsRebuilt() {
+        rebuild(user(1L, LocalDate.of(1990, 5, 10)), user(2L, LocalDate.of(1990, 5, 10)), user(3L, LocalDate.of(2000, 1, 1)));
+
+        assertThat(index.countBornOnOrBefore(LocalDate.of(1990, 5, 9))).isZero();
+        assertThat(index.countBornOnOrBefore(LocalDate.of(1990, 5, 10))).isEqualTo(2);
+        assertThat(index.countBornOnOrBefore(LocalDate.of(1999, 12, 31))).isEqualTo(2);
+        assertThat(index.countBornOnOrBefore(LocalDate.of(2000, 1, 1))).isEqualTo(3);
+        assertThat(index.countBornOnOrBefore(LocalDate.of(3000, 1, 1))).isEqualTo(3);
+        assertThat(index.countBornOnOrBefore(LocalDate.of(1000, 1, 1))).isZero();
+        assertThat(index.earliestBirthdate()).isEqualTo(LocalDate.of(1990, 5, 10));
+    }
+
+    @Test
+    void shouldReturnNoCounts_whenNoUsersAreIndexed() {
+        rebuild();
+
+        assertThat(index.countBornOnOrBefore(TODAY)).isZero();
+        assertThat(index.earliestBirthdate()).isNull();
+    }
+
+    @Test
+    void shouldMoveAndRemoveUser_whenUserIsUpdatedAndDeleted() {
+        rebuild(user(1L, LocalDate.of(1990, 5, 10)), user(2L, LocalDate.of(2000, 1, 1)));
+
+        index.onUserUpdated(new UserUpdatedEvent(user(1L, LocalDate.of(2005, 3, 3))));
+
+        assertThat(index.countBornOnOrBefore(LocalDate.of(2004, 12, 31))).isEqualTo(1);
+        assertThat(index.countBornOnOrBefore(LocalDate.of(2005, 3, 3))).isEqualTo(2);
+        assertThat(index.earliestBirthdate()).isEqualTo(LocalDate.of(2000, 1, 1));
+
+        index.onUserDeleted(new UserDeletedEvent(2L));
+        index.onUserDeleted(new UserDeletedEvent(2L));
+
+        assertThat(index.countBornOnOrBefore(LocalDate.of(2005, 3, 3))).isEqualTo(1);
+        assertThat(index.earliestBirthdate()).isEqualTo(LocalDate.of(2005, 3, 3));
+    }
+
+    @Test
+    void shouldMergeImportedUsers_whenUsersAreImported() {
+        rebuild(user(1L, LocalDate.of(1990, 5, 10)), user(2L, LocalDate.of(2000, 1, 1)));
+
+        index.onUsersImported(new UsersImportedEvent(List.of(
+                user(3L, LocalDate.of(1995, 7, 7)),
+                user(2L, LocalDate.of(1980, 2, 2)),
+                user(4L, LocalDate.of(1995, 7, 7)))));
+
+        assertThat(index.countsBornOnOrBefore(new LocalDate[]{
+                LocalDate.of(1980, 2, 1), LocalDate.of(1980, 2, 2), LocalDate.of(1990, 5, 10), LocalDate.of(1995, 7, 7), LocalDate.of(2000, 1, 1)}))
+                .containsExactly(0, 1, 2, 4, 4);
+        assertThat(index.earliestBirthdate()).isEqualTo(LocalDate.of(1980, 2, 2));
+    }
+
+    @Test
+    void shouldGrowCoveredDays_whenBirthdateIsFarOutsideThem() {
+        rebuild(user(1L, LocalDate.of(1990, 5, 10)));
+
+        index.onUserCreated(new UserCreatedEvent(user(2L, LocalDate.of(1850, 1, 1))));
+        index.onUserCreated(new UserCreatedEvent(user(3L, LocalDate.of(2150, 1, 1))));
+
+        assertThat(index.earliestBirthdate()).isEqualTo(LocalDate.of(1850, 1, 1));
+        assertThat(index.countBornOnOrBefore(LocalDate.of(1849, 12, 31))).isZero();
+        assertThat(index.countBornOnOrBefore(LocalDate.of(1990, 5, 10))).isEqualTo(2);
+        assertThat(index.countBornOnOrBefore(LocalDate.of(2150, 1, 1))).isEqualTo(3);
+    }
+
+    @Test
+    void shouldIndexUsers_whenUsersAreCreatedBeforeRebuild() {
+        index.onUserCreated(new UserCreatedEvent(user(1L, LocalDate.of(1960, 1, 1))));
+        index.onUserCreated(new UserCreatedEvent(user(2L, LocalDate.of(1961, 1, 1))));
+
+        assertThat(index.countBornOnOrBefore(LocalDate.of(1960, 6, 1))).isEqualTo(1);
+        assertThat(index.earliestBirthdate()).isEqualTo(LocalDate.of(1960, 1, 1));
+    }
+
+    @Test
+    void shouldPutUsersIntoBracketsByAge_whenBuildingHistogram() {
+        rebuild(
+                user(1L, TODAY),
+                user(2L, TODAY.minusYears(10).plusDays(1)),
+                user(3L, TODAY.minusYears(10)),
+                user(4L, TODAY.minusYears(25)));
+        UserQueryService queryService = new UserQueryService(userRepository, null, index, null, null);
+
+        assertThat(queryService.getAgeHistogram(10)).containsExactly(
+                new AgeBracketDto(0, 10, 2),
+                new AgeBracketDto(10, 20, 1),
+                new AgeBracketDto(20, 30, 1));
+    }
+
+    private void rebuild(UserSnapshot... users) {
+        when(userRepository.streamAllSnapshots()).thenReturn(Stream.of(users));
+        index.rebuild();
+    }
+
+    private static UserSnapshot user(Long id, LocalDate birthdate) {
+        return new UserSnapshot(id, "Jane", "Doe", birthdate, "user" + id + "@domain.com", 0);
+    }
+}
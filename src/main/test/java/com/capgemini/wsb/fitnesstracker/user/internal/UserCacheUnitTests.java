@@ -0,0 +1,136 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserUpdatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheUnitTests {
+
+    /**
+     * The users table, by ID.
+     */
+    private final Map<Long, UserSnapshot> users = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final UserCache userCache = new UserCache(
+            new UserProperties(100, 1000, 100, Duration.ofMinutes(10), 500, 1000, 500), new SimpleMeterRegistry());
+
+    @Test
+    void shouldLoadOnce_whenUserIsReadRepeatedlyByEmail() {
+        save(user(1L, "Jane@Domain.com", 0));
+
+        assertThat(getByEmail("jane@domain.com")).contains(users.get(1L));
+        assertThat(getByEmail(" JANE@domain.com ")).contains(users.get(1L));
+        assertThat(getById(1L)).contains(users.get(1L));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldReturnNewState_whenUserIsReadByEmailAfterUpdate() {
+        save(user(1L, "jane@domain.com", 0));
+        assertThat(getByEmail("jane@domain.com")).map(UserSnapshot::version).contains(0L);
+
+        update(user(1L, "jane@domain.com", 1));
+
+        assertThat(getByEmail("jane@domain.com")).map(UserSnapshot::version).contains(1L);
+        assertThat(getById(1L)).map(UserSnapshot::version).contains(1L);
+    }
+
+    @Test
+    void shouldFollowNewEmail_whenUserChangesEmail() {
+        save(user(1L, "jane@domain.com", 0));
+        assertThat(getByEmail("jane@domain.com")).isPresent();
+
+        update(user(1L, "jane.doe@domain.com", 1));
+
+        assertThat(getByEmail("jane@domain.com")).isEmpty();
+        assertThat(getByEmail("jane.doe@domain.com")).map(UserSnapshot::version).contains(1L);
+    }
+
+    @Test
+    void shouldReturnNewOwner_whenEmailPassesToAnotherUser() {
+        save(user(1L, "jane@domain.com", 0));
+        assertThat(getByEmail("jane@domain.com")).map(UserSnapshot::id).contains(1L);
+
+        update(user(1L, "jane.doe@domain.com", 1));
+        save(user(2L, "jane@domain.com", 0));
+
+        assertThat(getByEmail("jane@domain.com")).map(UserSnapshot::id).contains(2L);
+    }
+
+    @Test
+    void shouldNotReturnUser_whenUserIsDeleted() {
+        save(user(1L, "jane@domain.com", 0));
+        assertThat(getByEmail("jane@domain.com")).isPresent();
+
+        users.remove(1L);
+        userCache.onUserDeleted(new UserDeletedEvent(1L));
+
+        assertThat(getByEmail("jane@domain.com")).isEmpty();
+        assertThat(getById(1L)).isEmpty();
+    }
+
+    @Test
+    void shouldNotCacheLoadedState_whenUserIsUpdatedWhileLoading() throws Exception {
+        save(user(1L, "jane@domain.com", 0));
+        CompletableFuture<Void> commit = new CompletableFuture<>();
+
+        Optional<UserSnapshot> loaded = userCache.getByEmail("jane@domain.com", this::findIdByEmail, id -> {
+            Optional<UserSnapshot> user = Optional.ofNullable(users.get(id));
+            // the update commits and invalidates the user after the load read the previous state
+            CompletableFuture.runAsync(() -> update(user(1L, "jane@domain.com", 1))).whenComplete((result, e) -> commit.complete(null));
+            return user;
+        });
+        commit.get(5, TimeUnit.SECONDS);
+
+        assertThat(loaded).map(UserSnapshot::version).contains(0L);
+        assertThat(getByEmail("jane@domain.com")).map(UserSnapshot::version).contains(1L);
+    }
+
+    private Optional<UserSnapshot> getByEmail(String email) {
+        return userCache.getByEmail(email, this::findIdByEmail, this::findById);
+    }
+
+    private Optional<UserSnapshot> getById(Long id) {
+        return userCache.getById(id, this::findById);
+    }
+
+    private Optional<Long> findIdByEmail(String emailNormalized) {
+        return users.values().stream()
+                .filter(user -> User.normalizeEmail(user.email()).equals(emailNormalized))
+                .map(UserSnapshot::id)
+                .findFirst();
+    }
+
+    private Optional<UserSnapshot> findById(Long id) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(users.get(id));
+    }
+
+    private void save(UserSnapshot user) {
+        users.put(user.id(), user);
+    }
+
+    private void update(UserSnapshot user) {
+        save(user);
+        userCache.onUserUpdated(new UserUpdatedEvent(user));
+    }
+
+    private static UserSnapshot user(Long id, String email, long version) {
+        return new UserSnapshot(id, "Jane", "Doe", LocalDate.of(1990, 1, 1), email, version);
+    }
+}
@@ -0,0 +1,81 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that deleting a user removes their trainings, both within the request and in the background.
+ * Not transactional, so the background deletion sees the committed user and trainings.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = "fitness-tracker.users.deletion-chunk-size=2")
+class UserDeletionIntegrationTest extends IntegrationTestBase {
+
+    private static final Instant START = Instant.ofEpochMilli(1_700_000_000_000L);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldDeleteUserAndTrainings_whenDeletingUser() throws Exception {
+        User user = userWithTrainings(5);
+        User other = userWithTrainings(1);
+
+        mockMvc.perform(delete("/v1/users/{userId}", user.getId()))
+                .andExpect(status().isNoContent());
+
+        assertThat(getAllUsers()).extracting(User::getId).containsExactly(other.getId());
+        assertThat(getAllTrainings()).extracting(training -> training.getUser().getId()).containsExactly(other.getId());
+    }
+
+    @Test
+    void shouldReturnNotFound_whenDeletingMissingUser() throws Exception {
+        mockMvc.perform(delete("/v1/users/{userId}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/v1/users/{userId}", Long.MAX_VALUE).param("async", "true"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldDeleteUserAndTrainingsInChunks_whenDeletingUserInBackground() throws Exception {
+        User user = userWithTrainings(5);
+        User other = userWithTrainings(1);
+
+        mockMvc.perform(delete("/v1/users/{userId}", user.getId()).param("async", "true"))
+                .andExpect(status().isAccepted());
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(getAllUsers()).extracting(User::getId).containsExactly(other.getId()));
+        assertThat(getAllTrainings()).extracting(training -> training.getUser().getId()).containsExactly(other.getId());
+    }
+
+    private User userWithTrainings(int trainings) {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(),
+                LocalDate.now().minusYears(30), randomUUID() + "@domain.com"));
+        for (int i = 0; i < trainings; i++) {
+            Instant start = START.plus(i, ChronoUnit.DAYS);
+            persistTraining(new Training(user, start, start.plus(1, ChronoUnit.HOURS), ActivityType.RUNNING, 10.5, 8.2));
+        }
+        return user;
+    }
+}
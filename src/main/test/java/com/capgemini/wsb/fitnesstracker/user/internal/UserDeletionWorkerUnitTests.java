@@ -0,0 +1,83 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDeletionWorkerUnitTests {
+
+    private static final Long USER_ID = 1L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final UserDeletionWorker worker = new UserDeletionWorker(userRepository,
+            new UserProperties(100, 1000, 100, Duration.ofMinutes(10), 500, 2, 500),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), eventPublisher);
+
+    @Test
+    void shouldDeleteChunksThenUser_whenDeletingUser() {
+        when(userRepository.findTrainingIdsByUserId(USER_ID, Limit.of(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L))
+                .thenReturn(List.of());
+        when(userRepository.deleteTrainingsByIdIn(any())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+        when(userRepository.deleteUserById(USER_ID)).thenReturn(1);
+
+        worker.deleteInChunks(USER_ID);
+
+        verify(userRepository, times(2)).deleteTrainingsByIdIn(any());
+        verify(userRepository).deleteTrainingsByUserId(USER_ID);
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(USER_ID, List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void shouldDeleteRemainingTrainingsAgain_whenTrainingIsAddedBeforeUserIsDeleted() {
+        when(userRepository.findTrainingIdsByUserId(USER_ID, Limit.of(2))).thenReturn(List.of());
+        when(userRepository.findAllTrainingIdsByUserId(USER_ID)).thenReturn(List.of(4L)).thenReturn(List.of(4L, 5L));
+        when(userRepository.deleteUserById(USER_ID))
+                .thenThrow(new DataIntegrityViolationException("training references user"))
+                .thenReturn(1);
+
+        worker.deleteInChunks(USER_ID);
+
+        verify(userRepository, times(2)).deleteTrainingsByUserId(USER_ID);
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(USER_ID, List.of(4L, 5L)));
+    }
+
+    @Test
+    void shouldGiveUpWithoutThrowing_whenUserCannotBeDeleted() {
+        when(userRepository.findTrainingIdsByUserId(USER_ID, Limit.of(2))).thenReturn(List.of());
+        when(userRepository.deleteUserById(anyLong())).thenThrow(new DataIntegrityViolationException("training references user"));
+
+        assertThatCode(() -> worker.deleteInChunks(USER_ID)).doesNotThrowAnyException();
+
+        verify(userRepository, times(3)).deleteUserById(USER_ID);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldNotPublishEvent_whenUserWasAlreadyDeleted() {
+        when(userRepository.findTrainingIdsByUserId(USER_ID, Limit.of(2))).thenReturn(List.of());
+        when(userRepository.deleteUserById(USER_ID)).thenReturn(0);
+
+        worker.deleteInChunks(USER_ID);
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
@@ -0,0 +1,92 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UsersImportedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserEmailIndexUnitTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserEmailIndex index = new UserEmailIndex(userRepository);
+
+    @Test
+    void shouldFindUsersContainingFragment_whenFragmentSpansSeveralTrigrams() {
+        rebuild(user(1L, "john.doe@mail.com"), user(2L, "jane.doe@mail.com"), user(3L, "abcxbcd@mail.com"), user(4L, "eve@doe.org"));
+
+        assertThat(index.search("doe@", 10)).containsExactly(1L, 2L);
+        assertThat(index.search("doe", 10)).containsExactly(1L, 2L, 4L);
+        // both trigrams of the fragment occur in the email, but not next to each other
+        assertThat(index.search("abcd", 10)).isEmpty();
+        assertThat(index.search("xyz", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreCaseAndSurroundingWhitespace_whenSearching() {
+        rebuild(user(1L, "John.Doe@Mail.com"));
+
+        assertThat(index.search("  DOE@MAIL ", 10)).containsExactly(1L);
+        assertThat(index.search("jOhN", 10)).containsExactly(1L);
+        assertThat(index.search("   ", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldReturnSmallestMatchingIds_whenMoreUsersMatchThanLimit() {
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 200).boxed().toList());
+        Collections.shuffle(ids, new Random(42));
+        index.onUsersImported(new UsersImportedEvent(ids.stream()
+                .map(id -> user(id, (id % 2 == 0 ? "even" : "odd") + id + "@mail.com"))
+                .toList()));
+
+        assertThat(index.search("even", 3)).containsExactly(2L, 4L, 6L);
+        assertThat(index.search("od", 3)).containsExactly(1L, 3L, 5L);
+        assertThat(index.search("e", 2)).containsExactly(2L, 4L);
+        assertThat(index.search("@mail.com", 0)).isEmpty();
+    }
+
+    @Test
+    void shouldFindUserByNewEmailOnly_whenEmailChanges() {
+        index.onUserCreated(new UserCreatedEvent(user(1L, "john.doe@mail.com")));
+        index.onUserCreated(new UserCreatedEvent(user(2L, "jane@mail.com")));
+
+        index.onUserUpdated(new UserUpdatedEvent(user(1L, "johnny@post.org")));
+
+        assertThat(index.search("doe", 10)).isEmpty();
+        assertThat(index.search("john", 10)).containsExactly(1L);
+        assertThat(index.search("post.org", 10)).containsExactly(1L);
+        assertThat(index.search("mail.com", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void shouldNotFindUser_whenUserIsDeleted() {
+        rebuild(user(1L, "john.doe@mail.com"), user(2L, "jane.doe@mail.com"));
+
+        index.onUserDeleted(new UserDeletedEvent(1L));
+
+        assertThat(index.search("doe", 10)).containsExactly(2L);
+        assertThat(index.search("jo", 10)).isEmpty();
+    }
+
+    private void rebuild(UserSnapshot... users) {
+        when(userRepository.streamAllSnapshots()).thenReturn(Stream.of(users));
+        index.rebuild();
+    }
+
+    private static UserSnapshot user(Long id, String email) {
+        return new UserSnapshot(id, "John", "Doe", LocalDate.of(1990, 1, 1), email, 0);
+    }
+}
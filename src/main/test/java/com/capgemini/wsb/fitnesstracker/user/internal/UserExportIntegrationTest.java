@@ -0,0 +1,99 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the NDJSON user export, plain and compressed.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class UserExportIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldExportUsersWithTrainingCounts_whenExportingUsers() throws Exception {
+        User runner = existingUsersWithTrainings();
+
+        byte[] export = mockMvc.perform(get("/v1/users/export"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertExport(new String(export, StandardCharsets.UTF_8), runner);
+    }
+
+    @Test
+    void shouldCompressExport_whenGzipIsRequested() throws Exception {
+        User runner = existingUsersWithTrainings();
+
+        byte[] export = mockMvc.perform(get("/v1/users/export").param("gzip", "true"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertExport(gunzip(export), runner);
+    }
+
+    private User existingUsersWithTrainings() {
+        User runner = existingUser(new User("Mike", "Scott", LocalDate.of(1999, 9, 29), "mike.scott@domain.com"));
+        existingUser(new User("Pam", "Beesly", LocalDate.of(1997, 3, 25), "pam.beesly@domain.com"));
+        Instant startTime = Instant.parse("2024-01-19T08:00:00Z");
+        createAllTrainings(List.of(
+                new Training(runner, startTime, startTime.plusSeconds(3_600), ActivityType.RUNNING, 10.5, 8.2),
+                new Training(runner, startTime.plusSeconds(86_400), startTime.plusSeconds(90_000), ActivityType.CYCLING, 20, 18)));
+        return runner;
+    }
+
+    private static void assertExport(String export, User runner) {
+        List<String> lines = export.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(JsonPath.<Number>read(lines.get(0), "$.Id").longValue()).isEqualTo(runner.getId());
+        assertThat(JsonPath.<String>read(lines.get(0), "$.birthdate")).isEqualTo("1999-09-29");
+        assertThat(JsonPath.<Number>read(lines.get(0), "$.trainingCount").longValue()).isEqualTo(2);
+        assertThat(JsonPath.<String>read(lines.get(1), "$.email")).isEqualTo("pam.beesly@domain.com");
+        assertThat(JsonPath.<Number>read(lines.get(1), "$.trainingCount").longValue()).isZero();
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
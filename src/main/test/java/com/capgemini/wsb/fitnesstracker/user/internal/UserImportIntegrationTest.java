@@ -0,0 +1,51 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies how the user import reports rows rejected by the database. Not transactional, so a chunk violating a
+ * constraint rolls back on its own and is retried row by row.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class UserImportIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldReportInvalidUser_whenUserViolatesConstraintOtherThanUniqueEmail() throws Exception {
+        String importRequest = """
+                {"firstName": "Mike", "lastName": "Scott", "birthdate": "1999-09-29", "email": "mike.scott@domain.com"}
+                {"firstName": "%s", "lastName": "Halpert", "birthdate": "1998-01-01", "email": "jim.halpert@domain.com"}
+                {"firstName": "Pam", "lastName": "Beesly", "birthdate": "1997-03-25", "email": "pam.beesly@domain.com"}
+                """.formatted("J".repeat(300));
+
+        mockMvc.perform(post("/v1/users/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(importRequest))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[2].status").value("CREATED"));
+
+        assertThat(getAllUsers()).extracting(User::getEmail)
+                .containsExactlyInAnyOrder("mike.scott@domain.com", "pam.beesly@domain.com");
+    }
+}
@@ -0,0 +1,109 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies keyset paging and NDJSON streaming of user listings.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class UserPagingIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldFollowCursorToLastPage_whenPagingThroughUsers() throws Exception {
+        List<Long> ids = existingUsers(5);
+
+        mockMvc.perform(get("/v1/users").param("size", "2"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].Id").value(ids.get(0)))
+                .andExpect(jsonPath("$[1].Id").value(ids.get(1)))
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, String.valueOf(ids.get(1))));
+
+        mockMvc.perform(get("/v1/users").param("after", String.valueOf(ids.get(1))).param("size", "2"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].Id").value(ids.get(2)))
+                .andExpect(jsonPath("$[1].Id").value(ids.get(3)))
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, String.valueOf(ids.get(3))));
+
+        mockMvc.perform(get("/v1/users").param("after", String.valueOf(ids.get(3))).param("size", "2"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].Id").value(ids.get(4)))
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void shouldReturnEmptyLastPage_whenUsersFillPagesExactly() throws Exception {
+        List<Long> ids = existingUsers(4);
+
+        mockMvc.perform(get("/v1/users/nameAndId").param("after", String.valueOf(ids.get(1))).param("size", "2"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].Id").value(ids.get(2)))
+                .andExpect(jsonPath("$[1].firstName").value("First4"))
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, String.valueOf(ids.get(3))));
+
+        mockMvc.perform(get("/v1/users/nameAndId").param("after", String.valueOf(ids.get(3))).param("size", "2"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void shouldStreamAllUsersOnePerLine_whenNdjsonIsAccepted() throws Exception {
+        List<Long> ids = existingUsers(3);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/v1/users").accept(MediaType.APPLICATION_NDJSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER))
+                .andReturn()
+                .getResponse();
+
+        List<String> lines = response.getContentAsString().lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines).extracting(line -> JsonPath.<Number>read(line, "$.Id").longValue()).containsExactlyElementsOf(ids);
+        assertThat(lines).extracting(line -> JsonPath.<String>read(line, "$.email")).containsExactly(
+                "user1@domain.com", "user2@domain.com", "user3@domain.com");
+    }
+
+    private List<Long> existingUsers(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> existingUser(new User("First" + i, "Last" + i, LocalDate.of(1990, 1, i), "user" + i + "@domain.com")))
+                .map(User::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,87 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the entity-based and the projection-based read paths of the {@code /v1/users/nameAndId} endpoint.
+ * Not picked up by the default test run, execute explicitly with {@code -Dtest=UserProjectionBenchmark}.
+ */
+@IntegrationTest
+@Tag("Benchmark")
+@Slf4j
+class UserProjectionBenchmark extends IntegrationTestBase {
+
+    private static final int USERS = 5_000;
+    private static final int PAGE_SIZE = 1_000;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldAllocateLessWithProjection_whenReadingNamesAndIds() {
+        userRepository.saveAll(IntStream.range(0, USERS).mapToObj(i -> generateUser()).toList());
+
+        Result entities = measure("entity", () -> userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(PAGE_SIZE))
+                .stream()
+                .map(userMapper::toNameAndIdDto)
+                .toList());
+        Result projections = measure("projection", () -> userRepository.findNameAndIdByIdGreaterThan(0L, Limit.of(PAGE_SIZE)));
+
+        log.info("{}", entities);
+        log.info("{}", projections);
+        assertThat(projections.bytesPerOperation()).isLessThan(entities.bytesPerOperation());
+    }
+
+    private Result measure(String name, Supplier<List<UserDtoNameAndId>> operation) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            transactionTemplate.execute(status -> operation.get());
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            List<UserDtoNameAndId> page = transactionTemplate.execute(status -> operation.get());
+            assertThat(page).hasSize(PAGE_SIZE);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(name, MEASURED_ROUNDS * 1_000_000_000.0 / elapsed, allocated / MEASURED_ROUNDS);
+    }
+
+    private static User generateUser() {
+        return new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), randomUUID().toString());
+    }
+
+    private record Result(String name, double operationsPerSecond, long bytesPerOperation) {
+
+        @Override
+        public String toString() {
+            return "%-10s %10.1f ops/s %12d B/op (page of %d users)".formatted(name, operationsPerSecond, bytesPerOperation, PAGE_SIZE);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UsersImportedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserSearchIndexUnitTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserSearchIndex index = new UserSearchIndex(userRepository);
+
+    @Test
+    void shouldIgnoreDiacriticsAndCase_whenSearching() {
+        rebuild(user(1L, "Zoë", "Müller", "zoe.m@domain.com"), user(2L, "Renée", "O'Neil", "renee@domain.com"));
+
+        assertThat(ids(index.search("zoe", 10))).containsExactly(1L);
+        assertThat(ids(index.search("MULLER", 10))).containsExactly(1L);
+        assertThat(ids(index.search("Zoë Müller", 10))).containsExactly(1L);
+        assertThat(ids(index.search("renée o'neil", 10))).containsExactly(2L);
+        assertThat(ids(index.search("neil", 10))).containsExactly(2L);
+        assertThat(ids(index.search(" .,- ", 10))).isEmpty();
+    }
+
+    @Test
+    void shouldMatchTokensStartingWithTerm_whenSearchingByPrefix() {
+        rebuild(
+                user(1L, "Ann", "Smith", "a.smith@domain.com"),
+                user(2L, "Annabelle", "Smith", "annabelle@domain.com"),
+                user(3L, "Joanna", "Smith", "joanna@domain.com"),
+                user(4L, "Anton", "Smith", "anton@domain.com"));
+
+        assertThat(ids(index.search("an", 10))).containsExactly(1L, 2L, 4L);
+        assertThat(ids(index.search("ann", 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("anna", 10))).containsExactly(2L);
+        assertThat(ids(index.search("annx", 10))).isEmpty();
+        assertThat(ids(index.search("an", 2))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldRankNameMatchesAboveEmailMatches_whenTermMatchesBoth() {
+        rebuild(
+                user(1L, "John", "Doe", "smith@domain.com"),
+                user(2L, "John", "Smith", "john@domain.com"),
+                user(3L, "John", "Smithson", "john.smithson@domain.com"));
+
+        // exact name match (3 * 2), prefix name match (3), exact email match (1 * 2)
+        assertThat(ids(index.search("smith", 10))).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void shouldRankWholeTokenAboveLongerToken_whenTermIsExactMatch() {
+        rebuild(user(1L, "Jane", "Jonesy", "jane.jonesy@domain.com"), user(2L, "Jane", "Jones", "jane.jones@domain.com"));
+
+        assertThat(ids(index.search("jones", 10))).containsExactly(2L, 1L);
+        assertThat(ids(index.search("jon", 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldRequireAllTermsAndSumTheirScores_whenQueryHasSeveralTerms() {
+        rebuild(
+                user(1L, "Mary", "Brown", "mary@domain.com"),
+                user(2L, "Mary", "Green", "mary.brown@domain.com"),
+                user(3L, "Peter", "Brown", "peter@domain.com"));
+
+        assertThat(ids(index.search("mary brown", 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("brown mary", 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("mary peter", 10))).isEmpty();
+    }
+
+    @Test
+    void shouldReindexUser_whenUserIsUpdated() {
+        index.onUserCreated(new UserCreatedEvent(user(1L, "Emma", "Stone", "emma.stone@domain.com")));
+        index.onUsersImported(new UsersImportedEvent(List.of(user(2L, "Emily", "Stone", "emily@domain.com"))));
+
+        index.onUserUpdated(new UserUpdatedEvent(user(1L, "Emma", "Watson", "emma.watson@domain.com")));
+
+        assertThat(ids(index.search("stone", 10))).containsExactly(2L);
+        assertThat(ids(index.search("watson", 10))).containsExactly(1L);
+        assertThat(index.search("emma", 10)).singleElement().extracting(UserSnapshot::lastName).isEqualTo("Watson");
+    }
+
+    @Test
+    void shouldNotFindUser_whenUserIsDeleted() {
+        rebuild(user(1L, "Emma", "Stone", "emma@domain.com"), user(2L, "Emily", "Stone", "emily@domain.com"));
+
+        index.onUserDeleted(new UserDeletedEvent(1L));
+        index.onUserDeleted(new UserDeletedEvent(1L));
+
+        assertThat(ids(index.search("stone", 10))).containsExactly(2L);
+        assertThat(index.search("emma", 10)).isEmpty();
+    }
+
+    private void rebuild(UserSnapshot... users) {
+        when(userRepository.streamAllSnapshots()).thenReturn(Stream.of(users));
+        index.rebuild();
+    }
+
+    private static List<Long> ids(List<UserSnapshot> users) {
+        return users.stream().map(UserSnapshot::id).toList();
+    }
+
+    private static UserSnapshot user(Long id, String firstName, String lastName, String email) {
+        return new UserSnapshot(id, firstName, lastName, LocalDate.of(1990, 1, 1), email, 0);
+    }
+}